@@ -0,0 +1,89 @@
+package com.capitalhub.analytics.controller;
+
+import com.capitalhub.analytics.dto.FunnelResponse;
+import com.capitalhub.analytics.dto.TrainingFunnelResponse;
+import com.capitalhub.analytics.service.ApplicationFunnelAggregator;
+import com.capitalhub.analytics.service.TrainingFunnelAggregator;
+import com.capitalhub.auth.entity.User;
+import com.capitalhub.company.entity.Company;
+import com.capitalhub.company.repository.CompanyRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final ApplicationFunnelAggregator funnelAggregator;
+    private final TrainingFunnelAggregator trainingFunnelAggregator;
+    private final CompanyRepository companyRepository;
+
+    // 1. EMPRESA: Funnel de aplicaciones de la empresa con el desglose por oferta
+    @PreAuthorize("hasAuthority('COMPANY')")
+    @GetMapping("/company/analytics/funnel")
+    public FunnelResponse companyFunnel(Authentication authentication) {
+        return funnelAggregator.companyFunnel(getCompany(authentication).getId());
+    }
+
+    // 2. EMPRESA: Funnel de una oferta
+    @PreAuthorize("hasAuthority('COMPANY')")
+    @GetMapping("/company/analytics/funnel/{offerId}")
+    public FunnelResponse offerFunnel(@PathVariable Long offerId, Authentication authentication) {
+        return funnelAggregator.offerFunnel(getCompany(authentication).getId(), offerId);
+    }
+
+    // ADMIN: Estado del agregador (eventos procesados, huecos, snapshots)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/analytics/funnel")
+    public Map<String, Object> funnelStats() {
+        return funnelAggregator.stats();
+    }
+
+    // ADMIN: Guardar un snapshot ahora
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/admin/analytics/funnel/snapshot")
+    public Map<String, Object> funnelSnapshot() {
+        return funnelAggregator.snapshot();
+    }
+
+    // ADMIN: Funnel de formación por curso y lección (solo agregados en memoria)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/analytics/training")
+    public List<TrainingFunnelResponse> trainingFunnel() {
+        return trainingFunnelAggregator.funnel();
+    }
+
+    // ADMIN: Estado del agregador de formación
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/analytics/training/state")
+    public Map<String, Object> trainingFunnelStats() {
+        return trainingFunnelAggregator.stats();
+    }
+
+    // ADMIN: Guardar un snapshot del funnel de formación ahora
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/admin/analytics/training/snapshot")
+    public Map<String, Object> trainingFunnelSnapshot() {
+        return trainingFunnelAggregator.snapshot();
+    }
+
+    // ADMIN: Recalcular el funnel de formación desde user_progress
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/admin/analytics/training/rebuild")
+    public Map<String, Object> trainingFunnelRebuild() {
+        return trainingFunnelAggregator.rebuild();
+    }
+
+    private Company getCompany(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return companyRepository.findByUserId(user.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
+    }
+}
@@ -0,0 +1,17 @@
+package com.capitalhub.analytics.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DurationStats {
+
+    private long count;
+    private Double avgHours;            // null si no hay datos
+    private String p50;                 // tramo del histograma donde cae la mediana, p.ej. "<24h"
+    private String p90;
+    private Map<String, Long> buckets;  // tramo -> número de casos
+}
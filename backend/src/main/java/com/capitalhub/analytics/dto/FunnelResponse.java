@@ -0,0 +1,25 @@
+package com.capitalhub.analytics.dto;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class FunnelResponse {
+
+    private Long companyId;
+    private Long jobOfferId;                     // null en el funnel de empresa
+    private Map<ApplicationStatus, Long> reached; // aplicaciones que han pasado alguna vez por cada estado
+    private double interviewRate;                 // INTERVIEW / APPLIED
+    private double offerRate;                     // OFFER_SENT / APPLIED
+    private double hireRate;                      // HIRED / APPLIED
+    private double interviewToHireRate;           // HIRED / INTERVIEW
+    private DurationStats timeToInterview;
+    private DurationStats timeToHire;
+    private long lastEventId;                     // último evento del log incluido
+    private List<FunnelResponse> offers;          // desglose por oferta (solo en el de empresa)
+}
@@ -0,0 +1,31 @@
+package com.capitalhub.analytics.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class TrainingFunnelResponse {
+
+    private Long courseId;
+    private String title;
+    private long started;             // usuarios con al menos una lección completada
+    private long finished;            // usuarios que completaron todas las lecciones
+    private double completionRate;    // finished / started
+    private DurationStats timeToFinish; // de la primera a la última lección del curso
+    private List<LessonFunnel> lessons; // en orden de posición
+
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    @Builder
+    public static class LessonFunnel {
+        private Long lessonId;
+        private int position;                  // 1..n dentro del curso
+        private String title;
+        private long completions;
+        private double retention;              // completions / started del curso
+        private DurationStats timeSincePrevious; // desde la anterior lección completada del mismo curso
+    }
+}
@@ -0,0 +1,42 @@
+package com.capitalhub.analytics.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Snapshots de los agregados de analítica (tabla analytics_snapshots, una fila por agregador).
+ * lastEventId es el último evento de application_events incluido en el snapshot.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsSnapshotRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record StoredSnapshot(long lastEventId, byte[] payload) {
+    }
+
+    public Optional<StoredSnapshot> find(String name) {
+        return jdbc.query("SELECT last_event_id, payload FROM analytics_snapshots WHERE name = :name",
+                        new MapSqlParameterSource("name", name),
+                        (rs, i) -> new StoredSnapshot(rs.getLong("last_event_id"), rs.getBytes("payload")))
+                .stream()
+                .findFirst();
+    }
+
+    public void save(String name, long lastEventId, byte[] payload) {
+        jdbc.update("""
+                        INSERT INTO analytics_snapshots (name, last_event_id, payload)
+                        VALUES (:name, :lastEventId, :payload)
+                        ON DUPLICATE KEY UPDATE last_event_id = VALUES(last_event_id), payload = VALUES(payload)
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("name", name)
+                        .addValue("lastEventId", lastEventId)
+                        .addValue("payload", payload));
+    }
+}
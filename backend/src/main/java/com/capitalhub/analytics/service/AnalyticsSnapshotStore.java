@@ -0,0 +1,60 @@
+package com.capitalhub.analytics.service;
+
+import com.capitalhub.analytics.repository.AnalyticsSnapshotRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot de un agregador de analítica en analytics_snapshots: su estado como JSON comprimido con gzip.
+ * encode se llama con el lock del agregador (el estado no puede cambiar a medias); save, ya fuera de él.
+ */
+final class AnalyticsSnapshotStore<T> {
+
+    private final AnalyticsSnapshotRepository repository;
+    private final ObjectMapper objectMapper;
+    private final String name;
+    private final Class<T> type;
+
+    AnalyticsSnapshotStore(AnalyticsSnapshotRepository repository, ObjectMapper objectMapper, String name, Class<T> type) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.name = name;
+        this.type = type;
+    }
+
+    byte[] encode(T state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, state);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo serializar el snapshot " + name, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    void save(long lastEventId, byte[] payload) {
+        repository.save(name, lastEventId, payload);
+    }
+
+    // Vacío si no hay snapshot o no se puede leer; la compatibilidad de la versión la decide cada agregador
+    Optional<T> load() {
+        return repository.find(name).map(stored -> decode(stored.payload()));
+    }
+
+    private T decode(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, type);
+        } catch (IOException e) {
+            System.out.println("⚠️ Snapshot " + name + " ilegible (" + e.getMessage() + "): se descarta");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,528 @@
+package com.capitalhub.analytics.service;
+
+import com.capitalhub.analytics.dto.FunnelResponse;
+import com.capitalhub.analytics.repository.AnalyticsSnapshotRepository;
+import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.applications.repository.ApplicationEventLogRepository;
+import com.capitalhub.applications.repository.ApplicationEventLogRepository.LogEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Funnel de aplicaciones por oferta y por empresa, calculado en memoria a partir de application_events.
+ * Lee el log de forma incremental (eventos con id mayor que el último procesado) y mantiene:
+ * cuántas aplicaciones han llegado a cada estado y los histogramas de tiempo hasta entrevista y hasta contratación.
+ * El estado se guarda periódicamente en analytics_snapshots; al arrancar se carga el snapshot
+ * y solo se reprocesan los eventos posteriores. Las consultas nunca tocan job_applications.
+ * De las aplicaciones en un estado final solo se guarda qué estados ya contaron y cuándo aplicaron,
+ * por si se reabren; unas y otras se olvidan tras track-retention-days sin eventos.
+ * Los eventos se aplican en orden de id: los que se leen detrás de un hueco esperan a que aparezca o caduque.
+ */
+@Service
+public class ApplicationFunnelAggregator {
+
+    private static final String SNAPSHOT_NAME = "application-funnel";
+    private static final int SNAPSHOT_VERSION = 3;
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+    private static final Set<ApplicationStatus> FINAL_STATUSES =
+            EnumSet.of(ApplicationStatus.HIRED, ApplicationStatus.REJECTED, ApplicationStatus.WITHDRAWN);
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    // Huecos de id más grandes no son transacciones en curso (saltos de AUTO_INCREMENT) y no se vigilan
+    private static final int MAX_GAP_TRACKED = 1000;
+
+    private final ApplicationEventLogRepository logRepository;
+    private final AnalyticsSnapshotStore<SnapshotState> snapshots;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long gapTimeoutMs;
+    private final long trackRetentionSeconds;
+
+    // Estado del funnel: se lee y modifica siempre con el lock de la instancia
+    private final Map<Long, Funnel> offers = new HashMap<>();
+    private final Map<Long, Funnel> companies = new HashMap<>();
+    private final Map<Long, Set<Long>> offersByCompany = new HashMap<>();
+    private final Map<Long, Track> tracks = new HashMap<>();
+    private final Map<Long, Finished> finished = new HashMap<>();
+    // Ids saltados en el log: pueden ser transacciones aún sin confirmar. id -> cuándo se detectó (ms)
+    private final TreeMap<Long, Long> pendingGaps = new TreeMap<>();
+    // Eventos ya leídos con un hueco pendiente por delante: se aplican cuando el hueco se resuelve
+    private final TreeMap<Long, LogEntry> held = new TreeMap<>();
+    private long lastEventId; // último evento leído del log
+    private long snapshotEventId = -1;
+    private volatile boolean loaded;
+
+    // Solo una lectura del log a la vez
+    private final Object pollLock = new Object();
+
+    private final AtomicLong eventsApplied = new AtomicLong();
+    private final AtomicLong gapsRecovered = new AtomicLong();
+    private final AtomicLong gapsExpired = new AtomicLong();
+    private final AtomicLong gapsIgnored = new AtomicLong();
+    private final AtomicLong tracksFinished = new AtomicLong();
+    private final AtomicLong tracksExpired = new AtomicLong();
+    private final AtomicLong tracksReopened = new AtomicLong();
+    private final AtomicLong lastPollMs = new AtomicLong();
+    private final AtomicLong snapshotsWritten = new AtomicLong();
+    private final AtomicLong lastSnapshotBytes = new AtomicLong();
+    private volatile LocalDateTime lastSnapshotAt;
+    private volatile Map<String, Object> startup = Map.of();
+
+    public ApplicationFunnelAggregator(ApplicationEventLogRepository logRepository,
+                                       AnalyticsSnapshotRepository snapshotRepository,
+                                       ObjectMapper objectMapper,
+                                       @Value("${analytics.funnel.enabled:true}") boolean enabled,
+                                       @Value("${analytics.funnel.batch-size:5000}") int batchSize,
+                                       @Value("${analytics.funnel.gap-timeout-ms:120000}") long gapTimeoutMs,
+                                       @Value("${analytics.funnel.track-retention-days:180}") int trackRetentionDays) {
+        this.logRepository = logRepository;
+        this.snapshots = new AnalyticsSnapshotStore<>(snapshotRepository, objectMapper, SNAPSHOT_NAME, SnapshotState.class);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.trackRetentionSeconds = Duration.ofDays(trackRetentionDays).toSeconds();
+    }
+
+    /**
+     * Contadores e histogramas de una aplicación dentro del funnel (por oferta o por empresa).
+     */
+    @Getter @Setter
+    @NoArgsConstructor
+    static final class Funnel {
+        private long companyId;
+        private long[] reached = new long[STATUSES.length]; // por ordinal de ApplicationStatus
+        private DurationHistogram timeToInterview = new DurationHistogram();
+        private DurationHistogram timeToHire = new DurationHistogram();
+
+        Funnel(long companyId) {
+            this.companyId = companyId;
+        }
+    }
+
+    // Lo mínimo de cada aplicación para no contarla dos veces y medir tiempos desde que aplicó
+    private static final class Track {
+        final long offerId;
+        final long companyId;
+        long appliedAt = UNKNOWN; // epoch en segundos
+        long lastEventAt;         // epoch en segundos
+        int reachedMask;          // bit por ordinal de ApplicationStatus
+
+        Track(long offerId, long companyId) {
+            this.offerId = offerId;
+            this.companyId = companyId;
+        }
+    }
+
+    // Aplicación en un estado final: lo justo para no volver a contarla si se reabre
+    private record Finished(long appliedAt, int reachedMask, long lastEventAt) {
+    }
+
+    /**
+     * Formato del snapshot (JSON comprimido con gzip).
+     */
+    @Getter @Setter
+    @NoArgsConstructor
+    static final class SnapshotState {
+        private int version;
+        private List<String> statuses;
+        private long lastEventId;
+        private List<Long> pendingGaps;
+        private Map<Long, Funnel> offers;
+        private Map<Long, Funnel> companies;
+        private Map<Long, long[]> tracks; // applicationId -> [appliedAt, reachedMask, offerId, companyId, lastEventAt]
+        private Map<Long, long[]> finished; // applicationId -> [appliedAt, reachedMask, lastEventAt]
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) return;
+        long start = System.currentTimeMillis();
+        long fromEventId;
+        synchronized (this) {
+            restoreSnapshot();
+            fromEventId = lastEventId;
+            snapshotEventId = lastEventId;
+        }
+        loaded = true;
+        int replayed = catchUp();
+
+        long elapsed = System.currentTimeMillis() - start;
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("snapshotEventId", fromEventId);
+        info.put("eventsReplayed", replayed);
+        info.put("durationMs", elapsed);
+        startup = info;
+        System.out.println("📊 Funnel de aplicaciones cargado: snapshot hasta el evento " + fromEventId
+                + " + " + replayed + " eventos reprocesados (" + elapsed + " ms)");
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.funnel.poll-ms:5000}")
+    public void scheduledPoll() {
+        if (enabled && loaded) {
+            catchUp();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.funnel.snapshot-ms:600000}",
+            initialDelayString = "${analytics.funnel.snapshot-ms:600000}")
+    public void scheduledSnapshot() {
+        if (enabled && loaded) {
+            snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled || !loaded) return;
+        try {
+            snapshot();
+        } catch (Exception e) {
+            System.out.println("⚠️ No se pudo guardar el snapshot del funnel al apagar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Procesa los eventos nuevos del log (y los huecos que hayan aparecido). Devuelve cuántos aplicó.
+     */
+    public int catchUp() {
+        synchronized (pollLock) {
+            long start = System.currentTimeMillis();
+            int applied = recoverGaps();
+            while (true) {
+                long after;
+                synchronized (this) {
+                    after = lastEventId;
+                }
+                List<LogEntry> batch = logRepository.findAfter(after, batchSize);
+                synchronized (this) {
+                    for (LogEntry e : batch) {
+                        registerGaps(e.id());
+                        held.put(e.id(), e);
+                        lastEventId = e.id();
+                    }
+                    applied += applyHeld();
+                }
+                if (batch.size() < batchSize) break;
+            }
+            lastPollMs.set(System.currentTimeMillis() - start);
+            return applied;
+        }
+    }
+
+    /**
+     * Guarda el estado actual si ha cambiado desde el último snapshot.
+     */
+    public Map<String, Object> snapshot() {
+        byte[] payload;
+        long eventId;
+        synchronized (this) {
+            eventId = appliedEventId();
+            if (eventId == snapshotEventId) {
+                return Map.of("written", false, "lastEventId", eventId);
+            }
+            expireTracks();
+            payload = serialize(eventId);
+        }
+        snapshots.save(eventId, payload);
+        synchronized (this) {
+            snapshotEventId = eventId;
+        }
+        snapshotsWritten.incrementAndGet();
+        lastSnapshotBytes.set(payload.length);
+        lastSnapshotAt = LocalDateTime.now();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("written", true);
+        result.put("lastEventId", eventId);
+        result.put("bytes", payload.length);
+        return result;
+    }
+
+    // Funnel de la empresa con el desglose de sus ofertas
+    public synchronized FunnelResponse companyFunnel(Long companyId) {
+        FunnelResponse response = toResponse(companies.get(companyId), companyId, null);
+        List<FunnelResponse> offerFunnels = new ArrayList<>();
+        for (Long offerId : offersByCompany.getOrDefault(companyId, Set.of())) {
+            offerFunnels.add(toResponse(offers.get(offerId), companyId, offerId));
+        }
+        response.setOffers(offerFunnels);
+        response.setLastEventId(appliedEventId());
+        return response;
+    }
+
+    // Una oferta de otra empresa se ve igual que una oferta sin aplicaciones
+    public synchronized FunnelResponse offerFunnel(Long companyId, Long offerId) {
+        Funnel funnel = offers.get(offerId);
+        if (funnel != null && funnel.companyId != companyId) {
+            funnel = null;
+        }
+        FunnelResponse response = toResponse(funnel, companyId, offerId);
+        response.setLastEventId(appliedEventId());
+        return response;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("loaded", loaded);
+        synchronized (this) {
+            stats.put("lastEventId", appliedEventId());
+            stats.put("lastReadEventId", lastEventId);
+            stats.put("snapshotEventId", snapshotEventId);
+            stats.put("offers", offers.size());
+            stats.put("companies", companies.size());
+            stats.put("trackedApplications", tracks.size());
+            stats.put("finishedApplications", finished.size());
+            stats.put("trackRetentionDays", Duration.ofSeconds(trackRetentionSeconds).toDays());
+            stats.put("pendingGaps", pendingGaps.size());
+            stats.put("heldEvents", held.size());
+        }
+        stats.put("eventsApplied", eventsApplied.get());
+        stats.put("gapsRecovered", gapsRecovered.get());
+        stats.put("gapsExpired", gapsExpired.get());
+        stats.put("gapsIgnored", gapsIgnored.get());
+        stats.put("tracksFinished", tracksFinished.get());
+        stats.put("tracksExpired", tracksExpired.get());
+        stats.put("tracksReopened", tracksReopened.get());
+        stats.put("lastPollMs", lastPollMs.get());
+        stats.put("snapshotsWritten", snapshotsWritten.get());
+        stats.put("lastSnapshotBytes", lastSnapshotBytes.get());
+        stats.put("lastSnapshotAt", lastSnapshotAt);
+        stats.put("startup", startup);
+        return stats;
+    }
+
+    // ===== Procesado de eventos (con el lock de la instancia) =====
+
+    // Hasta aquí todo está en el funnel salvo los huecos pendientes; lo retenido se vuelve a leer tras un reinicio
+    private long appliedEventId() {
+        return held.isEmpty() ? lastEventId : held.firstKey() - 1;
+    }
+
+    // Aplica en orden de id los eventos retenidos que ya no tienen ningún hueco pendiente por delante
+    private int applyHeld() {
+        int applied = 0;
+        while (!held.isEmpty() && (pendingGaps.isEmpty() || held.firstKey() < pendingGaps.firstKey())) {
+            apply(held.pollFirstEntry().getValue());
+            applied++;
+        }
+        return applied;
+    }
+
+    private void apply(LogEntry e) {
+        Track track = tracks.get(e.applicationId());
+        if (track == null) {
+            track = new Track(e.jobOfferId(), e.companyId());
+            // Reabierta tras un estado final: sigue con lo que ya contó y con su fecha de alta
+            Finished done = finished.remove(e.applicationId());
+            if (done != null) {
+                track.appliedAt = done.appliedAt();
+                track.reachedMask = done.reachedMask();
+                track.lastEventAt = done.lastEventAt();
+                tracksReopened.incrementAndGet();
+            }
+            tracks.put(e.applicationId(), track);
+        }
+        long at = e.occurredAt().toEpochSecond(ZoneOffset.UTC);
+        if (e.toStatus() == ApplicationStatus.APPLIED && track.appliedAt == UNKNOWN) {
+            track.appliedAt = at;
+        }
+        track.lastEventAt = Math.max(track.lastEventAt, at);
+        eventsApplied.incrementAndGet();
+
+        count(track, e.toStatus(), at);
+
+        // En un estado final se pasa al registro compacto hasta que se reabra o caduque
+        if (FINAL_STATUSES.contains(e.toStatus())) {
+            tracks.remove(e.applicationId());
+            finished.put(e.applicationId(), new Finished(track.appliedAt, track.reachedMask, track.lastEventAt));
+            tracksFinished.incrementAndGet();
+        }
+    }
+
+    private void count(Track track, ApplicationStatus status, long at) {
+        // Cada aplicación cuenta una sola vez por estado aunque vuelva a pasar por él
+        int bit = 1 << status.ordinal();
+        if ((track.reachedMask & bit) != 0) return;
+        track.reachedMask |= bit;
+
+        Funnel offer = offerFunnel(track.offerId, track.companyId);
+        Funnel company = companies.computeIfAbsent(track.companyId, Funnel::new);
+        offer.reached[status.ordinal()]++;
+        company.reached[status.ordinal()]++;
+
+        if (track.appliedAt == UNKNOWN) return;
+        long seconds = Math.max(0, at - track.appliedAt);
+        if (status == ApplicationStatus.INTERVIEW) {
+            offer.timeToInterview.add(seconds);
+            company.timeToInterview.add(seconds);
+        } else if (status == ApplicationStatus.HIRED) {
+            offer.timeToHire.add(seconds);
+            company.timeToHire.add(seconds);
+        }
+    }
+
+    private Funnel offerFunnel(long offerId, long companyId) {
+        return offers.computeIfAbsent(offerId, id -> {
+            offersByCompany.computeIfAbsent(companyId, c -> new TreeSet<>()).add(id);
+            return new Funnel(companyId);
+        });
+    }
+
+    // Aplicaciones sin eventos desde hace trackRetentionSeconds, abiertas o en un estado final
+    private void expireTracks() {
+        long limit = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) - trackRetentionSeconds;
+        int before = tracks.size() + finished.size();
+        tracks.values().removeIf(t -> t.lastEventAt < limit);
+        finished.values().removeIf(f -> f.lastEventAt() < limit);
+        tracksExpired.addAndGet(before - tracks.size() - finished.size());
+    }
+
+    // Ids entre el último procesado y el evento leído: transacciones que aún pueden confirmarse
+    private void registerGaps(long eventId) {
+        long missing = eventId - lastEventId - 1;
+        if (missing <= 0) return;
+        if (missing > MAX_GAP_TRACKED) {
+            gapsIgnored.addAndGet(missing);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (long id = lastEventId + 1; id < eventId; id++) {
+            pendingGaps.put(id, now);
+        }
+    }
+
+    // Vuelve a buscar los huecos pendientes; los que siguen sin aparecer tras gapTimeoutMs se descartan.
+    // Lo recuperado se mezcla con lo retenido y se aplica en orden de id
+    private int recoverGaps() {
+        List<Long> ids;
+        synchronized (this) {
+            if (pendingGaps.isEmpty()) return 0;
+            ids = new ArrayList<>(pendingGaps.keySet());
+        }
+
+        List<LogEntry> found = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += MAX_GAP_TRACKED) {
+            found.addAll(logRepository.findByIds(ids.subList(i, Math.min(i + MAX_GAP_TRACKED, ids.size()))));
+        }
+
+        synchronized (this) {
+            int recovered = 0;
+            for (LogEntry e : found) {
+                if (pendingGaps.remove(e.id()) != null) {
+                    held.put(e.id(), e);
+                    recovered++;
+                }
+            }
+            long limit = System.currentTimeMillis() - gapTimeoutMs;
+            int before = pendingGaps.size();
+            pendingGaps.values().removeIf(seenAt -> seenAt < limit);
+            gapsExpired.addAndGet(before - pendingGaps.size());
+            gapsRecovered.addAndGet(recovered);
+            return applyHeld();
+        }
+    }
+
+    // ===== Snapshot =====
+
+    private byte[] serialize(long eventId) {
+        SnapshotState state = new SnapshotState();
+        state.setVersion(SNAPSHOT_VERSION);
+        state.setStatuses(Arrays.stream(STATUSES).map(Enum::name).toList());
+        // Los eventos retenidos y los huecos detrás de ellos se vuelven a leer desde eventId
+        state.setLastEventId(eventId);
+        state.setPendingGaps(new ArrayList<>(pendingGaps.headMap(eventId, true).keySet()));
+        state.setOffers(offers);
+        state.setCompanies(companies);
+        Map<Long, long[]> compactTracks = new HashMap<>(tracks.size() * 2);
+        tracks.forEach((id, t) -> compactTracks.put(id,
+                new long[]{t.appliedAt, t.reachedMask, t.offerId, t.companyId, t.lastEventAt}));
+        state.setTracks(compactTracks);
+        Map<Long, long[]> compactFinished = new HashMap<>(finished.size() * 2);
+        finished.forEach((id, f) -> compactFinished.put(id, new long[]{f.appliedAt(), f.reachedMask(), f.lastEventAt()}));
+        state.setFinished(compactFinished);
+        return snapshots.encode(state);
+    }
+
+    // Si no hay snapshot o no es compatible, se parte de cero y se reprocesa todo el log
+    private void restoreSnapshot() {
+        SnapshotState state = snapshots.load().orElse(null);
+        if (state == null) return;
+
+        List<String> statuses = Arrays.stream(STATUSES).map(Enum::name).toList();
+        if (state.getVersion() != SNAPSHOT_VERSION || !statuses.equals(state.getStatuses())) {
+            System.out.println("⚠️ Snapshot del funnel incompatible: se reconstruye desde el log");
+            return;
+        }
+
+        state.getOffers().forEach((offerId, funnel) -> {
+            offers.put(offerId, funnel);
+            offersByCompany.computeIfAbsent(funnel.companyId, c -> new TreeSet<>()).add(offerId);
+        });
+        companies.putAll(state.getCompanies());
+        state.getTracks().forEach((id, t) -> {
+            Track track = new Track(t[2], t[3]);
+            track.appliedAt = t[0];
+            track.reachedMask = (int) t[1];
+            track.lastEventAt = t[4];
+            tracks.put(id, track);
+        });
+        state.getFinished().forEach((id, f) -> finished.put(id, new Finished(f[0], (int) f[1], f[2])));
+        long now = System.currentTimeMillis();
+        state.getPendingGaps().forEach(id -> pendingGaps.put(id, now));
+        lastEventId = state.getLastEventId();
+    }
+
+    // ===== Respuestas =====
+
+    private static FunnelResponse toResponse(Funnel funnel, Long companyId, Long offerId) {
+        Funnel f = funnel != null ? funnel : new Funnel(companyId);
+        Map<ApplicationStatus, Long> reached = new LinkedHashMap<>();
+        for (ApplicationStatus status : STATUSES) {
+            reached.put(status, f.reached[status.ordinal()]);
+        }
+        long applied = reached.get(ApplicationStatus.APPLIED);
+        long interviewed = reached.get(ApplicationStatus.INTERVIEW);
+        long hired = reached.get(ApplicationStatus.HIRED);
+
+        return FunnelResponse.builder()
+                .companyId(companyId)
+                .jobOfferId(offerId)
+                .reached(reached)
+                .interviewRate(rate(interviewed, applied))
+                .offerRate(rate(reached.get(ApplicationStatus.OFFER_SENT), applied))
+                .hireRate(rate(hired, applied))
+                .interviewToHireRate(rate(hired, interviewed))
+                .timeToInterview(f.timeToInterview.toStats())
+                .timeToHire(f.timeToHire.toStats())
+                .build();
+    }
+
+    private static double rate(long part, long total) {
+        return total == 0 ? 0 : Math.round(part * 10000.0 / total) / 10000.0;
+    }
+}
@@ -0,0 +1,81 @@
+package com.capitalhub.analytics.service;
+
+import com.capitalhub.analytics.dto.DurationStats;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Histograma de duraciones por tramos fijos, serializable en los snapshots.
+ * Compartido por los agregadores de analítica para que todos los DurationStats de una misma escala usen los mismos tramos.
+ */
+@Getter @Setter
+@NoArgsConstructor
+final class DurationHistogram {
+
+    /**
+     * Tramos del histograma: límite superior en segundos de cada uno; el último tramo no tiene límite.
+     */
+    enum Scale {
+        // De 1 hora a más de 30 días: tiempos hasta entrevista, contratación o fin de curso
+        HOURS(new long[]{3600, 6 * 3600, 24 * 3600, 72 * 3600, 168 * 3600, 336 * 3600, 720 * 3600},
+                new String[]{"<1h", "<6h", "<24h", "<3d", "<7d", "<14d", "<30d", ">=30d"}),
+        // De 5 minutos a más de 7 días: tiempo entre lecciones de un curso
+        MINUTES(new long[]{5 * 60, 15 * 60, 30 * 60, 3600, 3 * 3600, 24 * 3600, 168 * 3600},
+                new String[]{"<5m", "<15m", "<30m", "<1h", "<3h", "<24h", "<7d", ">=7d"});
+
+        private final long[] limitSeconds;
+        private final String[] labels;
+
+        Scale(long[] limitSeconds, String[] labels) {
+            this.limitSeconds = limitSeconds;
+            this.labels = labels;
+        }
+    }
+
+    private Scale scale = Scale.HOURS;
+    private long[] buckets = new long[Scale.HOURS.labels.length];
+    private long count;
+    private long sumSeconds;
+
+    DurationHistogram(Scale scale) {
+        this.scale = scale;
+        this.buckets = new long[scale.labels.length];
+    }
+
+    void add(long seconds) {
+        int i = 0;
+        while (i < scale.limitSeconds.length && seconds >= scale.limitSeconds[i]) i++;
+        buckets[i]++;
+        count++;
+        sumSeconds += seconds;
+    }
+
+    DurationStats toStats() {
+        Map<String, Long> byBucket = new LinkedHashMap<>();
+        for (int i = 0; i < scale.labels.length; i++) {
+            byBucket.put(scale.labels[i], buckets[i]);
+        }
+        return DurationStats.builder()
+                .count(count)
+                .avgHours(count == 0 ? null : Math.round(sumSeconds * 100.0 / count / 3600) / 100.0)
+                .p50(percentileBucket(0.5))
+                .p90(percentileBucket(0.9))
+                .buckets(byBucket)
+                .build();
+    }
+
+    private String percentileBucket(double p) {
+        if (count == 0) return null;
+        long target = (long) Math.ceil(count * p);
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i];
+            if (cumulative >= target) return scale.labels[i];
+        }
+        return scale.labels[scale.labels.length - 1];
+    }
+}
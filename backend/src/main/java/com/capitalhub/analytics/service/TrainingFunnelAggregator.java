@@ -0,0 +1,370 @@
+package com.capitalhub.analytics.service;
+
+import com.capitalhub.analytics.dto.TrainingFunnelResponse;
+import com.capitalhub.analytics.repository.AnalyticsSnapshotRepository;
+import com.capitalhub.training.repository.ProgressBatchRepository;
+import com.capitalhub.training.repository.ProgressBatchRepository.CompletedLesson;
+import com.capitalhub.training.service.CourseCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Funnel de formación por curso y lección, calculado en memoria.
+ * TrainingProgressStore le pasa cada lote de completaciones tras escribirlo, y aquí se actualizan
+ * los contadores por lección, el histograma de tiempo desde la lección anterior y la tasa de finalización.
+ * Cada (usuario, lección) cuenta una sola vez, así que reprocesar completaciones ya vistas no cambia nada:
+ * al arrancar se carga el snapshot y se reprocesan las completaciones desde poco antes de guardarlo.
+ * Las consultas nunca tocan user_progress.
+ */
+@Service
+public class TrainingFunnelAggregator {
+
+    private static final String SNAPSHOT_NAME = "training-funnel";
+    private static final int SNAPSHOT_VERSION = 2;
+
+    // Estado compacto de un usuario en un curso: [primera, última (epoch s), terminado (0/1), ids de lección ordenados...]
+    private static final int FIRST_AT = 0;
+    private static final int LAST_AT = 1;
+    private static final int FINISHED = 2;
+    private static final int HEADER = 3;
+
+    private final ProgressBatchRepository progressRepository;
+    private final AnalyticsSnapshotStore<State> snapshots;
+    private final CourseCatalog courseCatalog;
+    private final boolean enabled;
+    private final long replayMarginMs;
+
+    // Se lee y modifica siempre con el lock de la instancia
+    private State state = new State();
+    private long changes;
+    private long snapshotChanges = -1;
+    private volatile boolean loaded;
+
+    private final AtomicLong completionsApplied = new AtomicLong();
+    private final AtomicLong duplicatesIgnored = new AtomicLong();
+    private final AtomicLong unknownLessons = new AtomicLong();
+    private final AtomicLong snapshotsWritten = new AtomicLong();
+    private final AtomicLong lastSnapshotBytes = new AtomicLong();
+    private volatile LocalDateTime lastSnapshotAt;
+    private volatile Map<String, Object> startup = Map.of();
+
+    public TrainingFunnelAggregator(ProgressBatchRepository progressRepository,
+                                    AnalyticsSnapshotRepository snapshotRepository,
+                                    CourseCatalog courseCatalog,
+                                    ObjectMapper objectMapper,
+                                    @Value("${analytics.training.enabled:true}") boolean enabled,
+                                    @Value("${analytics.training.replay-margin-ms:3600000}") long replayMarginMs) {
+        this.progressRepository = progressRepository;
+        this.snapshots = new AnalyticsSnapshotStore<>(snapshotRepository, objectMapper, SNAPSHOT_NAME, State.class);
+        this.courseCatalog = courseCatalog;
+        this.enabled = enabled;
+        this.replayMarginMs = replayMarginMs;
+    }
+
+    @Getter @Setter
+    @NoArgsConstructor
+    static final class LessonStats {
+        private long completions;
+        // Entre lecciones seguidas pasan minutos: los tramos por horas lo dejarían todo en "<1h"
+        private DurationHistogram timeSincePrevious = new DurationHistogram(DurationHistogram.Scale.MINUTES);
+    }
+
+    @Getter @Setter
+    @NoArgsConstructor
+    static final class CourseStats {
+        private long started;
+        private long finished;
+        private DurationHistogram timeToFinish = new DurationHistogram();
+        private Map<Long, LessonStats> lessons = new HashMap<>();
+    }
+
+    /**
+     * Todo lo que se guarda en el snapshot (JSON comprimido con gzip).
+     */
+    @Getter @Setter
+    @NoArgsConstructor
+    static final class State {
+        private int version = SNAPSHOT_VERSION;
+        private long savedAt; // epoch ms
+        private Map<Long, CourseStats> courses = new HashMap<>();
+        private Map<Long, Map<Long, long[]>> progress = new HashMap<>(); // userId -> courseId -> estado compacto
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) return;
+        long start = System.currentTimeMillis();
+        State restored = restoreSnapshot();
+        Map<String, Object> info = new LinkedHashMap<>();
+        if (restored == null) {
+            info.putAll(rebuild());
+        } else {
+            LocalDateTime since = toDateTime(restored.getSavedAt() - replayMarginMs);
+            synchronized (this) {
+                state = restored;
+            }
+            loaded = true;
+            info.put("snapshotSavedAt", toDateTime(restored.getSavedAt()));
+            info.put("completionsReplayed", replay(since));
+        }
+        info.put("durationMs", System.currentTimeMillis() - start);
+        startup = info;
+        System.out.println("🎓 Funnel de formación cargado: " + info);
+    }
+
+    /**
+     * Lote de completaciones ya confirmadas en user_progress (lo llama TrainingProgressStore tras cada flush).
+     */
+    public void record(List<CompletedLesson> completions) {
+        if (!enabled || !loaded || completions.isEmpty()) return;
+        CourseCatalog.Snapshot catalog = courseCatalog.current();
+        synchronized (this) {
+            for (CompletedLesson c : completions) {
+                if (apply(state, catalog, c)) changes++;
+            }
+        }
+    }
+
+    /**
+     * Recalcula todo desde user_progress (recorrido completo, solo bajo demanda o sin snapshot)
+     * y reprocesa lo que haya llegado mientras tanto.
+     */
+    public Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        CourseCatalog.Snapshot catalog = courseCatalog.current();
+
+        State rebuilt = new State();
+        long[] scanned = {0};
+        progressRepository.forEachCompleted(null, c -> {
+            scanned[0]++;
+            apply(rebuilt, catalog, c);
+        });
+        synchronized (this) {
+            state = rebuilt;
+            changes++;
+        }
+        loaded = true;
+        // Lo que se escribió durante el recorrido fue a parar al estado anterior
+        int replayed = replay(startedAt.minusNanos(replayMarginMs * 1_000_000));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("completionsScanned", scanned[0]);
+        result.put("completionsReplayed", replayed);
+        result.put("durationMs", System.currentTimeMillis() - start);
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.training.snapshot-ms:600000}",
+            initialDelayString = "${analytics.training.snapshot-ms:600000}")
+    public void scheduledSnapshot() {
+        if (enabled && loaded) {
+            snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled || !loaded) return;
+        try {
+            snapshot();
+        } catch (Exception e) {
+            System.out.println("⚠️ No se pudo guardar el snapshot del funnel de formación al apagar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Guarda el estado actual si ha cambiado desde el último snapshot.
+     */
+    public Map<String, Object> snapshot() {
+        byte[] payload;
+        long version;
+        synchronized (this) {
+            if (changes == snapshotChanges) {
+                return Map.of("written", false);
+            }
+            version = changes;
+            state.setSavedAt(System.currentTimeMillis());
+            payload = snapshots.encode(state);
+        }
+        // last_event_id no aplica: la reanudación se hace por fecha (savedAt)
+        snapshots.save(0, payload);
+        synchronized (this) {
+            snapshotChanges = version;
+        }
+        snapshotsWritten.incrementAndGet();
+        lastSnapshotBytes.set(payload.length);
+        lastSnapshotAt = LocalDateTime.now();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("written", true);
+        result.put("bytes", payload.length);
+        return result;
+    }
+
+    // Funnel de todos los cursos del catálogo, con las lecciones en orden
+    public List<TrainingFunnelResponse> funnel() {
+        CourseCatalog.Snapshot catalog = courseCatalog.current();
+        List<TrainingFunnelResponse> result = new ArrayList<>(catalog.courses().size());
+        synchronized (this) {
+            for (CourseCatalog.CourseEntry course : catalog.courses()) {
+                result.add(toResponse(course, state.getCourses().get(course.id())));
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("loaded", loaded);
+        synchronized (this) {
+            stats.put("courses", state.getCourses().size());
+            stats.put("trackedUsers", state.getProgress().size());
+        }
+        stats.put("completionsApplied", completionsApplied.get());
+        stats.put("duplicatesIgnored", duplicatesIgnored.get());
+        stats.put("unknownLessons", unknownLessons.get());
+        stats.put("snapshotsWritten", snapshotsWritten.get());
+        stats.put("lastSnapshotBytes", lastSnapshotBytes.get());
+        stats.put("lastSnapshotAt", lastSnapshotAt);
+        stats.put("startup", startup);
+        return stats;
+    }
+
+    // ===== Procesado =====
+
+    private int replay(LocalDateTime since) {
+        CourseCatalog.Snapshot catalog = courseCatalog.current();
+        List<CompletedLesson> batch = new ArrayList<>();
+        progressRepository.forEachCompleted(since, batch::add);
+        synchronized (this) {
+            for (CompletedLesson c : batch) {
+                if (apply(state, catalog, c)) changes++;
+            }
+        }
+        return batch.size();
+    }
+
+    // Llamar con el lock de la instancia (o sobre un estado que aún no es visible). true si cambió algo
+    private boolean apply(State target, CourseCatalog.Snapshot catalog, CompletedLesson c) {
+        CourseCatalog.CourseEntry course = catalog.courseOf(c.lessonId());
+        if (course == null) {
+            unknownLessons.incrementAndGet(); // lección borrada o catálogo aún sin recargar
+            return false;
+        }
+        long at = c.completedAt().toEpochSecond(ZoneOffset.UTC);
+
+        Map<Long, long[]> byCourse = target.getProgress().computeIfAbsent(c.userId(), k -> new HashMap<>());
+        CourseStats stats = target.getCourses().computeIfAbsent(course.id(), k -> new CourseStats());
+        LessonStats lesson;
+
+        long[] user = byCourse.get(course.id());
+        if (user == null) {
+            user = new long[]{at, at, 0};
+            stats.started++;
+            lesson = stats.lessons.computeIfAbsent(c.lessonId(), k -> new LessonStats());
+        } else {
+            if (Arrays.binarySearch(user, HEADER, user.length, c.lessonId()) >= 0) {
+                duplicatesIgnored.incrementAndGet();
+                return false;
+            }
+            lesson = stats.lessons.computeIfAbsent(c.lessonId(), k -> new LessonStats());
+            long sincePrevious = at - user[LAST_AT];
+            if (sincePrevious >= 0) {
+                lesson.timeSincePrevious.add(sincePrevious);
+            }
+        }
+        user = withLesson(user, c.lessonId());
+        user[FIRST_AT] = Math.min(user[FIRST_AT], at);
+        user[LAST_AT] = Math.max(user[LAST_AT], at);
+        lesson.completions++;
+
+        if (user[FINISHED] == 0 && user.length - HEADER >= course.lessons().size()) {
+            user[FINISHED] = 1;
+            stats.finished++;
+            stats.timeToFinish.add(user[LAST_AT] - user[FIRST_AT]);
+        }
+        byCourse.put(course.id(), user);
+        completionsApplied.incrementAndGet();
+        return true;
+    }
+
+    // Copia con lessonId insertado en orden (los cursos tienen pocas lecciones)
+    private static long[] withLesson(long[] user, long lessonId) {
+        int insertAt = -(Arrays.binarySearch(user, HEADER, user.length, lessonId) + 1);
+        long[] copy = new long[user.length + 1];
+        System.arraycopy(user, 0, copy, 0, insertAt);
+        copy[insertAt] = lessonId;
+        System.arraycopy(user, insertAt, copy, insertAt + 1, user.length - insertAt);
+        return copy;
+    }
+
+    // ===== Snapshot =====
+
+    // Si no hay snapshot o no es compatible, se reconstruye desde user_progress
+    private State restoreSnapshot() {
+        State restored = snapshots.load().orElse(null);
+        if (restored != null && restored.getVersion() != SNAPSHOT_VERSION) {
+            System.out.println("⚠️ Snapshot del funnel de formación incompatible: se reconstruye desde user_progress");
+            return null;
+        }
+        return restored;
+    }
+
+    // ===== Respuestas =====
+
+    private static TrainingFunnelResponse toResponse(CourseCatalog.CourseEntry course, CourseStats stats) {
+        CourseStats s = stats != null ? stats : new CourseStats();
+        List<TrainingFunnelResponse.LessonFunnel> lessons = new ArrayList<>(course.lessons().size());
+        int position = 1;
+        for (CourseCatalog.LessonEntry l : course.lessons()) {
+            LessonStats ls = s.lessons.getOrDefault(l.id(), new LessonStats());
+            lessons.add(TrainingFunnelResponse.LessonFunnel.builder()
+                    .lessonId(l.id())
+                    .position(position++)
+                    .title(l.title())
+                    .completions(ls.completions)
+                    .retention(rate(ls.completions, s.started))
+                    .timeSincePrevious(ls.timeSincePrevious.toStats())
+                    .build());
+        }
+        return TrainingFunnelResponse.builder()
+                .courseId(course.id())
+                .title(course.title())
+                .started(s.started)
+                .finished(s.finished)
+                .completionRate(rate(s.finished, s.started))
+                .timeToFinish(s.timeToFinish.toStats())
+                .lessons(lessons)
+                .build();
+    }
+
+    private static double rate(long part, long total) {
+        return total == 0 ? 0 : Math.round(part * 10000.0 / total) / 10000.0;
+    }
+
+    private static LocalDateTime toDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+}
@@ -1,20 +1,30 @@
 package com.capitalhub.applications.controller;
 
+import com.capitalhub.applications.dto.ApplicationPage;
 import com.capitalhub.applications.dto.ApplicationResponse;
+import com.capitalhub.applications.dto.ApplicationTicketResponse;
 import com.capitalhub.applications.dto.ApplyRequest;
+import com.capitalhub.applications.dto.BulkStatusRequest;
+import com.capitalhub.applications.dto.BulkStatusResponse;
 import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.applications.service.ApplicationCounterService;
+import com.capitalhub.applications.service.ApplicationIntakeQueue;
+import com.capitalhub.applications.service.ApplicationStatusStream;
 import com.capitalhub.applications.service.JobApplicationService;
 import com.capitalhub.auth.entity.User;
 import com.capitalhub.auth.repository.UserRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
@@ -22,6 +32,9 @@ import java.util.List;
 public class JobApplicationController {
 
     private final JobApplicationService applicationService;
+    private final ApplicationIntakeQueue intakeQueue;
+    private final ApplicationCounterService counterService;
+    private final ApplicationStatusStream statusStream;
     private final UserRepository userRepository;
 
     // 1. REP: Aplicar a una oferta
@@ -36,6 +49,26 @@ public class JobApplicationController {
         return applicationService.applyToOffer(repUserId, offerId, req);
     }
 
+    // 1b. REP: Aplicar de forma asíncrona (ofertas con mucha demanda). Devuelve un handle para consultar el resultado
+    @PreAuthorize("hasAuthority('REP')")
+    @PostMapping("/rep/jobs/{offerId}/apply/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ApplicationTicketResponse applyAsync(@PathVariable Long offerId,
+                                                @Valid @RequestBody(required = false) ApplyRequest req,
+                                                Authentication authentication) {
+        Long repUserId = getUserIdFromAuth(authentication);
+        String message = req != null ? req.getRepMessage() : null;
+        return intakeQueue.enqueue(repUserId, offerId, message);
+    }
+
+    // 1c. REP: Estado de una aplicación asíncrona
+    @PreAuthorize("hasAuthority('REP')")
+    @GetMapping("/rep/applications/intake/{handle}")
+    public ApplicationTicketResponse intakeStatus(@PathVariable String handle, Authentication authentication) {
+        Long repUserId = getUserIdFromAuth(authentication);
+        return intakeQueue.getTicket(repUserId, handle);
+    }
+
     // 2. REP: Ver mis aplicaciones
     @PreAuthorize("hasAuthority('REP')")
     @GetMapping("/rep/applications")
@@ -44,6 +77,18 @@ public class JobApplicationController {
         return applicationService.listMyApplications(repUserId);
     }
 
+    // 2b. REP: Stream (SSE) de cambios de estado de mis aplicaciones
+    // Al reconectar, Last-Event-ID (cabecera o parámetro) reenvía lo que se haya perdido
+    @PreAuthorize("hasAuthority('REP')")
+    @GetMapping(value = "/rep/applications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                          @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+                                          Authentication authentication) {
+        Long repUserId = getUserIdFromAuth(authentication);
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        return applicationService.subscribeToStatusChanges(repUserId, lastEventId);
+    }
+
     // 3. COMPANY: Ver aplicaciones de una oferta específica
     @PreAuthorize("hasAuthority('COMPANY')")
     @GetMapping("/company/jobs/{offerId}/applications")
@@ -61,6 +106,40 @@ public class JobApplicationController {
         return applicationService.listAllCompanyApplications(companyUserId);
     }
 
+    // 4b. COMPANY: Aplicaciones paginadas (todas o de una oferta)
+    // GET /api/company/applications/page?status=APPLIED,INTERVIEW&sort=createdAt,desc&page=0&size=20
+    @PreAuthorize("hasAuthority('COMPANY')")
+    @GetMapping("/company/applications/page")
+    public ApplicationPage pageCompanyApplications(@RequestParam(required = false) List<ApplicationStatus> status,
+                                                   @RequestParam(required = false) Integer page,
+                                                   @RequestParam(required = false) Integer size,
+                                                   @RequestParam(required = false) String sort,
+                                                   Authentication authentication) {
+        Long companyUserId = getUserIdFromAuth(authentication);
+        return applicationService.pageCompanyApplications(companyUserId, status, page, size, sort);
+    }
+
+    @PreAuthorize("hasAuthority('COMPANY')")
+    @GetMapping("/company/jobs/{offerId}/applications/page")
+    public ApplicationPage pageApplicationsForOffer(@PathVariable Long offerId,
+                                                    @RequestParam(required = false) List<ApplicationStatus> status,
+                                                    @RequestParam(required = false) Integer page,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(required = false) String sort,
+                                                    Authentication authentication) {
+        Long companyUserId = getUserIdFromAuth(authentication);
+        return applicationService.pageApplicationsForOffer(companyUserId, offerId, status, page, size, sort);
+    }
+
+    // 4c. COMPANY: Número de aplicaciones por estado (kanban), de toda la empresa o de una oferta
+    @PreAuthorize("hasAuthority('COMPANY')")
+    @GetMapping("/company/applications/counters")
+    public Map<ApplicationStatus, Long> countByStatus(@RequestParam(required = false) Long offerId,
+                                                      Authentication authentication) {
+        Long companyUserId = getUserIdFromAuth(authentication);
+        return applicationService.countByStatus(companyUserId, offerId);
+    }
+
     // 5. COMPANY: Actualizar estado de una aplicación
     @PreAuthorize("hasAuthority('COMPANY')")
     @PatchMapping("/company/applications/{id}/status")
@@ -77,10 +156,46 @@ public class JobApplicationController {
         );
     }
 
+    // 6. COMPANY: Cambiar el estado de muchas aplicaciones a la vez (resultado por id)
+    @PreAuthorize("hasAuthority('COMPANY')")
+    @PatchMapping("/company/applications/status")
+    public BulkStatusResponse bulkUpdateStatus(@Valid @RequestBody BulkStatusRequest req,
+                                               Authentication authentication) {
+        Long companyUserId = getUserIdFromAuth(authentication);
+        return applicationService.bulkUpdateStatus(companyUserId, req);
+    }
+
+    // ADMIN: Métricas de la cola de aplicaciones
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/applications/intake")
+    public Map<String, Object> intakeStats() {
+        return intakeQueue.stats();
+    }
+
+    // ADMIN: Estado de los contadores materializados y reconciliación manual
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/applications/counters")
+    public Map<String, Object> counterStats() {
+        return counterService.stats();
+    }
+
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/admin/applications/counters/reconcile")
+    public Map<String, Object> reconcileCounters() {
+        return counterService.reconcile();
+    }
+
+    // ADMIN: Conexiones y eventos del stream de estados
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/applications/stream")
+    public Map<String, Object> streamStats() {
+        return statusStream.stats();
+    }
+
     private Long getUserIdFromAuth(Authentication authentication) {
         String email = authentication.getName();
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + email));
         return user.getId();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.capitalhub.applications.dto;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+
+/**
+ * Empresa propietaria y estado actual de una aplicación (comprobaciones en bloque).
+ */
+public record ApplicationOwnership(Long id, Long companyId, Long jobOfferId, Long repId, ApplicationStatus status) {
+}
@@ -0,0 +1,18 @@
+package com.capitalhub.applications.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ApplicationPage {
+
+    private List<ApplicationResponse> items;
+
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
@@ -28,6 +28,8 @@ public class ApplicationResponse {
 
     private Long repId;
     private String repFullName;
+    private Integer repReviewCount;
+    private Double repReputation; // media bayesiana de sus reviews visibles
 
     private ApplicationStatus status;
 
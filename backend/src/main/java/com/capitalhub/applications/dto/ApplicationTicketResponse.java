@@ -0,0 +1,21 @@
+package com.capitalhub.applications.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ApplicationTicketResponse {
+
+    private String handle;          // Identificador para consultar el resultado
+    private Long jobOfferId;
+
+    private String status;          // QUEUED, ACCEPTED, REJECTED
+    private Long applicationId;     // Solo si ACCEPTED
+    private String message;         // Motivo si REJECTED
+
+    private LocalDateTime queuedAt;
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,65 @@
+package com.capitalhub.applications.dto;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.rep.entity.RepRole;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura de una aplicación con su oferta, empresa y rep.
+ * Se construye en JPQL (SELECT new ...) con un único JOIN, sin cargar entidades perezosas.
+ * El orden del constructor debe coincidir con JobApplicationRepository.VIEW_SELECT.
+ */
+@Getter
+public class ApplicationView {
+
+    private final Long id;
+    private final Long jobOfferId;
+    private final String jobTitle;
+    private final RepRole jobRole;
+    private final Long companyId;
+    private final String companyName;
+    private final Long repId;
+    private final String repFullName;
+    private final Integer repReviewCount;
+    private final Double repReputation;
+    private final ApplicationStatus status;
+    private final String repMessage;
+    private final String companyNotes;
+    private final String interviewUrl;
+    private final LocalDateTime interviewAt;
+    private final LocalDateTime hiredAt;
+    private final LocalDateTime rejectedAt;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public ApplicationView(Long id, Long jobOfferId, String jobTitle, RepRole jobRole,
+                           Long companyId, String companyName,
+                           Long repId, Long repUserId, String repFirstName, String repLastName,
+                           Integer repReviewCount, Double repReputation,
+                           ApplicationStatus status, String repMessage, String companyNotes, String interviewUrl,
+                           LocalDateTime interviewAt, LocalDateTime hiredAt, LocalDateTime rejectedAt,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.jobOfferId = jobOfferId;
+        this.jobTitle = jobTitle;
+        this.jobRole = jobRole;
+        this.companyId = companyId;
+        this.companyName = companyName;
+        this.repId = repId;
+        // Mismo criterio que RepProfile.getFullName()
+        this.repFullName = repUserId != null ? repFirstName + " " + repLastName : "Usuario Desconocido";
+        this.repReviewCount = repReviewCount;
+        this.repReputation = repReputation;
+        this.status = status;
+        this.repMessage = repMessage;
+        this.companyNotes = companyNotes;
+        this.interviewUrl = interviewUrl;
+        this.interviewAt = interviewAt;
+        this.hiredAt = hiredAt;
+        this.rejectedAt = rejectedAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,12 @@
+package com.capitalhub.applications.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BulkStatusOutcome {
+
+    private Long id;
+    private String result;      // UPDATED, UNCHANGED, NOT_FOUND, FORBIDDEN
+}
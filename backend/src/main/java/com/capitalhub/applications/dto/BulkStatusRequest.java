@@ -0,0 +1,25 @@
+package com.capitalhub.applications.dto;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BulkStatusRequest {
+
+    @NotEmpty(message = "Indica al menos una aplicación")
+    @Size(max = 5000, message = "Máximo 5000 aplicaciones por petición")
+    private List<Long> ids;
+
+    @NotNull(message = "El estado es obligatorio")
+    private ApplicationStatus status;
+
+    private String companyNotes;    // Opcional (motivo de rechazo, etc.)
+    private String interviewUrl;    // Solo para INTERVIEW
+}
@@ -0,0 +1,19 @@
+package com.capitalhub.applications.dto;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BulkStatusResponse {
+
+    private ApplicationStatus status;
+    private int requested;
+    private int updated;
+    private int unchanged;
+    private int failed;
+    private List<BulkStatusOutcome> outcomes;
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "job_applications")
+@Table(name = "job_applications",
+        uniqueConstraints = @UniqueConstraint(name = "uk_job_applications_rep_offer", columnNames = {"rep_id", "job_offer_id"}))
 public class JobApplication {
 
     @Id
@@ -0,0 +1,19 @@
+package com.capitalhub.applications.event;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio de estado de una aplicación. Se publica dentro de la transacción que lo hace
+ * y los listeners lo reciben tras el commit (@TransactionalEventListener).
+ */
+public record ApplicationStatusChangedEvent(Long applicationId,
+                                            Long repId,
+                                            Long companyId,
+                                            Long jobOfferId,
+                                            ApplicationStatus previousStatus,
+                                            ApplicationStatus status,
+                                            String interviewUrl,
+                                            LocalDateTime changedAt) {
+}
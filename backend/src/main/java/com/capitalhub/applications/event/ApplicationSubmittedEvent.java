@@ -0,0 +1,14 @@
+package com.capitalhub.applications.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alta de una aplicación (directa o por la cola de entrada). Se publica dentro de la transacción
+ * que la crea y los listeners lo reciben tras el commit.
+ */
+public record ApplicationSubmittedEvent(Long applicationId,
+                                        Long repId,
+                                        Long companyId,
+                                        Long jobOfferId,
+                                        LocalDateTime submittedAt) {
+}
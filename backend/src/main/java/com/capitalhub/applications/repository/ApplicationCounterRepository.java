@@ -0,0 +1,127 @@
+package com.capitalhub.applications.repository;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso JDBC a application_status_counters.
+ * Cada fila es (empresa, oferta, estado) -> número de aplicaciones; job_offer_id = 0 es el total de la empresa.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ApplicationCounterRepository {
+
+    public static final long COMPANY_ROLLUP = 0L;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO application_status_counters (company_id, job_offer_id, status, count)
+            VALUES (:companyId, :offerId, :status, :delta)
+            ON DUPLICATE KEY UPDATE count = count + VALUES(count)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record CounterKey(Long companyId, Long offerId, ApplicationStatus status) {
+    }
+
+    // Orden fijo de escritura para que transacciones concurrentes bloqueen las filas en el mismo orden
+    private static final Comparator<CounterKey> LOCK_ORDER = Comparator
+            .comparing(CounterKey::companyId)
+            .thenComparing(CounterKey::offerId)
+            .thenComparing(CounterKey::status);
+
+    // Suma los deltas (positivos o negativos) en un solo batch
+    public void applyDeltas(Map<CounterKey, Long> deltas) {
+        MapSqlParameterSource[] params = deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(LOCK_ORDER))
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("companyId", e.getKey().companyId())
+                        .addValue("offerId", e.getKey().offerId())
+                        .addValue("status", e.getKey().status().name())
+                        .addValue("delta", e.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+        if (params.length > 0) {
+            jdbc.batchUpdate(UPSERT_SQL, params);
+        }
+    }
+
+    // Contadores de una oferta (o del total de la empresa con COMPANY_ROLLUP)
+    public Map<ApplicationStatus, Long> findCounts(Long companyId, Long offerId) {
+        Map<ApplicationStatus, Long> result = new EnumMap<>(ApplicationStatus.class);
+        jdbc.query("""
+                        SELECT status, count FROM application_status_counters
+                        WHERE company_id = :companyId AND job_offer_id = :offerId
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("companyId", companyId)
+                        .addValue("offerId", offerId),
+                rs -> {
+                    result.put(ApplicationStatus.valueOf(rs.getString("status")), rs.getLong("count"));
+                });
+        return result;
+    }
+
+    public List<Long> findAllCompanyIds() {
+        return jdbc.getJdbcTemplate().queryForList("SELECT id FROM companies ORDER BY id", Long.class);
+    }
+
+    // ===== Reconciliación (ver ApplicationCounterService.reconcile) =====
+
+    // Bloquea (FOR UPDATE) los contadores de la empresa, incluido el hueco para filas nuevas
+    public Map<CounterKey, Long> lockCompanyCounters(Long companyId) {
+        Map<CounterKey, Long> result = new HashMap<>();
+        jdbc.query("""
+                        SELECT job_offer_id, status, count FROM application_status_counters
+                        WHERE company_id = :companyId FOR UPDATE
+                        """,
+                new MapSqlParameterSource("companyId", companyId),
+                rs -> {
+                    result.put(new CounterKey(companyId, rs.getLong("job_offer_id"),
+                            ApplicationStatus.valueOf(rs.getString("status"))), rs.getLong("count"));
+                });
+        return result;
+    }
+
+    // Recuento real desde job_applications, por oferta y acumulado de empresa
+    public Map<CounterKey, Long> countActual(Long companyId) {
+        Map<CounterKey, Long> result = new HashMap<>();
+        jdbc.query("""
+                        SELECT a.job_offer_id, COALESCE(a.status, 'APPLIED') AS status, COUNT(*) AS total
+                        FROM job_applications a
+                        JOIN job_offers o ON o.id = a.job_offer_id
+                        WHERE o.company_id = :companyId
+                        GROUP BY a.job_offer_id, COALESCE(a.status, 'APPLIED')
+                        """,
+                new MapSqlParameterSource("companyId", companyId),
+                rs -> {
+                    ApplicationStatus status = ApplicationStatus.valueOf(rs.getString("status"));
+                    long total = rs.getLong("total");
+                    result.put(new CounterKey(companyId, rs.getLong("job_offer_id"), status), total);
+                    result.merge(new CounterKey(companyId, COMPANY_ROLLUP, status), total, Long::sum);
+                });
+        return result;
+    }
+
+    public void setCount(CounterKey key, long count) {
+        jdbc.update("""
+                        INSERT INTO application_status_counters (company_id, job_offer_id, status, count)
+                        VALUES (:companyId, :offerId, :status, :count)
+                        ON DUPLICATE KEY UPDATE count = VALUES(count)
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("companyId", key.companyId())
+                        .addValue("offerId", key.offerId())
+                        .addValue("status", key.status().name())
+                        .addValue("count", count));
+    }
+}
@@ -0,0 +1,91 @@
+package com.capitalhub.applications.repository;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Acceso JDBC a application_events: log append-only de transiciones de estado.
+ * Solo se inserta y se lee por id creciente; nunca se actualiza ni se borra.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ApplicationEventLogRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO application_events
+                (application_id, company_id, job_offer_id, rep_id, from_status, to_status, occurred_at)
+            VALUES (:applicationId, :companyId, :offerId, :repId, :fromStatus, :toStatus, :occurredAt)
+            """;
+
+    private static final String SELECT_SQL = """
+            SELECT id, application_id, company_id, job_offer_id, rep_id, from_status, to_status, occurred_at
+            FROM application_events
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Una transición; id es null hasta que se guarda. fromStatus es null en la creación.
+     */
+    public record LogEntry(Long id, Long applicationId, Long companyId, Long jobOfferId, Long repId,
+                           ApplicationStatus fromStatus, ApplicationStatus toStatus, LocalDateTime occurredAt) {
+
+        public static LogEntry of(Long applicationId, Long companyId, Long jobOfferId, Long repId,
+                                  ApplicationStatus fromStatus, ApplicationStatus toStatus, LocalDateTime occurredAt) {
+            return new LogEntry(null, applicationId, companyId, jobOfferId, repId, fromStatus, toStatus, occurredAt);
+        }
+    }
+
+    private static final RowMapper<LogEntry> ROW_MAPPER = (rs, i) -> {
+        String from = rs.getString("from_status");
+        return new LogEntry(
+                rs.getLong("id"),
+                rs.getLong("application_id"),
+                rs.getLong("company_id"),
+                rs.getLong("job_offer_id"),
+                rs.getLong("rep_id"),
+                from != null ? ApplicationStatus.valueOf(from) : null,
+                ApplicationStatus.valueOf(rs.getString("to_status")),
+                rs.getTimestamp("occurred_at").toLocalDateTime());
+    };
+
+    public void appendAll(List<LogEntry> entries) {
+        if (entries.isEmpty()) return;
+        MapSqlParameterSource[] params = entries.stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("applicationId", e.applicationId())
+                        .addValue("companyId", e.companyId())
+                        .addValue("offerId", e.jobOfferId())
+                        .addValue("repId", e.repId())
+                        .addValue("fromStatus", e.fromStatus() != null ? e.fromStatus().name() : null)
+                        .addValue("toStatus", e.toStatus().name())
+                        .addValue("occurredAt", Timestamp.valueOf(e.occurredAt())))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbc.batchUpdate(INSERT_SQL, params);
+    }
+
+    // Siguientes eventos tras afterId, en orden de id
+    public List<LogEntry> findAfter(long afterId, int limit) {
+        return jdbc.query(SELECT_SQL + " WHERE id > :afterId ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource()
+                        .addValue("afterId", afterId)
+                        .addValue("limit", limit),
+                ROW_MAPPER);
+    }
+
+    public List<LogEntry> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        return jdbc.query(SELECT_SQL + " WHERE id IN (:ids) ORDER BY id",
+                new MapSqlParameterSource("ids", ids),
+                ROW_MAPPER);
+    }
+}
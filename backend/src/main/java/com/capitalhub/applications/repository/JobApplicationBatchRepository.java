@@ -0,0 +1,130 @@
+package com.capitalhub.applications.repository;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.jobs.entity.JobStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Acceso JDBC por lotes para la cola de aplicaciones (ApplicationIntakeQueue).
+ * Resuelve perfiles, ofertas y duplicados con una consulta por lote y escribe con batch inserts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobApplicationBatchRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record OfferCapacity(Long companyId, boolean open, int maxApplicants, int applicantsCount) {
+    }
+
+    public record NewApplication(Long repId, Long jobOfferId, String repMessage) {
+    }
+
+    // userId -> repProfileId
+    public Map<Long, Long> findRepIdsByUserIds(Collection<Long> userIds) {
+        Map<Long, Long> result = new HashMap<>();
+        jdbc.query("SELECT id, user_id FROM rep_profiles WHERE user_id IN (:ids)",
+                new MapSqlParameterSource("ids", userIds),
+                rs -> {
+                    result.put(rs.getLong("user_id"), rs.getLong("id"));
+                });
+        return result;
+    }
+
+    // Bloquea las filas de las ofertas (FOR UPDATE) hasta el fin de la transacción
+    public Map<Long, OfferCapacity> lockOffers(Collection<Long> offerIds) {
+        Map<Long, OfferCapacity> result = new HashMap<>();
+        jdbc.query("""
+                        SELECT id, company_id, active, status, max_applicants, applicants_count
+                        FROM job_offers WHERE id IN (:ids) FOR UPDATE
+                        """,
+                new MapSqlParameterSource("ids", offerIds),
+                rs -> {
+                    boolean open = rs.getBoolean("active") && JobStatus.ACTIVE.name().equals(rs.getString("status"));
+                    int max = nullableInt(rs, "max_applicants", Integer.MAX_VALUE);
+                    int count = nullableInt(rs, "applicants_count", 0);
+                    result.put(rs.getLong("id"), new OfferCapacity(rs.getLong("company_id"), open, max, count));
+                });
+        return result;
+    }
+
+    // Pares "repId:offerId" que ya tienen aplicación
+    public Set<String> findExistingPairs(Collection<Long> repIds, Collection<Long> offerIds) {
+        Set<String> result = new HashSet<>();
+        if (repIds.isEmpty() || offerIds.isEmpty()) return result;
+        jdbc.query("""
+                        SELECT rep_id, job_offer_id FROM job_applications
+                        WHERE rep_id IN (:repIds) AND job_offer_id IN (:offerIds)
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("repIds", repIds)
+                        .addValue("offerIds", offerIds),
+                rs -> {
+                    result.add(pairKey(rs.getLong("rep_id"), rs.getLong("job_offer_id")));
+                });
+        return result;
+    }
+
+    // Inserta todas las aplicaciones en un solo batch y devuelve sus ids en el mismo orden
+    public List<Long> insertAll(List<NewApplication> applications) {
+        if (applications.isEmpty()) return List.of();
+        return jdbc.getJdbcTemplate().execute((ConnectionCallback<List<Long>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO job_applications (job_offer_id, rep_id, status, rep_message) VALUES (?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (NewApplication app : applications) {
+                    ps.setLong(1, app.jobOfferId());
+                    ps.setLong(2, app.repId());
+                    ps.setString(3, ApplicationStatus.APPLIED.name());
+                    ps.setString(4, app.repMessage());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(applications.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) ids.add(keys.getLong(1));
+                }
+                return ids;
+            }
+        });
+    }
+
+    // Un UPDATE por oferta con el total de candidatos aceptados en el lote
+    public void incrementApplicants(Map<Long, Integer> acceptedByOffer) {
+        if (acceptedByOffer.isEmpty()) return;
+        MapSqlParameterSource[] params = acceptedByOffer.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("id", e.getKey())
+                        .addValue("delta", e.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbc.batchUpdate(
+                "UPDATE job_offers SET applicants_count = COALESCE(applicants_count, 0) + :delta WHERE id = :id",
+                params);
+    }
+
+    public static String pairKey(Long repId, Long offerId) {
+        return repId + ":" + offerId;
+    }
+
+    private static int nullableInt(ResultSet rs, String column, int fallback) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? fallback : value;
+    }
+}
@@ -1,11 +1,39 @@
 package com.capitalhub.applications.repository;
 
+import com.capitalhub.applications.dto.ApplicationOwnership;
+import com.capitalhub.applications.dto.ApplicationView;
 import com.capitalhub.applications.entity.ApplicationStatus;
 import com.capitalhub.applications.entity.JobApplication;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface JobApplicationRepository extends JpaRepository<JobApplication, Long> {
+
+    // Columnas de ApplicationView (mismo orden que su constructor)
+    String VIEW_SELECT = """
+            SELECT new com.capitalhub.applications.dto.ApplicationView(
+                a.id, o.id, o.title, o.role, c.id, c.name,
+                r.id, u.id, u.firstName, u.lastName, r.reviewCount, r.reputationScore,
+                a.status, a.repMessage, a.companyNotes, a.interviewUrl,
+                a.interviewAt, a.hiredAt, a.rejectedAt, a.createdAt, a.updatedAt)
+            FROM JobApplication a
+            JOIN a.jobOffer o
+            JOIN o.company c
+            JOIN a.rep r
+            LEFT JOIN r.user u
+            """;
+
     List<JobApplication> findByRepId(Long repId);
     List<JobApplication> findByJobOfferId(Long jobOfferId);
     
@@ -17,4 +45,94 @@ public interface JobApplicationRepository extends JpaRepository<JobApplication,
     long countByJobOffer_CompanyIdAndStatus(Long companyId, ApplicationStatus status);
     
     boolean existsByRepIdAndJobOfferId(Long repId, Long jobOfferId);
-}
\ No newline at end of file
+
+    // ===== Lecturas con proyección (una consulta por página + un COUNT) =====
+
+    @Query(VIEW_SELECT + " WHERE r.id = :repId ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApplicationView> findViewsByRepId(@Param("repId") Long repId);
+
+    @Query(VIEW_SELECT + " WHERE c.id = :companyId ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApplicationView> findViewsByCompanyId(@Param("companyId") Long companyId);
+
+    @Query(VIEW_SELECT + " WHERE o.id = :offerId ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApplicationView> findViewsByJobOfferId(@Param("offerId") Long offerId);
+
+    @Query(value = VIEW_SELECT + " WHERE c.id = :companyId AND a.status IN :statuses",
+            countQuery = """
+                    SELECT COUNT(a) FROM JobApplication a JOIN a.jobOffer o
+                    WHERE o.company.id = :companyId AND a.status IN :statuses
+                    """)
+    Page<ApplicationView> findViewPageByCompanyId(@Param("companyId") Long companyId,
+                                                  @Param("statuses") Collection<ApplicationStatus> statuses,
+                                                  Pageable pageable);
+
+    @Query(value = VIEW_SELECT + " WHERE o.id = :offerId AND a.status IN :statuses",
+            countQuery = """
+                    SELECT COUNT(a) FROM JobApplication a
+                    WHERE a.jobOffer.id = :offerId AND a.status IN :statuses
+                    """)
+    Page<ApplicationView> findViewPageByJobOfferId(@Param("offerId") Long offerId,
+                                                   @Param("statuses") Collection<ApplicationStatus> statuses,
+                                                   Pageable pageable);
+
+    // ===== Cambios de estado en bloque =====
+
+    // Lectura con bloqueo (FOR UPDATE): el estado leído es el vigente y nadie lo cambia hasta el commit,
+    // así los deltas de contadores, el log y los eventos salen del estado real. Orden por id contra deadlocks
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT new com.capitalhub.applications.dto.ApplicationOwnership(a.id, o.company.id, o.id, a.rep.id, a.status)
+            FROM JobApplication a JOIN a.jobOffer o
+            WHERE a.id IN :ids
+            ORDER BY a.id
+            """)
+    List<ApplicationOwnership> findOwnershipByIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Bloquea la aplicación para cambiar su estado (mismo motivo que findOwnershipByIdsForUpdate)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM JobApplication a WHERE a.id = :id")
+    Optional<JobApplication> findByIdForUpdate(@Param("id") Long id);
+
+    // Mismos efectos que JobApplication.markInterview/markHired/markRejected, en una sentencia por lote.
+    // Las notas solo se sobrescriben si vienen informadas.
+
+    @Modifying
+    @Query("""
+            UPDATE JobApplication a
+            SET a.status = :status, a.companyNotes = COALESCE(:notes, a.companyNotes), a.updatedAt = :now
+            WHERE a.id IN :ids
+            """)
+    int bulkSetStatus(@Param("ids") Collection<Long> ids, @Param("status") ApplicationStatus status,
+                      @Param("notes") String notes, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE JobApplication a
+            SET a.status = com.capitalhub.applications.entity.ApplicationStatus.INTERVIEW,
+                a.interviewUrl = :interviewUrl, a.interviewAt = :now,
+                a.companyNotes = COALESCE(:notes, a.companyNotes), a.updatedAt = :now
+            WHERE a.id IN :ids
+            """)
+    int bulkMarkInterview(@Param("ids") Collection<Long> ids, @Param("interviewUrl") String interviewUrl,
+                          @Param("notes") String notes, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE JobApplication a
+            SET a.status = com.capitalhub.applications.entity.ApplicationStatus.HIRED,
+                a.hiredAt = :now, a.companyNotes = COALESCE(:notes, a.companyNotes), a.updatedAt = :now
+            WHERE a.id IN :ids
+            """)
+    int bulkMarkHired(@Param("ids") Collection<Long> ids, @Param("notes") String notes,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE JobApplication a
+            SET a.status = com.capitalhub.applications.entity.ApplicationStatus.REJECTED,
+                a.rejectedAt = :now, a.companyNotes = COALESCE(:notes, a.companyNotes), a.updatedAt = :now
+            WHERE a.id IN :ids
+            """)
+    int bulkMarkRejected(@Param("ids") Collection<Long> ids, @Param("notes") String notes,
+                         @Param("now") LocalDateTime now);
+}
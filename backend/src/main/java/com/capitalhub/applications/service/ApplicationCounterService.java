@@ -0,0 +1,181 @@
+package com.capitalhub.applications.service;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.applications.repository.ApplicationCounterRepository;
+import com.capitalhub.applications.repository.ApplicationCounterRepository.CounterKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantiene los contadores materializados de aplicaciones por (empresa, oferta, estado).
+ * Los cambios se escriben dentro de la transacción que modifica la aplicación, sobre la fila
+ * de la oferta y sobre el acumulado de la empresa (job_offer_id = 0).
+ * Un job nocturno recalcula los contadores desde job_applications y corrige cualquier desvío.
+ */
+@Service
+public class ApplicationCounterService {
+
+    private final ApplicationCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean reconcileEnabled;
+
+    private final Object reconcileLock = new Object();
+    private final AtomicLong reconcileRuns = new AtomicLong();
+    private final AtomicLong totalRowsRepaired = new AtomicLong();
+    private volatile Map<String, Object> lastReconcile = Map.of();
+
+    public ApplicationCounterService(ApplicationCounterRepository counterRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${applications.counters.reconcile-enabled:true}") boolean reconcileEnabled) {
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.reconcileEnabled = reconcileEnabled;
+    }
+
+    /**
+     * Acumula cambios de contadores y los escribe en un solo batch.
+     */
+    public static final class Deltas {
+        private final Map<CounterKey, Long> deltas = new HashMap<>();
+
+        public Deltas applied(Long companyId, Long offerId) {
+            return add(companyId, offerId, ApplicationStatus.APPLIED, 1);
+        }
+
+        public Deltas transition(Long companyId, Long offerId, ApplicationStatus from, ApplicationStatus to) {
+            if (from == to) return this;
+            add(companyId, offerId, from != null ? from : ApplicationStatus.APPLIED, -1);
+            return add(companyId, offerId, to, 1);
+        }
+
+        private Deltas add(Long companyId, Long offerId, ApplicationStatus status, long delta) {
+            deltas.merge(new CounterKey(companyId, offerId, status), delta, Long::sum);
+            deltas.merge(new CounterKey(companyId, ApplicationCounterRepository.COMPANY_ROLLUP, status), delta, Long::sum);
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+    }
+
+    // Debe ejecutarse en la transacción que crea o modifica las aplicaciones
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Deltas deltas) {
+        if (!deltas.isEmpty()) {
+            counterRepository.applyDeltas(deltas.deltas);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordApplied(Long companyId, Long offerId) {
+        apply(new Deltas().applied(companyId, offerId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Long companyId, Long offerId, ApplicationStatus from, ApplicationStatus to) {
+        apply(new Deltas().transition(companyId, offerId, from, to));
+    }
+
+    // Total de la empresa por estado (filas del acumulado, como mucho una por estado)
+    @Transactional(readOnly = true)
+    public Map<ApplicationStatus, Long> companyCounts(Long companyId) {
+        return withAllStatuses(counterRepository.findCounts(companyId, ApplicationCounterRepository.COMPANY_ROLLUP));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<ApplicationStatus, Long> offerCounts(Long companyId, Long offerId) {
+        return withAllStatuses(counterRepository.findCounts(companyId, offerId));
+    }
+
+    @Scheduled(cron = "${applications.counters.reconcile-cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        if (reconcileEnabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recalcula los contadores empresa a empresa. Cada empresa va en su propia transacción:
+     * primero bloquea sus filas de contadores (las escrituras concurrentes esperan) y después
+     * cuenta job_applications, de modo que el recuento ve todo lo confirmado hasta ese momento.
+     */
+    public Map<String, Object> reconcile() {
+        synchronized (reconcileLock) {
+            long start = System.currentTimeMillis();
+            int companies = 0;
+            long repaired = 0;
+
+            for (Long companyId : counterRepository.findAllCompanyIds()) {
+                Integer fixed = transactionTemplate.execute(status -> reconcileCompany(companyId));
+                repaired += fixed != null ? fixed : 0;
+                companies++;
+            }
+
+            long elapsed = System.currentTimeMillis() - start;
+            reconcileRuns.incrementAndGet();
+            totalRowsRepaired.addAndGet(repaired);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("at", LocalDateTime.now());
+            result.put("companies", companies);
+            result.put("rowsRepaired", repaired);
+            result.put("durationMs", elapsed);
+            lastReconcile = result;
+
+            if (repaired > 0) {
+                System.out.println("🧮 Contadores de aplicaciones: " + repaired + " filas corregidas en "
+                        + companies + " empresas (" + elapsed + " ms)");
+            }
+            return result;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("reconcileEnabled", reconcileEnabled);
+        stats.put("reconcileRuns", reconcileRuns.get());
+        stats.put("totalRowsRepaired", totalRowsRepaired.get());
+        stats.put("lastReconcile", lastReconcile);
+        return stats;
+    }
+
+    private int reconcileCompany(Long companyId) {
+        Map<CounterKey, Long> stored = counterRepository.lockCompanyCounters(companyId);
+        Map<CounterKey, Long> actual = counterRepository.countActual(companyId);
+
+        Set<CounterKey> keys = new HashSet<>(stored.keySet());
+        keys.addAll(actual.keySet());
+
+        int fixed = 0;
+        for (CounterKey key : keys) {
+            long expected = actual.getOrDefault(key, 0L);
+            Long current = stored.get(key);
+            if (current == null ? expected != 0 : current != expected) {
+                counterRepository.setCount(key, expected);
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+
+    private static Map<ApplicationStatus, Long> withAllStatuses(Map<ApplicationStatus, Long> counts) {
+        Map<ApplicationStatus, Long> result = new LinkedHashMap<>();
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            result.put(status, counts.getOrDefault(status, 0L));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package com.capitalhub.applications.service;
+
+import com.capitalhub.applications.repository.ApplicationEventLogRepository;
+import com.capitalhub.applications.repository.ApplicationEventLogRepository.LogEntry;
+import com.capitalhub.rep.service.RepMonthlyStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Escritura del log de transiciones de aplicaciones.
+ * Se escribe en la misma transacción que el cambio de estado: si esta se deshace, el evento también.
+ * Los resúmenes mensuales de cada rep se actualizan aquí, ya que todas las transiciones pasan por este punto.
+ */
+@Service
+@RequiredArgsConstructor
+public class ApplicationEventLog {
+
+    private final ApplicationEventLogRepository logRepository;
+    private final RepMonthlyStatsService repMonthlyStatsService;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(LogEntry entry) {
+        appendAll(List.of(entry));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<LogEntry> entries) {
+        if (entries.isEmpty()) return;
+        logRepository.appendAll(entries);
+        repMonthlyStatsService.recordApplicationEvents(entries);
+    }
+}
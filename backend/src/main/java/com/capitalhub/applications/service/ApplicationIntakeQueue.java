@@ -0,0 +1,338 @@
+package com.capitalhub.applications.service;
+
+import com.capitalhub.applications.dto.ApplicationTicketResponse;
+import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.applications.event.ApplicationSubmittedEvent;
+import com.capitalhub.applications.repository.ApplicationEventLogRepository.LogEntry;
+import com.capitalhub.applications.repository.JobApplicationBatchRepository;
+import com.capitalhub.applications.repository.JobApplicationBatchRepository.NewApplication;
+import com.capitalhub.applications.repository.JobApplicationBatchRepository.OfferCapacity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola de entrada de aplicaciones para ofertas muy demandadas.
+ * La petición solo encola y devuelve un handle; un único worker agrupa lo encolado
+ * y lo persiste con batch inserts en una transacción por lote.
+ * Al haber un solo consumidor FIFO, se respeta el orden de las aplicaciones de cada rep.
+ */
+@Service
+public class ApplicationIntakeQueue {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String REJECTED = "REJECTED";
+
+    // Los tickets resueltos se conservan un tiempo para poder consultarlos
+    private static final Duration TICKET_RETENTION = Duration.ofMinutes(15);
+
+    private final JobApplicationBatchRepository batchRepository;
+    private final ApplicationCounterService counterService;
+    private final ApplicationEventLog eventLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final BlockingQueue<PendingApplication> queue;
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet(); // "userId:offerId" encolados
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong lastBatchMs = new AtomicLong();
+    private final AtomicLong splitBatches = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    private record PendingApplication(String handle, Long repUserId, Long offerId, String repMessage) {
+    }
+
+    private static final class Ticket {
+        final Long repUserId;
+        final Long offerId;
+        final LocalDateTime queuedAt = LocalDateTime.now();
+        volatile String status = QUEUED;
+        volatile Long applicationId;
+        volatile String message;
+        volatile LocalDateTime processedAt;
+
+        Ticket(Long repUserId, Long offerId) {
+            this.repUserId = repUserId;
+            this.offerId = offerId;
+        }
+    }
+
+    public ApplicationIntakeQueue(JobApplicationBatchRepository batchRepository,
+                                  ApplicationCounterService counterService,
+                                  ApplicationEventLog eventLog,
+                                  ApplicationEventPublisher eventPublisher,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${applications.intake.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${applications.intake.batch-size:200}") int batchSize) {
+        this.batchRepository = batchRepository;
+        this.counterService = counterService;
+        this.eventLog = eventLog;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runWorker, "application-intake");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        // Lo que quede en cola se persiste antes de apagar
+        List<PendingApplication> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int i = 0; i < rest.size(); i += batchSize) {
+            processBatch(rest.subList(i, Math.min(i + batchSize, rest.size())));
+        }
+    }
+
+    /**
+     * Encola la aplicación sin tocar la base de datos.
+     */
+    public ApplicationTicketResponse enqueue(Long repUserId, Long offerId, String repMessage) {
+        String key = repUserId + ":" + offerId;
+        if (!inFlight.add(key)) {
+            throw new IllegalStateException("Ya has aplicado a esta oferta anteriormente.");
+        }
+
+        String handle = UUID.randomUUID().toString();
+        Ticket ticket = new Ticket(repUserId, offerId);
+        tickets.put(handle, ticket);
+
+        if (!queue.offer(new PendingApplication(handle, repUserId, offerId, repMessage))) {
+            tickets.remove(handle);
+            inFlight.remove(key);
+            rejectedQueueFull.incrementAndGet();
+            throw new IllegalStateException("Hay demasiadas solicitudes en este momento. Inténtalo de nuevo en unos segundos.");
+        }
+        enqueued.incrementAndGet();
+        return toResponse(handle, ticket);
+    }
+
+    public ApplicationTicketResponse getTicket(Long repUserId, String handle) {
+        Ticket ticket = tickets.get(handle);
+        if (ticket == null || !ticket.repUserId.equals(repUserId)) {
+            throw new EntityNotFoundException("Solicitud no encontrada");
+        }
+        return toResponse(handle, ticket);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueRemainingCapacity", queue.remainingCapacity());
+        stats.put("enqueued", enqueued.get());
+        stats.put("rejectedQueueFull", rejectedQueueFull.get());
+        stats.put("accepted", accepted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("batches", batches.get());
+        stats.put("lastBatchSize", lastBatchSize.get());
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("avgBatchSize", batches.get() == 0 ? 0 : (double) (accepted.get() + rejected.get()) / batches.get());
+        stats.put("lastBatchMs", lastBatchMs.get());
+        stats.put("splitBatches", splitBatches.get());
+        stats.put("tickets", tickets.size());
+        return stats;
+    }
+
+    private void runWorker() {
+        List<PendingApplication> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingApplication first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.out.println("❌ [INTAKE] Error procesando lote: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<PendingApplication> batch) {
+        long start = System.currentTimeMillis();
+        Map<String, Outcome> outcomes = new HashMap<>();
+        write(batch, outcomes);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (PendingApplication p : batch) {
+            Outcome outcome = outcomes.get(p.handle());
+            Ticket ticket = tickets.get(p.handle());
+            if (ticket != null) {
+                ticket.applicationId = outcome.applicationId();
+                ticket.message = outcome.message();
+                ticket.processedAt = now;
+                ticket.status = outcome.applicationId() != null ? ACCEPTED : REJECTED;
+            }
+            if (outcome.applicationId() != null) accepted.incrementAndGet();
+            else rejected.incrementAndGet();
+            inFlight.remove(p.repUserId() + ":" + p.offerId());
+        }
+
+        batches.incrementAndGet();
+        lastBatchSize.set(batch.size());
+        maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+        lastBatchMs.set(System.currentTimeMillis() - start);
+    }
+
+    // Si falla la transacción del lote, se parte en dos mitades (en orden de llegada, cada una en su transacción)
+    // hasta aislar las aplicaciones que fallan por sí solas: solo esas se rechazan
+    private void write(List<PendingApplication> batch, Map<String, Outcome> outcomes) {
+        try {
+            outcomes.putAll(transactionTemplate.execute(status -> persist(batch)));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                PendingApplication p = batch.get(0);
+                System.out.println("❌ [INTAKE] Aplicación rechazada (usuario " + p.repUserId()
+                        + ", oferta " + p.offerId() + "): " + e.getMessage());
+                outcomes.put(p.handle(), Outcome.rejected("No se pudo registrar la aplicación. Inténtalo de nuevo."));
+                return;
+            }
+            System.out.println("⚠️ [INTAKE] Lote de " + batch.size() + " aplicaciones fallido, se parte en dos: " + e.getMessage());
+            splitBatches.incrementAndGet();
+            int mid = batch.size() / 2;
+            write(batch.subList(0, mid), outcomes);
+            write(batch.subList(mid, batch.size()), outcomes);
+        }
+    }
+
+    private record Outcome(Long applicationId, String message) {
+        static Outcome rejected(String message) {
+            return new Outcome(null, message);
+        }
+    }
+
+    // Se ejecuta dentro de la transacción del lote
+    private Map<String, Outcome> persist(List<PendingApplication> batch) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> offerIds = new HashSet<>();
+        for (PendingApplication p : batch) {
+            userIds.add(p.repUserId());
+            offerIds.add(p.offerId());
+        }
+
+        // Primero el bloqueo de las ofertas: así las lecturas siguientes (MySQL fija la vista en la primera
+        // lectura sin bloqueo) ya ven las aplicaciones que applyToOffer confirmó mientras esperábamos
+        Map<Long, OfferCapacity> offers = batchRepository.lockOffers(offerIds);
+        Map<Long, Long> repIds = batchRepository.findRepIdsByUserIds(userIds);
+        Set<String> existing = batchRepository.findExistingPairs(repIds.values(), offerIds);
+
+        Map<String, Outcome> outcomes = new HashMap<>();
+        Map<Long, Integer> acceptedByOffer = new HashMap<>();
+        List<OfferCapacity> insertedOffers = new ArrayList<>();
+        List<PendingApplication> toInsert = new ArrayList<>();
+        List<NewApplication> rows = new ArrayList<>();
+        ApplicationCounterService.Deltas counters = new ApplicationCounterService.Deltas();
+
+        // En orden de llegada: duplicados y plazas se resuelven como en applyToOffer
+        for (PendingApplication p : batch) {
+            Long repId = repIds.get(p.repUserId());
+            OfferCapacity offer = offers.get(p.offerId());
+
+            if (repId == null) {
+                outcomes.put(p.handle(), Outcome.rejected("Perfil de REP no encontrado"));
+            } else if (offer == null) {
+                outcomes.put(p.handle(), Outcome.rejected("Oferta no encontrada"));
+            } else if (!offer.open()) {
+                outcomes.put(p.handle(), Outcome.rejected("Esta oferta ya no está activa."));
+            } else if (!existing.add(JobApplicationBatchRepository.pairKey(repId, p.offerId()))) {
+                outcomes.put(p.handle(), Outcome.rejected("Ya has aplicado a esta oferta anteriormente."));
+            } else {
+                int acceptedSoFar = acceptedByOffer.getOrDefault(p.offerId(), 0);
+                if (offer.applicantsCount() + acceptedSoFar >= offer.maxApplicants()) {
+                    outcomes.put(p.handle(), Outcome.rejected("Esta oferta ya no admite más candidatos."));
+                } else {
+                    acceptedByOffer.put(p.offerId(), acceptedSoFar + 1);
+                    toInsert.add(p);
+                    insertedOffers.add(offer);
+                    rows.add(new NewApplication(repId, p.offerId(), p.repMessage()));
+                    counters.applied(offer.companyId(), p.offerId());
+                }
+            }
+        }
+
+        List<Long> ids = batchRepository.insertAll(rows);
+        batchRepository.incrementApplicants(acceptedByOffer);
+        counterService.apply(counters);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<LogEntry> logEntries = new ArrayList<>(toInsert.size());
+        for (int i = 0; i < toInsert.size(); i++) {
+            NewApplication row = rows.get(i);
+            outcomes.put(toInsert.get(i).handle(), new Outcome(ids.get(i), null));
+            logEntries.add(LogEntry.of(ids.get(i), insertedOffers.get(i).companyId(), row.jobOfferId(), row.repId(),
+                    null, ApplicationStatus.APPLIED, now));
+        }
+        eventLog.appendAll(logEntries);
+        // Se entregan tras el commit del lote
+        logEntries.forEach(e -> eventPublisher.publishEvent(new ApplicationSubmittedEvent(
+                e.applicationId(), e.repId(), e.companyId(), e.jobOfferId(), e.occurredAt())));
+        return outcomes;
+    }
+
+    // Programado aparte del worker: con la cola siempre ocupada el poll nunca vence y los tickets no se purgarían
+    @Scheduled(fixedDelayString = "${applications.intake.ticket-evict-ms:60000}")
+    public void evictOldTickets() {
+        LocalDateTime limit = LocalDateTime.now().minus(TICKET_RETENTION);
+        tickets.entrySet().removeIf(e -> e.getValue().processedAt != null && e.getValue().processedAt.isBefore(limit));
+    }
+
+    private ApplicationTicketResponse toResponse(String handle, Ticket ticket) {
+        return ApplicationTicketResponse.builder()
+                .handle(handle)
+                .jobOfferId(ticket.offerId)
+                .status(ticket.status)
+                .applicationId(ticket.applicationId)
+                .message(ticket.message)
+                .queuedAt(ticket.queuedAt)
+                .processedAt(ticket.processedAt)
+                .build();
+    }
+}
@@ -0,0 +1,269 @@
+package com.capitalhub.applications.service;
+
+import com.capitalhub.applications.event.ApplicationStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream SSE de cambios de estado de aplicaciones para cada REP.
+ * Los eventos llegan tras el commit y se reparten a las conexiones abiertas del rep.
+ * Cada conexión tiene una cola acotada y un hilo virtual (de un executor propio del stream, el resto
+ * del servidor sigue con sus hilos de plataforma) que escribe eventos y heartbeats;
+ * si la cola se llena, la conexión se cierra y el cliente reanuda con Last-Event-ID.
+ * Se guardan los últimos eventos de cada rep para poder reenviar lo perdido al reconectar.
+ */
+@Service
+public class ApplicationStatusStream {
+
+    private static final String EVENT_STATUS = "application-status";
+    private static final String EVENT_RESYNC = "resync";
+
+    // Prefijo de los ids de evento: si el servidor se reinicia, los ids antiguos no se confunden
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<Long, Set<Connection>> connectionsByRep = new ConcurrentHashMap<>();
+    private final Map<Long, RepHistory> historyByRep = new ConcurrentHashMap<>();
+
+    private final long timeoutMs;
+    private final long heartbeatMs;
+    private final int bufferSize;
+    private final int historySize;
+    private final int maxConnectionsPerRep;
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+
+    // Un hilo virtual por conexión: pasan casi todo el tiempo bloqueados en la cola o en el socket
+    private final ExecutorService writers =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-writer-", 0).factory());
+
+    private record StreamEvent(long seq, ApplicationStatusChangedEvent payload) {
+    }
+
+    // Últimos eventos de un rep; lastEvicted indica hasta dónde se ha perdido el histórico
+    private static final class RepHistory {
+        final Deque<StreamEvent> events = new ArrayDeque<>();
+        long lastEvicted;
+    }
+
+    public ApplicationStatusStream(@Value("${applications.stream.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${applications.stream.heartbeat-ms:25000}") long heartbeatMs,
+                                   @Value("${applications.stream.buffer-size:64}") int bufferSize,
+                                   @Value("${applications.stream.history-size:50}") int historySize,
+                                   @Value("${applications.stream.max-connections-per-rep:5}") int maxConnectionsPerRep) {
+        this.timeoutMs = timeoutMs;
+        this.heartbeatMs = heartbeatMs;
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.maxConnectionsPerRep = maxConnectionsPerRep;
+    }
+
+    /**
+     * Abre un stream para el rep. Si llega lastEventId, reenvía los eventos posteriores
+     * (o un evento "resync" si ya no están en el histórico).
+     */
+    public SseEmitter subscribe(Long repId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(repId, emitter);
+
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+
+        // Alta y reenvío bajo el mismo lock que la publicación: ni duplicados ni huecos ni desorden
+        RepHistory history = historyFor(repId);
+        synchronized (history) {
+            Set<Connection> connections = connectionsByRep.compute(repId, (id, set) -> {
+                Set<Connection> result = set != null ? set : new CopyOnWriteArraySet<>();
+                result.add(connection);
+                return result;
+            });
+            // Demasiadas pestañas abiertas: se cierra la más antigua
+            if (connections.size() > maxConnectionsPerRep) {
+                connections.stream().findFirst().ifPresent(Connection::close);
+            }
+            replay(connection, history, lastEventId);
+        }
+
+        connection.start();
+        opened.incrementAndGet();
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStatusChanged(ApplicationStatusChangedEvent event) {
+        RepHistory history = historyFor(event.repId());
+        synchronized (history) {
+            // La secuencia se asigna con el lock para que los eventos de un rep salgan en orden
+            StreamEvent streamEvent = new StreamEvent(sequence.incrementAndGet(), event);
+            history.events.addLast(streamEvent);
+            while (history.events.size() > historySize) {
+                history.lastEvicted = history.events.removeFirst().seq();
+            }
+
+            Set<Connection> connections = connectionsByRep.get(event.repId());
+            if (connections != null) {
+                connections.forEach(c -> c.offer(streamEvent));
+            }
+        }
+        published.incrementAndGet();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openConnections", connectionsByRep.values().stream().mapToInt(Set::size).sum());
+        stats.put("repsConnected", connectionsByRep.size());
+        stats.put("opened", opened.get());
+        stats.put("closed", closed.get());
+        stats.put("published", published.get());
+        stats.put("delivered", delivered.get());
+        stats.put("replayed", replayed.get());
+        stats.put("overflows", overflows.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionsByRep.values().forEach(set -> set.forEach(Connection::close));
+        writers.shutdownNow();
+    }
+
+    private RepHistory historyFor(Long repId) {
+        return historyByRep.computeIfAbsent(repId, id -> new RepHistory());
+    }
+
+    // Debe llamarse con el lock del histórico
+    private void replay(Connection connection, RepHistory history, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) return;
+
+        long lastSeq = parseSequence(lastEventId);
+        // Id de otra ejecución o eventos ya descartados del histórico: el cliente debe recargar
+        if (lastSeq < 0 || lastSeq < history.lastEvicted) {
+            connection.offer(null);
+            if (lastSeq < 0) return;
+        }
+        int count = 0;
+        for (StreamEvent e : history.events) {
+            if (e.seq() > lastSeq) {
+                connection.offer(e);
+                count++;
+            }
+        }
+        replayed.addAndGet(count);
+    }
+
+    // -1 si el id no es de esta ejecución del servidor
+    private long parseSequence(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) return -1;
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    /**
+     * Una conexión SSE: cola acotada + hilo virtual que la vacía hacia el emitter.
+     */
+    private final class Connection {
+        // Marca en la cola para pedir al cliente que se resincronice
+        private static final StreamEvent RESYNC = new StreamEvent(-1, null);
+
+        final Long repId;
+        final SseEmitter emitter;
+        final BlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        volatile boolean open = true;
+        Future<?> writer;
+
+        Connection(Long repId, SseEmitter emitter) {
+            this.repId = repId;
+            this.emitter = emitter;
+        }
+
+        void start() {
+            writer = writers.submit(this::run);
+        }
+
+        void offer(StreamEvent event) {
+            if (!open) return;
+            if (!queue.offer(event != null ? event : RESYNC)) {
+                // Cliente lento: se corta y reanudará con Last-Event-ID
+                overflows.incrementAndGet();
+                close();
+            }
+        }
+
+        void close() {
+            if (!open) return;
+            open = false;
+            connectionsByRep.computeIfPresent(repId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            if (writer != null) writer.cancel(true);
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // Ya cerrado por el contenedor
+            }
+            closed.incrementAndGet();
+        }
+
+        private void run() {
+            try {
+                while (open) {
+                    StreamEvent event = queue.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                    if (!open) break;
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else if (event == RESYNC) {
+                        emitter.send(SseEmitter.event().name(EVENT_RESYNC).data("{}", MediaType.APPLICATION_JSON));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(event.seq()))
+                                .name(EVENT_STATUS)
+                                .data(event.payload(), MediaType.APPLICATION_JSON));
+                        delivered.incrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado
+            } finally {
+                close();
+            }
+        }
+    }
+}
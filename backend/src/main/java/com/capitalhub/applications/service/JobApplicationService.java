@@ -1,9 +1,18 @@
 package com.capitalhub.applications.service;
 
+import com.capitalhub.applications.dto.ApplicationOwnership;
+import com.capitalhub.applications.dto.ApplicationPage;
 import com.capitalhub.applications.dto.ApplicationResponse;
+import com.capitalhub.applications.dto.ApplicationView;
 import com.capitalhub.applications.dto.ApplyRequest;
+import com.capitalhub.applications.dto.BulkStatusOutcome;
+import com.capitalhub.applications.dto.BulkStatusRequest;
+import com.capitalhub.applications.dto.BulkStatusResponse;
 import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.applications.event.ApplicationStatusChangedEvent;
+import com.capitalhub.applications.event.ApplicationSubmittedEvent;
 import com.capitalhub.applications.entity.JobApplication;
+import com.capitalhub.applications.repository.ApplicationEventLogRepository.LogEntry;
 import com.capitalhub.applications.repository.JobApplicationRepository;
 import com.capitalhub.company.entity.Company;
 import com.capitalhub.company.repository.CompanyRepository;
@@ -14,10 +23,24 @@ import com.capitalhub.rep.entity.RepProfile;
 import com.capitalhub.rep.repository.RepProfileRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +51,26 @@ public class JobApplicationService {
     private final JobOfferRepository jobOfferRepository;
     private final RepProfileRepository repProfileRepository;
     private final CompanyRepository companyRepository;
+    private final ApplicationCounterService counterService;
+    private final ApplicationEventLog eventLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationStatusStream statusStream;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Nombre del parámetro sort -> propiedad en VIEW_SELECT ("r." = alias del rep en la consulta)
+    private static final Map<String, String> SORTABLE_FIELDS = Map.of(
+            "createdAt", "createdAt",
+            "status", "status",
+            "reputation", "r.reputationScore");
+    private static final List<ApplicationStatus> ALL_STATUSES = List.of(ApplicationStatus.values());
+
+    // Cambios en bloque: tamaño máximo de cada IN (...) y resultados por id
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final String BULK_UPDATED = "UPDATED";
+    private static final String BULK_UNCHANGED = "UNCHANGED";
+    private static final String BULK_NOT_FOUND = "NOT_FOUND";
+    private static final String BULK_FORBIDDEN = "FORBIDDEN";
 
     @Transactional
     public ApplicationResponse applyToOffer(Long repUserId, Long offerId, ApplyRequest req) {
@@ -45,6 +88,11 @@ public class JobApplicationService {
             throw new IllegalStateException("Ya has aplicado a esta oferta anteriormente."); 
         }
 
+        // Contador atómico en SQL + control de plazas (maxApplicants)
+        if (jobOfferRepository.incrementApplicantsIfAdmitted(offer.getId(), JobStatus.ACTIVE) == 0) {
+            throw new IllegalStateException("Esta oferta ya no admite más candidatos.");
+        }
+
         JobApplication application = JobApplication.builder()
                 .rep(rep)
                 .jobOffer(offer)
@@ -52,11 +100,19 @@ public class JobApplicationService {
                 .repMessage(req != null ? req.getRepMessage() : null)
                 .build();
 
-        JobApplication saved = applicationRepository.save(application);
-
-        // Actualizamos contador
-        offer.setApplicantsCount(offer.getApplicantsCount() + 1);
-        jobOfferRepository.save(offer);
+        JobApplication saved;
+        try {
+            saved = applicationRepository.save(application);
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición del mismo rep ganó la carrera (uk_job_applications_rep_offer): se deshace el incremento
+            throw new IllegalStateException("Ya has aplicado a esta oferta anteriormente.");
+        }
+        counterService.recordApplied(offer.getCompany().getId(), offer.getId());
+        LocalDateTime submittedAt = saved.getCreatedAt() != null ? saved.getCreatedAt() : LocalDateTime.now();
+        eventLog.append(LogEntry.of(saved.getId(), offer.getCompany().getId(), offer.getId(), rep.getId(),
+                null, ApplicationStatus.APPLIED, submittedAt));
+        eventPublisher.publishEvent(new ApplicationSubmittedEvent(
+                saved.getId(), rep.getId(), offer.getCompany().getId(), offer.getId(), submittedAt));
 
         return mapToResponse(saved);
     }
@@ -66,40 +122,57 @@ public class JobApplicationService {
         RepProfile rep = repProfileRepository.findByUserId(repUserId)
                 .orElseThrow(() -> new EntityNotFoundException("Perfil REP no encontrado"));
 
-        return applicationRepository.findByRepId(rep.getId()).stream()
+        return applicationRepository.findViewsByRepId(rep.getId()).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    // Stream SSE de cambios de estado de las aplicaciones del rep
     @Transactional(readOnly = true)
-    public List<ApplicationResponse> listApplicationsForOffer(Long companyUserId, Long offerId) {
-        Company company = companyRepository.findByUserId(companyUserId)
-                .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
-        
-        JobOffer offer = jobOfferRepository.findById(offerId)
-                .orElseThrow(() -> new EntityNotFoundException("Oferta no encontrada"));
+    public SseEmitter subscribeToStatusChanges(Long repUserId, String lastEventId) {
+        RepProfile rep = repProfileRepository.findByUserId(repUserId)
+                .orElseThrow(() -> new EntityNotFoundException("Perfil REP no encontrado"));
+        return statusStream.subscribe(rep.getId(), lastEventId);
+    }
 
-        if (!offer.getCompany().getId().equals(company.getId())) {
-            throw new IllegalArgumentException("No tienes permiso para ver las aplicaciones de esta oferta.");
-        }
-        return applicationRepository.findByJobOfferId(offerId).stream()
+    @Transactional(readOnly = true)
+    public List<ApplicationResponse> listApplicationsForOffer(Long companyUserId, Long offerId) {
+        checkOfferOwnership(companyUserId, offerId);
+        return applicationRepository.findViewsByJobOfferId(offerId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    // ✅ MÉTODO NUEVO QUE FALTABA: Listar TODAS las aplicaciones de una empresa
+    // Listar TODAS las aplicaciones de una empresa (una sola consulta con JOIN)
     @Transactional(readOnly = true)
     public List<ApplicationResponse> listAllCompanyApplications(Long companyUserId) {
         Company company = companyRepository.findByUserId(companyUserId)
                 .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
 
-        // IMPORTANTE: Para que esto funcione, JobApplicationRepository debe tener el método 'findByJobOffer_CompanyId'
-        // Si no lo tienes, añádelo al repositorio como te mostré antes.
-        return applicationRepository.findByJobOffer_CompanyId(company.getId()).stream()
+        return applicationRepository.findViewsByCompanyId(company.getId()).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    // Aplicaciones de la empresa paginadas: filtro de estado y orden resueltos en SQL
+    @Transactional(readOnly = true)
+    public ApplicationPage pageCompanyApplications(Long companyUserId, List<ApplicationStatus> statuses,
+                                                   Integer page, Integer size, String sort) {
+        Company company = companyRepository.findByUserId(companyUserId)
+                .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
+
+        return toPage(applicationRepository.findViewPageByCompanyId(
+                company.getId(), statusFilter(statuses), pageRequest(page, size, sort)));
+    }
+
+    @Transactional(readOnly = true)
+    public ApplicationPage pageApplicationsForOffer(Long companyUserId, Long offerId, List<ApplicationStatus> statuses,
+                                                    Integer page, Integer size, String sort) {
+        checkOfferOwnership(companyUserId, offerId);
+        return toPage(applicationRepository.findViewPageByJobOfferId(
+                offerId, statusFilter(statuses), pageRequest(page, size, sort)));
+    }
+
     @Transactional
     public ApplicationResponse updateApplicationStatus(Long companyUserId, Long applicationId, 
                                                        ApplicationStatus status, String companyNotes, 
@@ -107,7 +180,7 @@ public class JobApplicationService {
         Company company = companyRepository.findByUserId(companyUserId)
                 .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
                 
-        JobApplication app = applicationRepository.findById(applicationId)
+        JobApplication app = applicationRepository.findByIdForUpdate(applicationId)
                 .orElseThrow(() -> new EntityNotFoundException("Aplicación no encontrada"));
 
         if (!app.getJobOffer().getCompany().getId().equals(company.getId())) {
@@ -115,6 +188,7 @@ public class JobApplicationService {
         }
 
         // Lógica de negocio para cambios de estado
+        ApplicationStatus previous = app.getStatus();
         app.setStatus(status); 
         
         if (status == ApplicationStatus.INTERVIEW && interviewUrl != null) {
@@ -127,7 +201,206 @@ public class JobApplicationService {
 
         if (companyNotes != null) app.setCompanyNotes(companyNotes);
 
-        return mapToResponse(applicationRepository.save(app));
+        counterService.recordTransition(company.getId(), app.getJobOffer().getId(), previous, status);
+        JobApplication saved = applicationRepository.save(app);
+
+        if (previous != status) {
+            LocalDateTime now = LocalDateTime.now();
+            eventLog.append(LogEntry.of(saved.getId(), company.getId(), saved.getJobOffer().getId(),
+                    saved.getRep().getId(), previous, status, now));
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(
+                    saved.getId(), saved.getRep().getId(), company.getId(), saved.getJobOffer().getId(),
+                    previous, status, saved.getInterviewUrl(), now));
+        }
+        return mapToResponse(saved);
+    }
+
+    // Aplicaciones por estado desde los contadores materializados (toda la empresa o una oferta)
+    @Transactional(readOnly = true)
+    public Map<ApplicationStatus, Long> countByStatus(Long companyUserId, Long offerId) {
+        Company company = companyRepository.findByUserId(companyUserId)
+                .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
+
+        // Los contadores van por (empresa, oferta): una oferta ajena simplemente no tiene filas
+        return offerId == null
+                ? counterService.companyCounts(company.getId())
+                : counterService.offerCounts(company.getId(), offerId);
+    }
+
+    /**
+     * Cambia el estado de muchas aplicaciones a la vez: una consulta de propiedad para todos los ids
+     * y un UPDATE por lote, con el resultado de cada id.
+     * Las filas se leen bloqueadas, así que lo que se actualiza es exactamente lo leído.
+     */
+    @Transactional
+    public BulkStatusResponse bulkUpdateStatus(Long companyUserId, BulkStatusRequest req) {
+        Company company = companyRepository.findByUserId(companyUserId)
+                .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(req.getIds()));
+        ids.removeIf(Objects::isNull);
+        ApplicationStatus target = req.getStatus();
+
+        // Se bloquean en orden de id (también entre lotes) para no cruzarse con otra petición en bloque
+        List<Long> lockOrder = ids.stream().sorted().toList();
+        Map<Long, ApplicationOwnership> found = new HashMap<>();
+        for (List<Long> chunk : chunks(lockOrder)) {
+            applicationRepository.findOwnershipByIdsForUpdate(chunk).forEach(o -> found.put(o.id(), o));
+        }
+
+        List<BulkStatusOutcome> outcomes = new ArrayList<>(ids.size());
+        List<Long> toUpdate = new ArrayList<>();
+        int unchanged = 0;
+        int failed = 0;
+        for (Long id : ids) {
+            ApplicationOwnership app = found.get(id);
+            String result;
+            if (app == null) {
+                result = BULK_NOT_FOUND;
+                failed++;
+            } else if (!app.companyId().equals(company.getId())) {
+                result = BULK_FORBIDDEN;
+                failed++;
+            } else if (app.status() == target) {
+                result = BULK_UNCHANGED;
+                unchanged++;
+            } else {
+                result = BULK_UPDATED;
+                toUpdate.add(id);
+            }
+            outcomes.add(BulkStatusOutcome.builder().id(id).result(result).build());
+        }
+
+        ApplicationCounterService.Deltas deltas = new ApplicationCounterService.Deltas();
+        for (Long id : toUpdate) {
+            ApplicationOwnership app = found.get(id);
+            deltas.transition(app.companyId(), app.jobOfferId(), app.status(), target);
+        }
+        counterService.apply(deltas);
+
+        LocalDateTime now = LocalDateTime.now();
+        String notes = req.getCompanyNotes();
+        for (List<Long> chunk : chunks(toUpdate)) {
+            int updated;
+            if (target == ApplicationStatus.INTERVIEW && req.getInterviewUrl() != null) {
+                updated = applicationRepository.bulkMarkInterview(chunk, req.getInterviewUrl(), notes, now);
+            } else if (target == ApplicationStatus.HIRED) {
+                updated = applicationRepository.bulkMarkHired(chunk, notes, now);
+            } else if (target == ApplicationStatus.REJECTED) {
+                updated = applicationRepository.bulkMarkRejected(chunk, notes, now);
+            } else {
+                updated = applicationRepository.bulkSetStatus(chunk, target, notes, now);
+            }
+            // Con las filas bloqueadas no debería pasar; si pasa, los deltas ya no cuadran y se deshace todo
+            if (updated != chunk.size()) {
+                throw new IllegalStateException("Se actualizaron " + updated + " de " + chunk.size() + " aplicaciones");
+            }
+        }
+
+        List<LogEntry> logEntries = new ArrayList<>(toUpdate.size());
+        for (Long id : toUpdate) {
+            ApplicationOwnership app = found.get(id);
+            logEntries.add(LogEntry.of(id, app.companyId(), app.jobOfferId(), app.repId(), app.status(), target, now));
+        }
+        eventLog.appendAll(logEntries);
+
+        String interviewUrl = target == ApplicationStatus.INTERVIEW ? req.getInterviewUrl() : null;
+        for (Long id : toUpdate) {
+            ApplicationOwnership app = found.get(id);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(
+                    id, app.repId(), app.companyId(), app.jobOfferId(), app.status(), target, interviewUrl, now));
+        }
+
+        return BulkStatusResponse.builder()
+                .status(target)
+                .requested(ids.size())
+                .updated(toUpdate.size())
+                .unchanged(unchanged)
+                .failed(failed)
+                .outcomes(outcomes)
+                .build();
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(i, Math.min(i + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private void checkOfferOwnership(Long companyUserId, Long offerId) {
+        Company company = companyRepository.findByUserId(companyUserId)
+                .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
+
+        Long ownerId = jobOfferRepository.findCompanyIdById(offerId)
+                .orElseThrow(() -> new EntityNotFoundException("Oferta no encontrada"));
+
+        if (!ownerId.equals(company.getId())) {
+            throw new IllegalArgumentException("No tienes permiso para ver las aplicaciones de esta oferta.");
+        }
+    }
+
+    // Sin filtro = todos los estados (la consulta siempre usa IN)
+    private static Collection<ApplicationStatus> statusFilter(List<ApplicationStatus> statuses) {
+        return statuses == null || statuses.isEmpty() ? ALL_STATUSES : statuses;
+    }
+
+    // sort: "createdAt", "status" o "reputation", con ",asc" o ",desc" opcional (por defecto createdAt,desc)
+    private static PageRequest pageRequest(Integer page, Integer size, String sort) {
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        String property = "createdAt";
+        Sort.Direction direction = Sort.Direction.DESC;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            property = SORTABLE_FIELDS.get(parts[0].trim());
+            if (property == null) {
+                throw new IllegalArgumentException("Orden no soportado: " + parts[0].trim()
+                        + ". Usa createdAt, status o reputation");
+            }
+            if (parts.length > 1) {
+                direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new IllegalArgumentException("Dirección de orden no válida: " + parts[1]));
+            }
+        }
+        // id como desempate para que el orden entre páginas sea estable
+        return PageRequest.of(pageNumber, pageSize, Sort.by(direction, property).and(Sort.by(direction, "id")));
+    }
+
+    private ApplicationPage toPage(Page<ApplicationView> page) {
+        return ApplicationPage.builder()
+                .items(page.getContent().stream().map(this::mapToResponse).toList())
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .build();
+    }
+
+    private ApplicationResponse mapToResponse(ApplicationView app) {
+        return ApplicationResponse.builder()
+                .id(app.getId())
+                .jobOfferId(app.getJobOfferId())
+                .jobTitle(app.getJobTitle())
+                .jobRole(app.getJobRole() != null ? app.getJobRole().name() : null)
+                .companyId(app.getCompanyId())
+                .companyName(app.getCompanyName())
+                .repId(app.getRepId())
+                .repFullName(app.getRepFullName())
+                .repReviewCount(app.getRepReviewCount())
+                .repReputation(app.getRepReputation())
+                .status(app.getStatus())
+                .repMessage(app.getRepMessage())
+                .companyNotes(app.getCompanyNotes())
+                .interviewUrl(app.getInterviewUrl())
+                .interviewAt(app.getInterviewAt())
+                .hiredAt(app.getHiredAt())
+                .rejectedAt(app.getRejectedAt())
+                .createdAt(app.getCreatedAt())
+                .updatedAt(app.getUpdatedAt())
+                .build();
     }
 
     private ApplicationResponse mapToResponse(JobApplication app) {
@@ -140,6 +413,8 @@ public class JobApplicationService {
                 .companyName(app.getJobOffer().getCompany().getName()) 
                 .repId(app.getRep().getId())
                 .repFullName(app.getRep().getFullName()) // Asegúrate de que RepProfile tiene este método
+                .repReviewCount(app.getRep().getReviewCount())
+                .repReputation(app.getRep().getReputationScore())
                 .status(app.getStatus())
                 .repMessage(app.getRepMessage())
                 .companyNotes(app.getCompanyNotes())
@@ -0,0 +1,40 @@
+package com.capitalhub.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de paginación por (created_at, id): "createdAt|id" en Base64 URL-safe.
+ * Lo comparten el feed de ofertas y las reviews. Un cursor mal formado es un IllegalArgumentException (400).
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        String[] parts = raw.split("\\|");
+        if (parts.length != 2) {
+            throw invalid();
+        }
+        try {
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Cursor inválido");
+    }
+}
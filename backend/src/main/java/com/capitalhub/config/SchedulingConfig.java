@@ -0,0 +1,10 @@
+package com.capitalhub.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Activa las tareas @Scheduled (ciclo de vida de ofertas, etc.)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,14 +1,16 @@
 package com.capitalhub.dashboard.controller;
 
-import com.capitalhub.jobs.repository.JobOfferRepository;
+import com.capitalhub.auth.entity.User;
+import com.capitalhub.jobs.service.JobOfferService;
+import com.capitalhub.rep.service.RepMonthlyStatsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.security.Principal;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,25 +20,23 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DashboardController {
 
-    private final JobOfferRepository jobOfferRepository;
+    private final RepMonthlyStatsService repMonthlyStatsService;
+    private final JobOfferService jobOfferService;
 
     @GetMapping("/stats")
     @PreAuthorize("hasAuthority('REP')")
-    public ResponseEntity<Map<String, Object>> getStats(Principal principal) {
+    public ResponseEntity<Map<String, Object>> getStats(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
         Map<String, Object> stats = new HashMap<>();
-        
-        long totalOffers = jobOfferRepository.count();
 
-        Map<String, Object> monthlyStats = new HashMap<>();
-        monthlyStats.put("callsMade", 0);
-        monthlyStats.put("closures", 0);
-        monthlyStats.put("avgTicket", 0);
-        monthlyStats.put("estimatedCommission", 0);
+        // Ofertas activas desde el snapshot del feed en memoria (sin consultar MySQL)
+        long totalOffers = jobOfferService.listAllActiveOffers().size();
 
-        stats.put("monthlyStats", monthlyStats);
+        // Resumen del mes en curso: una lectura por clave primaria de rep_monthly_stats
+        stats.put("monthlyStats", repMonthlyStatsService.currentMonth(user.getId()));
         stats.put("latestProcesses", Collections.emptyList());
         stats.put("totalOffers", totalOffers);
-        
+
         return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.capitalhub.dashboard.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * KPIs del dashboard de empresa en una sola consulta: empresa del usuario, ofertas activas
+ * y aplicaciones por estado desde el acumulado de application_status_counters (job_offer_id = 0).
+ */
+@Repository
+@RequiredArgsConstructor
+public class CompanyDashboardRepository {
+
+    private static final String STATS_SQL = """
+            SELECT c.id, c.name,
+                   (SELECT COUNT(*) FROM job_offers o WHERE o.company_id = c.id AND o.active = TRUE) AS active_jobs,
+                   COALESCE(SUM(s.count), 0) AS total_applications,
+                   COALESCE(SUM(CASE WHEN s.status = 'APPLIED' THEN s.count END), 0) AS pending_applications,
+                   COALESCE(SUM(CASE WHEN s.status = 'HIRED' THEN s.count END), 0) AS hired_count
+            FROM companies c
+            LEFT JOIN application_status_counters s ON s.company_id = c.id AND s.job_offer_id = 0
+            WHERE c.user_id = :userId
+            GROUP BY c.id, c.name
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record CompanyStats(Long companyId, String companyName, long activeJobs,
+                               long totalApplications, long pendingApplications, long hiredCount) {
+    }
+
+    public Optional<CompanyStats> findStatsByUserId(Long userId) {
+        return jdbc.query(STATS_SQL,
+                        new MapSqlParameterSource("userId", userId),
+                        (rs, i) -> new CompanyStats(
+                                rs.getLong("id"),
+                                rs.getString("name"),
+                                rs.getLong("active_jobs"),
+                                rs.getLong("total_applications"),
+                                rs.getLong("pending_applications"),
+                                rs.getLong("hired_count")))
+                .stream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,122 @@
+package com.capitalhub.dashboard.service;
+
+import com.capitalhub.applications.event.ApplicationStatusChangedEvent;
+import com.capitalhub.applications.event.ApplicationSubmittedEvent;
+import com.capitalhub.dashboard.repository.CompanyDashboardRepository;
+import com.capitalhub.dashboard.repository.CompanyDashboardRepository.CompanyStats;
+import com.capitalhub.jobs.event.JobOffersChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché de los KPIs del dashboard de empresa, con TTL corto.
+ * Las peticiones simultáneas de la misma empresa comparten una sola consulta (se espera al mismo future)
+ * y las escrituras de ofertas y aplicaciones invalidan la entrada de su empresa tras el commit.
+ */
+@Service
+public class CompanyStatsCache {
+
+    private final CompanyDashboardRepository dashboardRepository;
+    private final long ttlMs;
+
+    // Por usuario de empresa (así la petición no necesita buscar antes la empresa)
+    private final Map<Long, Entry> byUser = new ConcurrentHashMap<>();
+    // companyId -> userId, para invalidar desde los eventos
+    private final Map<Long, Long> userByCompany = new ConcurrentHashMap<>();
+
+    private record Entry(CompletableFuture<Map<String, Object>> stats, long expiresAt) {
+        boolean usable(long now) {
+            return !stats.isDone() || now < expiresAt;
+        }
+    }
+
+    public CompanyStatsCache(CompanyDashboardRepository dashboardRepository,
+                             @Value("${dashboard.company-stats.ttl-ms:15000}") long ttlMs) {
+        this.dashboardRepository = dashboardRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    public Map<String, Object> get(Long companyUserId) {
+        long now = System.currentTimeMillis();
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        Entry entry = byUser.compute(companyUserId, (id, existing) ->
+                existing != null && existing.usable(now) ? existing : new Entry(created, now + ttlMs));
+
+        if (entry.stats() == created) {
+            load(companyUserId, entry);
+        }
+        try {
+            return entry.stats().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    public void invalidate(Long companyId) {
+        if (companyId == null) return;
+        Long userId = userByCompany.get(companyId);
+        if (userId != null) {
+            byUser.remove(userId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOffersChanged(JobOffersChangedEvent event) {
+        invalidate(event.companyId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onApplicationSubmitted(ApplicationSubmittedEvent event) {
+        invalidate(event.companyId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onApplicationStatusChanged(ApplicationStatusChangedEvent event) {
+        invalidate(event.companyId());
+    }
+
+    private void load(Long companyUserId, Entry entry) {
+        try {
+            Map<String, Object> stats = dashboardRepository.findStatsByUserId(companyUserId)
+                    .map(s -> {
+                        userByCompany.put(s.companyId(), companyUserId);
+                        return toMap(s);
+                    })
+                    .orElseGet(CompanyStatsCache::empty);
+            entry.stats().complete(stats);
+        } catch (RuntimeException e) {
+            // Los errores no se cachean: la siguiente petición vuelve a consultar
+            byUser.remove(companyUserId, entry);
+            entry.stats().completeExceptionally(e);
+        }
+    }
+
+    private static Map<String, Object> toMap(CompanyStats s) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeJobs", s.activeJobs());
+        stats.put("totalApplications", s.totalApplications());
+        stats.put("pendingApplications", s.pendingApplications());
+        stats.put("hiredCount", s.hiredCount());
+        stats.put("companyName", s.companyName());
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private static Map<String, Object> empty() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeJobs", 0);
+        stats.put("totalApplications", 0);
+        stats.put("pendingApplications", 0);
+        stats.put("hiredCount", 0);
+        return Collections.unmodifiableMap(stats);
+    }
+}
@@ -1,18 +1,31 @@
 package com.capitalhub.jobs.controller;
 
 import com.capitalhub.auth.entity.User;
+import com.capitalhub.jobs.dto.JobFeedFilter;
+import com.capitalhub.jobs.dto.JobFeedPage;
+import com.capitalhub.jobs.dto.JobImportReport;
 import com.capitalhub.jobs.dto.JobOfferRequest;
 import com.capitalhub.jobs.dto.JobOfferResponse;
 import com.capitalhub.jobs.entity.JobStatus;
+import com.capitalhub.jobs.service.JobFeedSnapshotCache;
+import com.capitalhub.jobs.service.JobOfferImportService;
 import com.capitalhub.jobs.service.JobOfferService;
+import com.capitalhub.jobs.service.OfferLifecycleScheduler;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
@@ -20,6 +33,8 @@ import java.util.List;
 public class JobOfferController {
 
     private final JobOfferService jobOfferService;
+    private final JobOfferImportService jobOfferImportService;
+    private final OfferLifecycleScheduler offerLifecycleScheduler;
 
     // 1. COMPANY: Crear una nueva oferta
     @PreAuthorize("hasAuthority('COMPANY')")
@@ -31,6 +46,18 @@ public class JobOfferController {
         return jobOfferService.createOffer(user.getId(), req);
     }
 
+    // 1b. COMPANY: Importación masiva de ofertas (CSV o NDJSON en streaming)
+    @PreAuthorize("hasAuthority('COMPANY')")
+    @PostMapping("/company/jobs/import")
+    public JobImportReport importOffers(@RequestParam(required = false) String format,
+                                        @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                        InputStream body,
+                                        Authentication authentication) throws IOException {
+        User user = (User) authentication.getPrincipal();
+        String resolved = JobOfferImportService.resolveFormat(format, contentType);
+        return jobOfferImportService.importOffers(user.getId(), body, resolved);
+    }
+
     // 2. EMPRESA: Ver las ofertas que ha creado esa empresa
     @PreAuthorize("hasAuthority('COMPANY')")
     @GetMapping("/company/jobs")
@@ -53,14 +80,79 @@ public class JobOfferController {
     // Usamos el método listAllActiveOffers() para asegurar que ves datos en el MVP
     @PreAuthorize("hasAuthority('REP')")
     @GetMapping("/rep/jobs")
-    public List<JobOfferResponse> listOffersForRep() {
-        return jobOfferService.listAllActiveOffers();
+    // ETag = versión del snapshot del feed: si no ha cambiado, 304 sin serializar nada
+    public List<JobOfferResponse> listOffersForRep(WebRequest request, HttpServletResponse response) {
+        JobFeedSnapshotCache.VersionedView feed = jobOfferService.listAllActiveOffersVersioned();
+        if (notModified(request, response, "\"feed-" + feed.version() + "\"")) {
+            return null;
+        }
+        return feed.offers();
+    }
+
+    // 4b. COMERCIAL: Feed paginado por cursor con filtros (market, language, modality, crm, comisión)
+    // GET /api/rep/jobs/feed?market=ES&minCommission=10&limit=20&cursor=...
+    @PreAuthorize("hasAuthority('REP')")
+    @GetMapping("/rep/jobs/feed")
+    public JobFeedPage listFeedForRep(JobFeedFilter filter, Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return jobOfferService.listFeedForRep(user.getId(), filter);
+    }
+
+    // 4c. COMERCIAL: Ofertas recomendadas para su perfil (top-K)
+    // GET /api/rep/jobs/recommended?k=10
+    @PreAuthorize("hasAuthority('REP')")
+    @GetMapping("/rep/jobs/recommended")
+    public List<JobOfferResponse> recommendedOffers(@RequestParam(required = false) Integer k,
+                                                    Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return jobOfferService.recommendOffersForRep(user.getId(), k);
     }
 
-    // 5. DETALLE: Ver una oferta específica (Público para usuarios logueados)
+    // 5. BÚSQUEDA: texto libre sobre título, descripción, CRM, mercado e idioma
+    // GET /api/jobs/search?q=closer hubspot&limit=20
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/jobs/search")
+    public List<JobOfferResponse> searchOffers(@RequestParam("q") String query,
+                                               @RequestParam(required = false) Integer limit) {
+        return jobOfferService.searchOffers(query, limit);
+    }
+
+    // 6. DETALLE: Ver una oferta específica (Público para usuarios logueados)
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/jobs/{id}")
-    public JobOfferResponse getOffer(@PathVariable Long id) {
+    // ETag a partir de id/updatedAt: si el cliente ya tiene la versión, 304 sin cargar la oferta
+    public JobOfferResponse getOffer(@PathVariable Long id, WebRequest request, HttpServletResponse response) {
+        if (notModified(request, response, jobOfferService.offerETag(id))) {
+            return null;
+        }
         return jobOfferService.getOffer(id);
     }
-}
\ No newline at end of file
+
+    // 7. ADMIN: Métricas del snapshot del feed (hits, misses, tiempos de reconstrucción)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/jobs/feed-cache")
+    public Map<String, Object> feedCacheStats() {
+        return jobOfferService.feedCacheStats();
+    }
+
+    // 8. ADMIN: Métricas del cierre automático de ofertas
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/jobs/lifecycle")
+    public Map<String, Object> lifecycleStats() {
+        return offerLifecycleScheduler.stats();
+    }
+
+    // 9. ADMIN: Lanzar una pasada de cierre automático ahora
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/admin/jobs/lifecycle/run")
+    public Map<String, Object> runLifecycle() {
+        return offerLifecycleScheduler.runNow();
+    }
+
+    // Comprueba If-None-Match y fija ETag. Cache-Control "no-cache" para que el navegador
+    // guarde la respuesta y revalide siempre (por defecto Spring Security envía no-store)
+    private static boolean notModified(WebRequest request, HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,21 @@
+package com.capitalhub.jobs.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JobFeedFilter {
+
+    // Filtros opcionales (coincidencia exacta, se aplican en SQL)
+    private String market;          // ES/LATAM/USA...
+    private String language;        // "Español", "ES+EN"...
+    private String modality;        // Remoto/Híbrido/Presencial
+    private String crm;             // "HubSpot", "GoHighLevel"...
+    private Double minCommission;
+    private Double maxCommission;
+
+    // Paginación por cursor (keyset)
+    private String cursor;          // Valor opaco devuelto en nextCursor
+    private Integer limit;          // Tamaño de página (default 20, máx 100)
+}
@@ -0,0 +1,17 @@
+package com.capitalhub.jobs.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JobFeedPage {
+
+    private List<JobOfferResponse> items;
+
+    // Cursor para pedir la siguiente página (null si no hay más)
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.capitalhub.jobs.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JobImportReport {
+
+    private String format;      // CSV, NDJSON
+    private long totalRows;
+    private long created;
+    private long failed;
+    private long durationMs;
+    private List<JobImportRowResult> rows;
+}
@@ -0,0 +1,14 @@
+package com.capitalhub.jobs.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JobImportRowResult {
+
+    private long row;           // Nº de fila de datos (1 = primera oferta)
+    private String status;      // CREATED, ERROR
+    private Long offerId;       // Solo si CREATED
+    private String error;       // Solo si ERROR
+}
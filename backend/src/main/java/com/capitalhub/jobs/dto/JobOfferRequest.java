@@ -1,6 +1,7 @@
 package com.capitalhub.jobs.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 @Getter @Setter
@@ -9,6 +10,7 @@ import lombok.*;
 public class JobOfferRequest {
 
     @NotBlank(message = "El título es obligatorio")
+    @Size(max = 200, message = "El título no puede superar 200 caracteres")
     private String title;
 
     private String description;
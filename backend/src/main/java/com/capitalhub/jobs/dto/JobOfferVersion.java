@@ -0,0 +1,19 @@
+package com.capitalhub.jobs.dto;
+
+import com.capitalhub.jobs.entity.JobStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Columnas mínimas para calcular el ETag de una oferta sin cargar la descripción ni la empresa.
+ * updatedAt (TIMESTAMP de MySQL) tiene resolución de segundos, por eso el ETag
+ * incluye también el estado y el número de candidatos.
+ */
+public record JobOfferVersion(Long id, LocalDateTime updatedAt, JobStatus status, Integer applicantsCount) {
+
+    public String etag() {
+        long updated = updatedAt != null ? updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+        return "\"offer-" + id + "-" + updated + "-" + status + "-" + (applicantsCount != null ? applicantsCount : 0) + "\"";
+    }
+}
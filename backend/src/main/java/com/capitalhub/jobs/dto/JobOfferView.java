@@ -0,0 +1,81 @@
+package com.capitalhub.jobs.dto;
+
+import com.capitalhub.jobs.entity.JobOffer;
+import com.capitalhub.jobs.entity.JobStatus;
+import com.capitalhub.rep.entity.RepRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura de una oferta con el nombre de su empresa.
+ * Se construye directamente en JPQL (SELECT new ...) uniendo job_offers con companies,
+ * sin entidades gestionadas ni cargas perezosas de Company.
+ * El orden del constructor debe coincidir con las consultas de JobOfferRepository.
+ */
+@Getter
+@AllArgsConstructor
+public class JobOfferView {
+
+    private Long id;
+
+    private Long companyId;
+    private String companyName;
+
+    private String title;
+    private String description;
+    private RepRole role;
+
+    private Integer seats;
+    private Integer maxApplicants;
+    private Integer applicantsCount;
+
+    private String language;
+    private String crm;
+
+    private Double commissionPercent;
+    private Double avgTicket;
+    private Double estimatedMonthlyEarnings;
+
+    private String modality;
+    private String market;
+
+    private String calendlyUrl;
+    private String zoomUrl;
+    private String whatsappUrl;
+
+    private JobStatus status;
+    private Boolean active;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Para las escrituras, donde ya tenemos la entidad (y su empresa) cargada
+    public static JobOfferView from(JobOffer o) {
+        return new JobOfferView(
+                o.getId(),
+                o.getCompany().getId(),
+                o.getCompany().getName(),
+                o.getTitle(),
+                o.getDescription(),
+                o.getRole(),
+                o.getSeats(),
+                o.getMaxApplicants(),
+                o.getApplicantsCount(),
+                o.getLanguage(),
+                o.getCrm(),
+                o.getCommissionPercent(),
+                o.getAvgTicket(),
+                o.getEstimatedMonthlyEarnings(),
+                o.getModality(),
+                o.getMarket(),
+                o.getCalendlyUrl(),
+                o.getZoomUrl(),
+                o.getWhatsappUrl(),
+                o.getStatus(),
+                o.getActive(),
+                o.getCreatedAt(),
+                o.getUpdatedAt());
+    }
+}
@@ -0,0 +1,16 @@
+package com.capitalhub.jobs.event;
+
+import com.capitalhub.rep.entity.RepRole;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alta de una oferta (individual o por importación). Los listeners lo reciben tras el commit
+ * (o al momento si no hay transacción).
+ */
+public record JobOfferCreatedEvent(Long offerId,
+                                   Long companyId,
+                                   String market,
+                                   RepRole role,
+                                   LocalDateTime createdAt) {
+}
@@ -0,0 +1,8 @@
+package com.capitalhub.jobs.event;
+
+/**
+ * Alta, cambio de estado o cierre de ofertas de una empresa.
+ * Los listeners lo reciben tras el commit (o al momento si no hay transacción).
+ */
+public record JobOffersChangedEvent(Long companyId) {
+}
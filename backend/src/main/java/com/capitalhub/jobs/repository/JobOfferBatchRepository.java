@@ -0,0 +1,83 @@
+package com.capitalhub.jobs.repository;
+
+import com.capitalhub.jobs.entity.JobOffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserción JDBC por lotes de ofertas (importación masiva).
+ * Con rewriteBatchedStatements=true el driver de MySQL envía cada lote como un único INSERT multi-fila.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobOfferBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO job_offers (
+                company_id, title, description, role, seats, max_applicants, applicants_count,
+                language, crm, commission_percent, avg_ticket, estimated_monthly_earnings,
+                modality, market, calendly_url, zoom_url, whatsapp_url, status, active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Inserta todas las ofertas en un solo batch y devuelve sus ids en el mismo orden
+    public List<Long> insertAll(List<JobOffer> offers) {
+        if (offers.isEmpty()) return List.of();
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (JobOffer o : offers) {
+                    int i = 1;
+                    ps.setLong(i++, o.getCompany().getId());
+                    ps.setString(i++, o.getTitle());
+                    ps.setString(i++, o.getDescription());
+                    ps.setString(i++, o.getRole() != null ? o.getRole().name() : null);
+                    setInt(ps, i++, o.getSeats());
+                    setInt(ps, i++, o.getMaxApplicants());
+                    setInt(ps, i++, o.getApplicantsCount());
+                    ps.setString(i++, o.getLanguage());
+                    ps.setString(i++, o.getCrm());
+                    setDouble(ps, i++, o.getCommissionPercent());
+                    setDouble(ps, i++, o.getAvgTicket());
+                    setDouble(ps, i++, o.getEstimatedMonthlyEarnings());
+                    ps.setString(i++, o.getModality());
+                    ps.setString(i++, o.getMarket());
+                    ps.setString(i++, o.getCalendlyUrl());
+                    ps.setString(i++, o.getZoomUrl());
+                    ps.setString(i++, o.getWhatsappUrl());
+                    ps.setString(i++, o.getStatus().name());
+                    ps.setBoolean(i, Boolean.TRUE.equals(o.getActive()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(offers.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) ids.add(keys.getLong(1));
+                }
+                return ids;
+            }
+        });
+    }
+
+    private static void setInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) ps.setInt(index, value);
+        else ps.setNull(index, Types.INTEGER);
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) ps.setDouble(index, value);
+        else ps.setNull(index, Types.DECIMAL);
+    }
+}
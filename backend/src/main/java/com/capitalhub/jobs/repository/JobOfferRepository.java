@@ -1,16 +1,137 @@
 package com.capitalhub.jobs.repository;
 
+import com.capitalhub.jobs.dto.JobOfferVersion;
+import com.capitalhub.jobs.dto.JobOfferView;
 import com.capitalhub.jobs.entity.JobOffer;
+import com.capitalhub.jobs.entity.JobStatus;
 import com.capitalhub.rep.entity.RepRole;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface JobOfferRepository extends JpaRepository<JobOffer, Long> {
+
+    // Columnas de JobOfferView (mismo orden que su constructor)
+    String VIEW_SELECT = """
+            SELECT new com.capitalhub.jobs.dto.JobOfferView(
+                o.id, c.id, c.name, o.title, o.description, o.role,
+                o.seats, o.maxApplicants, o.applicantsCount, o.language, o.crm,
+                o.commissionPercent, o.avgTicket, o.estimatedMonthlyEarnings,
+                o.modality, o.market, o.calendlyUrl, o.zoomUrl, o.whatsappUrl,
+                o.status, o.active, o.createdAt, o.updatedAt)
+            FROM JobOffer o JOIN o.company c
+            """;
+
     List<JobOffer> findByCompanyId(Long companyId);
-    
+
     // Para buscar ofertas activas filtradas por rol (ej: solo Setters o Both)
     List<JobOffer> findByActiveTrueAndRoleIn(List<RepRole> roles);
-    
+
+    // Empresa propietaria de una oferta (comprobación de permisos sin cargar la oferta)
+    @Query("SELECT o.company.id FROM JobOffer o WHERE o.id = :id")
+    Optional<Long> findCompanyIdById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT o.company.id FROM JobOffer o WHERE o.id IN :ids")
+    List<Long> findCompanyIdsByIds(@Param("ids") Collection<Long> ids);
+
     // Contar ofertas activas de una empresa
     long countByCompanyIdAndActive(Long companyId, Boolean active);
-}
\ No newline at end of file
+
+    // Suma un candidato en una sola sentencia, solo si la oferta sigue activa y le quedan plazas.
+    // Devuelve 0 si no se admite (cerrada o maxApplicants alcanzado).
+    @Modifying
+    @Query("""
+            UPDATE JobOffer o SET o.applicantsCount = COALESCE(o.applicantsCount, 0) + 1
+            WHERE o.id = :id
+              AND o.active = true
+              AND o.status = :status
+              AND (o.maxApplicants IS NULL OR COALESCE(o.applicantsCount, 0) < o.maxApplicants)
+            """)
+    int incrementApplicantsIfAdmitted(@Param("id") Long id, @Param("status") JobStatus status);
+
+    // ===== Ciclo de vida (OfferLifecycleScheduler) =====
+
+    // Ofertas activas que ya alcanzaron maxApplicants
+    @Query("""
+            SELECT o.id FROM JobOffer o
+            WHERE o.active = true AND o.status = :status
+              AND o.maxApplicants IS NOT NULL
+              AND COALESCE(o.applicantsCount, 0) >= o.maxApplicants
+            ORDER BY o.id
+            """)
+    List<Long> findFullOfferIds(@Param("status") JobStatus status, Pageable pageable);
+
+    // Ofertas activas publicadas antes de la fecha límite (usa idx_job_offers_active_created)
+    @Query("""
+            SELECT o.id FROM JobOffer o
+            WHERE o.active = true AND o.status = :status
+              AND o.createdAt < :createdBefore
+            ORDER BY o.id
+            """)
+    List<Long> findExpiredOfferIds(@Param("status") JobStatus status,
+                                   @Param("createdBefore") LocalDateTime createdBefore,
+                                   Pageable pageable);
+
+    // Cierre en bloque: una sola sentencia por lote de ids
+    @Modifying
+    @Query("""
+            UPDATE JobOffer o SET o.status = :closed, o.active = false, o.updatedAt = CURRENT_TIMESTAMP
+            WHERE o.id IN :ids AND o.active = true
+            """)
+    int closeByIds(@Param("ids") List<Long> ids, @Param("closed") JobStatus closed);
+
+    // ===== Lecturas con proyección (una sola consulta, sin entidades) =====
+
+    // Versión de una oferta para el ETag del detalle (sin TEXT ni JOIN)
+    @Query("""
+            SELECT new com.capitalhub.jobs.dto.JobOfferVersion(o.id, o.updatedAt, o.status, o.applicantsCount)
+            FROM JobOffer o WHERE o.id = :id
+            """)
+    Optional<JobOfferVersion> findVersionById(@Param("id") Long id);
+
+    @Query(VIEW_SELECT + " WHERE o.id = :id")
+    Optional<JobOfferView> findViewById(@Param("id") Long id);
+
+    @Query(VIEW_SELECT + " WHERE c.id = :companyId")
+    List<JobOfferView> findViewsByCompanyId(@Param("companyId") Long companyId);
+
+    // Ofertas activas (snapshot del feed e índice de búsqueda)
+    @Query(VIEW_SELECT + " WHERE o.active = true AND o.status = :status")
+    List<JobOfferView> findActiveViews(@Param("status") JobStatus status);
+
+    // Feed paginado por cursor (created_at, id) con filtros opcionales.
+    // Usa el índice idx_job_offers_feed (active, status, role, created_at).
+    @Query(VIEW_SELECT + """
+            WHERE o.active = true
+              AND o.status = :status
+              AND o.role IN :roles
+              AND (:market IS NULL OR o.market = :market)
+              AND (:language IS NULL OR o.language = :language)
+              AND (:modality IS NULL OR o.modality = :modality)
+              AND (:crm IS NULL OR o.crm = :crm)
+              AND (:minCommission IS NULL OR o.commissionPercent >= :minCommission)
+              AND (:maxCommission IS NULL OR o.commissionPercent <= :maxCommission)
+              AND (:cursorCreatedAt IS NULL
+                   OR o.createdAt < :cursorCreatedAt
+                   OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId))
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<JobOfferView> findFeedPage(@Param("status") JobStatus status,
+                                    @Param("roles") List<RepRole> roles,
+                                    @Param("market") String market,
+                                    @Param("language") String language,
+                                    @Param("modality") String modality,
+                                    @Param("crm") String crm,
+                                    @Param("minCommission") Double minCommission,
+                                    @Param("maxCommission") Double maxCommission,
+                                    @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
+}
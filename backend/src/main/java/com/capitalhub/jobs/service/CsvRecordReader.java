@@ -0,0 +1,122 @@
+package com.capitalhub.jobs.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV en streaming (RFC 4180): separador coma, comillas dobles y saltos de línea
+ * dentro de campos entrecomillados. Lee registro a registro sin cargar el fichero entero.
+ */
+class CsvRecordReader {
+
+    private static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private final Reader reader;
+    private int pushedBack = -2;
+    private long line = 1;
+    private boolean firstChar = true;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Línea en la que empieza el siguiente registro (para los mensajes de error)
+    long line() {
+        return line;
+    }
+
+    /**
+     * Devuelve el siguiente registro o null al final del fichero. Las líneas vacías se saltan.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (quoted) {
+                    throw new IllegalArgumentException("Comillas sin cerrar en la línea " + line);
+                }
+                if (!fieldStarted && fields.isEmpty()) return null;
+                fields.add(field.toString());
+                return fields;
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(n);
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    append(field, c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    quoted = true;
+                    fieldStarted = true;
+                }
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    fieldStarted = true;
+                }
+                case '\r' -> {
+                    int n = read();
+                    if (n != '\n') unread(n);
+                    line++;
+                    if (!fieldStarted && fields.isEmpty()) continue;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                case '\n' -> {
+                    line++;
+                    if (!fieldStarted && fields.isEmpty()) continue;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                default -> {
+                    append(field, c);
+                    fieldStarted = true;
+                }
+            }
+        }
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Campo demasiado largo en la línea " + line);
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        int c = reader.read();
+        if (firstChar) {
+            firstChar = false;
+            if (c == '\uFEFF') c = reader.read(); // BOM de Excel
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
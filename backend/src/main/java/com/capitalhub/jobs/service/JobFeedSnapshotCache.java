@@ -0,0 +1,258 @@
+package com.capitalhub.jobs.service;
+
+import com.capitalhub.jobs.dto.JobOfferResponse;
+import com.capitalhub.jobs.entity.JobStatus;
+import com.capitalhub.rep.entity.RepRole;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot inmutable del feed de ofertas activas, ya mapeado a JobOfferResponse,
+ * con una vista precalculada por rol (SETTER, CLOSER, COLD_CALLER y ALL).
+ * Las lecturas no bloquean ni copian; cada cambio publica un snapshot nuevo (copy-on-write).
+ */
+@Component
+public class JobFeedSnapshotCache {
+
+    public enum View {
+        SETTER, CLOSER, COLD_CALLER, ALL;
+
+        public static View of(RepRole role) {
+            if (role == null) return ALL;
+            return switch (role) {
+                case SETTER -> SETTER;
+                case CLOSER -> CLOSER;
+                case COLD_CALLER -> COLD_CALLER;
+                case BOTH -> ALL;
+            };
+        }
+    }
+
+    // Más recientes primero, igual que el feed paginado
+    private static final Comparator<JobOfferResponse> FEED_ORDER = Comparator
+            .comparing(JobOfferResponse::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(JobOfferResponse::getId, Comparator.reverseOrder());
+
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+
+    // Cambios recibidos mientras se recarga el snapshot: último cambio por oferta
+    // (valor null = eliminada). null si no hay recarga
+    private Map<Long, JobOfferResponse> pendingChanges;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong incrementalUpdates = new AtomicLong();
+    private final AtomicLong lastRebuildNanos = new AtomicLong();
+    private final AtomicLong totalRebuildNanos = new AtomicLong();
+    private long nextVersion = 1;
+
+    /**
+     * Vista del feed junto con la versión del snapshot del que sale (para ETags).
+     */
+    public record VersionedView(String version, List<JobOfferResponse> offers) {
+    }
+
+    /**
+     * Devuelve la vista pedida. Si aún no hay snapshot, lo construye con el loader
+     * (una sola vez aunque lleguen varias peticiones a la vez).
+     */
+    public List<JobOfferResponse> get(View view, Supplier<List<JobOfferResponse>> loader) {
+        return snapshot(loader).view(view);
+    }
+
+    /**
+     * Igual que get, pero devolviendo también la versión. La versión incluye un identificador
+     * de esta instancia para que dos instancias con el mismo contador no compartan ETag.
+     */
+    public VersionedView getVersioned(View view, Supplier<List<JobOfferResponse>> loader) {
+        Snapshot s = snapshot(loader);
+        return new VersionedView(instanceId + "-" + s.version() + "-" + view.name().toLowerCase(), s.view(view));
+    }
+
+    private Snapshot snapshot(Supplier<List<JobOfferResponse>> loader) {
+        Snapshot s = snapshot;
+        if (s != null) {
+            hits.incrementAndGet();
+            return s;
+        }
+        misses.incrementAndGet();
+        synchronized (writeLock) {
+            if (snapshot == null) {
+                rebuild(loader.get());
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Sustituye el snapshot completo con lo que devuelve el loader (carga inicial o tras cambios masivos).
+     * Los cambios que llegan durante la carga se reaplican sobre el snapshot nuevo.
+     * Devuelve las ofertas cargadas, para construir con ellas otros modelos de lectura.
+     */
+    public List<JobOfferResponse> replaceAll(Supplier<List<JobOfferResponse>> loader) {
+        synchronized (writeLock) {
+            pendingChanges = new LinkedHashMap<>();
+        }
+
+        List<JobOfferResponse> offers = null;
+        try {
+            offers = loader.get();
+            return offers;
+        } finally {
+            synchronized (writeLock) {
+                if (offers != null) {
+                    // Solo cuenta el último cambio de cada oferta: un alta seguida de un cierre no la resucita
+                    Map<Long, JobOfferResponse> latest = new LinkedHashMap<>();
+                    offers.forEach(o -> latest.put(o.getId(), o));
+                    pendingChanges.forEach((id, offer) -> {
+                        if (offer == null) latest.remove(id);
+                        else latest.put(id, offer);
+                    });
+                    rebuild(new ArrayList<>(latest.values()));
+                }
+                pendingChanges = null;
+            }
+        }
+    }
+
+    /**
+     * Aplica el alta o el cambio de una oferta sobre el snapshot actual.
+     * Si la oferta ya no está activa, desaparece de todas las vistas.
+     */
+    public void upsert(JobOfferResponse offer) {
+        synchronized (writeLock) {
+            if (pendingChanges != null) pendingChanges.put(offer.getId(), offer);
+            Snapshot current = snapshot;
+            if (current == null) return; // Se cargará completo en la próxima lectura
+
+            List<JobOfferResponse> next = new ArrayList<>(current.all().size() + 1);
+            for (JobOfferResponse o : current.all()) {
+                if (!o.getId().equals(offer.getId())) next.add(o);
+            }
+            if (isVisible(offer)) {
+                int pos = 0;
+                while (pos < next.size() && FEED_ORDER.compare(next.get(pos), offer) < 0) pos++;
+                next.add(pos, offer);
+            }
+            publish(next);
+            incrementalUpdates.incrementAndGet();
+        }
+    }
+
+    public void remove(Long offerId) {
+        removeAll(Set.of(offerId));
+    }
+
+    /**
+     * Quita varias ofertas publicando un único snapshot (cierres masivos).
+     */
+    public void removeAll(Collection<Long> offerIds) {
+        if (offerIds.isEmpty()) return;
+        Set<Long> ids = offerIds instanceof Set<Long> set ? set : new HashSet<>(offerIds);
+        synchronized (writeLock) {
+            if (pendingChanges != null) ids.forEach(id -> pendingChanges.put(id, null));
+            Snapshot current = snapshot;
+            if (current == null) return;
+
+            List<JobOfferResponse> next = current.all().stream()
+                    .filter(o -> !ids.contains(o.getId()))
+                    .toList();
+            if (next.size() != current.all().size()) {
+                publish(next);
+                incrementalUpdates.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Descarta el snapshot; la siguiente lectura lo reconstruye.
+     */
+    public void invalidate() {
+        synchronized (writeLock) {
+            snapshot = null;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot s = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", s != null);
+        stats.put("version", s != null ? s.version() : 0);
+        stats.put("size", s != null ? s.all().size() : 0);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("rebuilds", rebuilds.get());
+        stats.put("incrementalUpdates", incrementalUpdates.get());
+        stats.put("lastRebuildMs", lastRebuildNanos.get() / 1_000_000.0);
+        stats.put("totalRebuildMs", totalRebuildNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    // Debe llamarse con writeLock
+    private void rebuild(List<JobOfferResponse> offers) {
+        long start = System.nanoTime();
+        List<JobOfferResponse> sorted = offers.stream()
+                .filter(JobFeedSnapshotCache::isVisible)
+                .sorted(FEED_ORDER)
+                .toList();
+        publish(sorted);
+
+        long elapsed = System.nanoTime() - start;
+        rebuilds.incrementAndGet();
+        lastRebuildNanos.set(elapsed);
+        totalRebuildNanos.addAndGet(elapsed);
+    }
+
+    // Debe llamarse con writeLock
+    private void publish(List<JobOfferResponse> sortedOffers) {
+        JobOfferResponse[] all = sortedOffers.toArray(JobOfferResponse[]::new);
+        snapshot = new Snapshot(
+                nextVersion++,
+                List.of(all),
+                List.of(filterByRole(all, RepRole.SETTER)),
+                List.of(filterByRole(all, RepRole.CLOSER)),
+                List.of(filterByRole(all, RepRole.COLD_CALLER)));
+    }
+
+    // Cada rol ve sus ofertas y las marcadas como BOTH
+    private static JobOfferResponse[] filterByRole(JobOfferResponse[] all, RepRole role) {
+        return Arrays.stream(all)
+                .filter(o -> role.name().equals(o.getRole()) || RepRole.BOTH.name().equals(o.getRole()))
+                .toArray(JobOfferResponse[]::new);
+    }
+
+    private static boolean isVisible(JobOfferResponse o) {
+        return Boolean.TRUE.equals(o.getActive()) && o.getStatus() == JobStatus.ACTIVE;
+    }
+
+    private record Snapshot(long version,
+                            List<JobOfferResponse> all,
+                            List<JobOfferResponse> setter,
+                            List<JobOfferResponse> closer,
+                            List<JobOfferResponse> coldCaller) {
+
+        List<JobOfferResponse> view(View view) {
+            return switch (view) {
+                case SETTER -> setter;
+                case CLOSER -> closer;
+                case COLD_CALLER -> coldCaller;
+                case ALL -> all;
+            };
+        }
+    }
+}
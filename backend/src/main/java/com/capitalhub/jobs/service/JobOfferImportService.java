@@ -0,0 +1,300 @@
+package com.capitalhub.jobs.service;
+
+import com.capitalhub.company.entity.Company;
+import com.capitalhub.company.repository.CompanyRepository;
+import com.capitalhub.jobs.dto.JobImportReport;
+import com.capitalhub.jobs.dto.JobImportRowResult;
+import com.capitalhub.jobs.dto.JobOfferRequest;
+import com.capitalhub.jobs.entity.JobOffer;
+import com.capitalhub.jobs.event.JobOfferCreatedEvent;
+import com.capitalhub.jobs.event.JobOffersChangedEvent;
+import com.capitalhub.jobs.repository.JobOfferBatchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de ofertas de una empresa desde CSV o NDJSON.
+ * El cuerpo se lee en streaming fila a fila; las filas válidas se insertan con JDBC batch
+ * (un lote por transacción) y se devuelve el resultado de cada fila.
+ */
+@Service
+public class JobOfferImportService {
+
+    public static final String CSV = "CSV";
+    public static final String NDJSON = "NDJSON";
+
+    private static final String CREATED = "CREATED";
+    private static final String ERROR = "ERROR";
+
+    // Cabeceras CSV admitidas -> campo de JobOfferRequest (sin distinguir mayúsculas)
+    private static final Map<String, String> CSV_COLUMNS = List.of(
+                    "title", "description", "role", "salaryHint", "model", "type", "callTool", "callLink",
+                    "seats", "language", "crm", "commissionPercent", "avgTicket", "estimatedMonthlyEarnings",
+                    "modality", "market", "calendlyUrl", "zoomUrl", "whatsappUrl")
+            .stream()
+            .collect(Collectors.toMap(c -> c.toLowerCase(Locale.ROOT), Function.identity()));
+
+    private final CompanyRepository companyRepository;
+    private final JobOfferService jobOfferService;
+    private final JobOfferBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxRows;
+
+    public JobOfferImportService(CompanyRepository companyRepository,
+                                 JobOfferService jobOfferService,
+                                 JobOfferBatchRepository batchRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${jobs.import.batch-size:500}") int batchSize,
+                                 @Value("${jobs.import.max-rows:50000}") int maxRows) {
+        this.companyRepository = companyRepository;
+        this.jobOfferService = jobOfferService;
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Formato a partir del parámetro explícito o, si no viene, del Content-Type.
+     */
+    public static String resolveFormat(String format, String contentType) {
+        String value = format != null && !format.isBlank() ? format : contentType;
+        if (value != null) {
+            String v = value.toLowerCase(Locale.ROOT);
+            if (v.contains("csv")) return CSV;
+            if (v.contains("ndjson") || v.contains("jsonl") || v.contains("json-seq") || v.equals("application/json")) {
+                return NDJSON;
+            }
+        }
+        throw new IllegalArgumentException("Formato no soportado. Usa text/csv o application/x-ndjson");
+    }
+
+    public JobImportReport importOffers(Long companyUserId, InputStream body, String format) throws IOException {
+        Company company = companyRepository.findByUserId(companyUserId)
+                .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
+
+        long start = System.currentTimeMillis();
+        Batch batch = new Batch(company);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (CSV.equals(format)) {
+            readCsv(reader, batch);
+        } else {
+            readNdjson(reader, batch);
+        }
+        batch.flush();
+
+        if (batch.created > 0) {
+            // Un solo refresco del feed y del índice para todo el import
+            jobOfferService.reloadReadModels();
+            eventPublisher.publishEvent(new JobOffersChangedEvent(company.getId()));
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        System.out.println("📥 Import de ofertas (" + format + ") empresa " + company.getId() + ": "
+                + batch.created + " creadas, " + batch.failed + " con error en " + duration + " ms");
+
+        return JobImportReport.builder()
+                .format(format)
+                .totalRows(batch.results.size())
+                .created(batch.created)
+                .failed(batch.failed)
+                .durationMs(duration)
+                .rows(batch.results)
+                .build();
+    }
+
+    private void readCsv(BufferedReader reader, Batch batch) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return;
+
+        String[] fields = new String[header.size()];
+        boolean hasTitle = false;
+        for (int i = 0; i < header.size(); i++) {
+            String field = CSV_COLUMNS.get(header.get(i).trim().toLowerCase(Locale.ROOT));
+            if (field == null) {
+                throw new IllegalArgumentException("Columna desconocida en el CSV: " + header.get(i));
+            }
+            fields[i] = field;
+            hasTitle |= field.equals("title");
+        }
+        if (!hasTitle) {
+            throw new IllegalArgumentException("El CSV debe incluir la columna 'title'");
+        }
+
+        long row = 0;
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.next();
+            } catch (IllegalArgumentException e) {
+                // Un CSV mal formado no permite seguir leyendo con garantías
+                batch.fail(++row, e.getMessage());
+                return;
+            }
+            if (record == null) return;
+            if (++row > maxRows) {
+                batch.fail(row, "Límite de " + maxRows + " filas alcanzado; el resto no se ha importado");
+                return;
+            }
+            if (record.size() != fields.length) {
+                batch.fail(row, "La fila tiene " + record.size() + " columnas y la cabecera " + fields.length);
+                continue;
+            }
+
+            ObjectNode node = objectMapper.createObjectNode();
+            for (int i = 0; i < fields.length; i++) {
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) node.put(fields[i], value);
+            }
+            try {
+                batch.add(row, objectMapper.treeToValue(node, JobOfferRequest.class));
+            } catch (JsonProcessingException e) {
+                batch.fail(row, describe(e));
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Batch batch) throws IOException {
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            if (++row > maxRows) {
+                batch.fail(row, "Límite de " + maxRows + " filas alcanzado; el resto no se ha importado");
+                return;
+            }
+            try {
+                batch.add(row, objectMapper.readValue(line, JobOfferRequest.class));
+            } catch (JsonProcessingException e) {
+                batch.fail(row, describe(e));
+            }
+        }
+    }
+
+    private static String describe(JsonProcessingException e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            if (field != null) return "Valor no válido para '" + field + "'";
+        }
+        return "JSON no válido: " + e.getOriginalMessage();
+    }
+
+    /**
+     * Filas pendientes de insertar y resultados acumulados del import.
+     */
+    private final class Batch {
+        final Company company;
+        final List<JobImportRowResult> results = new ArrayList<>();
+        final List<JobOffer> offers = new ArrayList<>();
+        final List<JobImportRowResult> pending = new ArrayList<>();
+        long created;
+        long failed;
+
+        Batch(Company company) {
+            this.company = company;
+        }
+
+        void add(long row, JobOfferRequest req) {
+            Set<ConstraintViolation<JobOfferRequest>> violations = validator.validate(req);
+            if (!violations.isEmpty()) {
+                fail(row, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            JobImportRowResult result = JobImportRowResult.builder().row(row).build();
+            results.add(result);
+            pending.add(result);
+            offers.add(jobOfferService.buildOffer(company, req));
+            if (offers.size() >= batchSize) flush();
+        }
+
+        void fail(long row, String error) {
+            results.add(JobImportRowResult.builder().row(row).status(ERROR).error(error).build());
+            failed++;
+        }
+
+        void flush() {
+            if (offers.isEmpty()) return;
+            try {
+                List<Long> ids = transactionTemplate.execute(status -> insertAndPublish(offers));
+                for (int i = 0; i < pending.size(); i++) {
+                    markCreated(pending.get(i), ids.get(i));
+                }
+            } catch (DataAccessException e) {
+                // Si falla el lote, se reintenta fila a fila para aislar las filas problemáticas
+                for (int i = 0; i < pending.size(); i++) {
+                    JobOffer offer = offers.get(i);
+                    try {
+                        List<Long> ids = transactionTemplate.execute(status -> insertAndPublish(List.of(offer)));
+                        markCreated(pending.get(i), ids.get(0));
+                    } catch (DataAccessException rowError) {
+                        JobImportRowResult result = pending.get(i);
+                        result.setStatus(ERROR);
+                        result.setError("No se pudo guardar la oferta: " + rowError.getMostSpecificCause().getMessage());
+                        failed++;
+                    }
+                }
+            } finally {
+                offers.clear();
+                pending.clear();
+            }
+        }
+
+        // Los eventos de alta se entregan tras el commit del lote
+        private List<Long> insertAndPublish(List<JobOffer> toInsert) {
+            List<Long> ids = batchRepository.insertAll(toInsert);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < ids.size(); i++) {
+                JobOffer offer = toInsert.get(i);
+                eventPublisher.publishEvent(new JobOfferCreatedEvent(
+                        ids.get(i), company.getId(), offer.getMarket(), offer.getRole(), now));
+            }
+            return ids;
+        }
+
+        private void markCreated(JobImportRowResult result, Long id) {
+            result.setStatus(CREATED);
+            result.setOfferId(id);
+            created++;
+        }
+    }
+}
@@ -1,19 +1,39 @@
 package com.capitalhub.jobs.service;
 
+import com.capitalhub.applications.event.ApplicationSubmittedEvent;
+import com.capitalhub.common.KeysetCursor;
 import com.capitalhub.company.entity.Company;
 import com.capitalhub.company.repository.CompanyRepository;
+import com.capitalhub.jobs.dto.JobFeedFilter;
+import com.capitalhub.jobs.dto.JobFeedPage;
 import com.capitalhub.jobs.dto.JobOfferRequest;
 import com.capitalhub.jobs.dto.JobOfferResponse;
+import com.capitalhub.jobs.dto.JobOfferVersion;
+import com.capitalhub.jobs.dto.JobOfferView;
 import com.capitalhub.jobs.entity.JobOffer;
 import com.capitalhub.jobs.entity.JobStatus;
+import com.capitalhub.jobs.event.JobOfferCreatedEvent;
+import com.capitalhub.jobs.event.JobOffersChangedEvent;
 import com.capitalhub.jobs.repository.JobOfferRepository;
+import com.capitalhub.rep.entity.RepProfile;
 import com.capitalhub.rep.entity.RepRole;
+import com.capitalhub.rep.repository.RepProfileRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -21,11 +41,39 @@ public class JobOfferService {
 
     private final JobOfferRepository jobOfferRepository;
     private final CompanyRepository companyRepository;
+    private final RepProfileRepository repProfileRepository;
+    private final JobSearchIndex jobSearchIndex;
+    private final JobFeedSnapshotCache feedCache;
+    private final JobRecommendationEngine recommendationEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int DEFAULT_FEED_LIMIT = 20;
+    private static final int MAX_FEED_LIMIT = 100;
+    private static final int DEFAULT_RECOMMENDATIONS = 10;
+    private static final int MAX_RECOMMENDATIONS = 100;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
 
     public JobOfferResponse createOffer(Long companyUserId, JobOfferRequest req) {
         Company company = companyRepository.findByUserId(companyUserId)
                 .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
 
+        JobOffer offer = buildOffer(company, req);
+
+        JobOffer saved = jobOfferRepository.save(offer);
+        JobOfferView view = JobOfferView.from(saved);
+        // El feed y el índice son compartidos: guardan el mapeo neutro, no el salaryHint/model de esta petición
+        JobOfferResponse shared = mapToSharedResponse(view);
+        jobSearchIndex.upsert(shared);
+        feedCache.upsert(shared);
+        eventPublisher.publishEvent(new JobOffersChangedEvent(company.getId()));
+        eventPublisher.publishEvent(new JobOfferCreatedEvent(saved.getId(), company.getId(), saved.getMarket(),
+                saved.getRole(), saved.getCreatedAt() != null ? saved.getCreatedAt() : LocalDateTime.now()));
+        return mapToResponse(view, req.getSalaryHint(), req.getModel(), req.getCallTool(), req.getCallLink());
+    }
+
+    // Mapeo de la petición a la entidad (alta individual e importación masiva)
+    JobOffer buildOffer(Company company, JobOfferRequest req) {
         // Convertir role String a RepRole enum
         RepRole repRole = parseRole(req.getRole());
         
@@ -45,7 +93,7 @@ public class JobOfferService {
         // Valores por defecto si no se envían
         Integer seats = req.getSeats() != null ? req.getSeats() : 1;
 
-        JobOffer offer = JobOffer.builder()
+        return JobOffer.builder()
                 .company(company)
                 .title(req.getTitle())
                 .description(req.getDescription() != null ? req.getDescription() : "")
@@ -66,8 +114,6 @@ public class JobOfferService {
                 .status(JobStatus.ACTIVE)
                 .active(true)
                 .build();
-
-        return mapToResponse(jobOfferRepository.save(offer), req.getSalaryHint(), req.getModel(), req.getCallTool(), req.getCallLink());
     }
 
     private RepRole parseRole(String roleStr) {
@@ -84,56 +130,115 @@ public class JobOfferService {
         };
     }
 
+    @Transactional(readOnly = true)
     public List<JobOfferResponse> listCompanyOffers(Long companyUserId) {
         Company company = companyRepository.findByUserId(companyUserId)
                 .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
 
-        return jobOfferRepository.findByCompanyId(company.getId())
+        return jobOfferRepository.findViewsByCompanyId(company.getId())
                 .stream()
                 .map(o -> mapToResponse(o, null, null, null, null))
                 .toList();
     }
 
+    // Feed por rol servido desde el snapshot en memoria
     public List<JobOfferResponse> listOffersForRep(RepRole repRole) {
-        List<RepRole> allowedRoles = new ArrayList<>();
-        if (repRole != null) {
-            if (repRole == RepRole.SETTER) {
-                allowedRoles.add(RepRole.SETTER);
-                allowedRoles.add(RepRole.BOTH);
-            } else if (repRole == RepRole.CLOSER) {
-                allowedRoles.add(RepRole.CLOSER);
-                allowedRoles.add(RepRole.BOTH);
-            } else if (repRole == RepRole.COLD_CALLER) {
-                allowedRoles.add(RepRole.COLD_CALLER);
-                allowedRoles.add(RepRole.BOTH);
-            }
-        } else {
-            allowedRoles.add(RepRole.SETTER);
-            allowedRoles.add(RepRole.CLOSER);
-            allowedRoles.add(RepRole.COLD_CALLER);
-            allowedRoles.add(RepRole.BOTH);
+        return feedCache.get(JobFeedSnapshotCache.View.of(repRole), this::loadActiveOffers);
+    }
+
+    // Feed paginado por cursor para el comercial: filtros y orden resueltos en SQL
+    @Transactional(readOnly = true)
+    public JobFeedPage listFeedForRep(Long repUserId, JobFeedFilter filter) {
+        RepRole repRole = repProfileRepository.findByUserId(repUserId)
+                .map(RepProfile::getRoleType)
+                .orElse(null);
+
+        int limit = filter.getLimit() == null ? DEFAULT_FEED_LIMIT
+                : Math.max(1, Math.min(filter.getLimit(), MAX_FEED_LIMIT));
+
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (StringUtils.hasText(filter.getCursor())) {
+            KeysetCursor decoded = KeysetCursor.decode(filter.getCursor());
+            cursorCreatedAt = decoded.createdAt();
+            cursorId = decoded.id();
         }
 
-        return jobOfferRepository.findByActiveTrueAndRoleIn(allowedRoles)
-                .stream()
-                .filter(o -> o.getStatus() == JobStatus.ACTIVE)
-                .map(o -> mapToResponse(o, null, null, null, null))
-                .toList();
+        // Pedimos un elemento extra para saber si hay siguiente página
+        List<JobOfferView> rows = jobOfferRepository.findFeedPage(
+                JobStatus.ACTIVE,
+                allowedRolesFor(repRole),
+                emptyToNull(filter.getMarket()),
+                emptyToNull(filter.getLanguage()),
+                emptyToNull(filter.getModality()),
+                emptyToNull(filter.getCrm()),
+                filter.getMinCommission(),
+                filter.getMaxCommission(),
+                cursorCreatedAt,
+                cursorId,
+                PageRequest.of(0, limit + 1));
+
+        boolean hasMore = rows.size() > limit;
+        List<JobOfferView> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            JobOfferView last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return JobFeedPage.builder()
+                .items(page.stream().map(o -> mapToResponse(o, null, null, null, null)).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Top-K de ofertas activas puntuadas contra el perfil del comercial (rol, idioma, mercado, histórico)
+    @Transactional(readOnly = true)
+    public List<JobOfferResponse> recommendOffersForRep(Long repUserId, Integer k) {
+        RepProfile rep = repProfileRepository.findByUserId(repUserId)
+                .orElseThrow(() -> new EntityNotFoundException("Perfil de REP no encontrado"));
+
+        // Histórico de reviews ya agregado en el perfil (ver ReviewService)
+        JobRecommendationEngine.RepFeatures features = JobRecommendationEngine.features(
+                rep.getRoleType(), rep.getCountry(), rep.getLanguages(),
+                rep.getReviewCount() != null ? rep.getReviewCount() : 0, rep.getAvgRating(),
+                rep.getTotalDeals(), rep.getTotalRevenue());
+
+        int size = k == null ? DEFAULT_RECOMMENDATIONS : Math.max(1, Math.min(k, MAX_RECOMMENDATIONS));
+        List<JobOfferResponse> offers = feedCache.get(JobFeedSnapshotCache.View.ALL, this::loadActiveOffers);
+        return recommendationEngine.topK(offers, features, size);
     }
 
     public List<JobOfferResponse> listAllActiveOffers() {
-        return jobOfferRepository.findAll().stream()
-                .filter(o -> Boolean.TRUE.equals(o.getActive()) && o.getStatus() == JobStatus.ACTIVE)
-                .map(o -> mapToResponse(o, null, null, null, null))
-                .toList();
+        return feedCache.get(JobFeedSnapshotCache.View.ALL, this::loadActiveOffers);
     }
 
+    // Feed completo con la versión del snapshot (ETag de /rep/jobs)
+    public JobFeedSnapshotCache.VersionedView listAllActiveOffersVersioned() {
+        return feedCache.getVersioned(JobFeedSnapshotCache.View.ALL, this::loadActiveOffers);
+    }
+
+    public Map<String, Object> feedCacheStats() {
+        return feedCache.stats();
+    }
+
+    @Transactional(readOnly = true)
     public JobOfferResponse getOffer(Long id) {
-        JobOffer offer = jobOfferRepository.findById(id)
+        JobOfferView offer = jobOfferRepository.findViewById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Oferta no encontrada"));
         return mapToResponse(offer, null, null, null, null);
     }
 
+    // ETag del detalle: una consulta por PK sobre columnas pequeñas
+    @Transactional(readOnly = true)
+    public String offerETag(Long id) {
+        return jobOfferRepository.findVersionById(id)
+                .map(JobOfferVersion::etag)
+                .orElseThrow(() -> new EntityNotFoundException("Oferta no encontrada"));
+    }
+
     public JobOfferResponse updateStatus(Long companyUserId, Long offerId, JobStatus status) {
         Company company = companyRepository.findByUserId(companyUserId)
                 .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
@@ -148,10 +253,104 @@ public class JobOfferService {
         offer.setStatus(status);
         offer.setActive(status != JobStatus.CLOSED);
 
-        return mapToResponse(jobOfferRepository.save(offer), null, null, null, null);
+        JobOfferResponse response = mapToSharedResponse(JobOfferView.from(jobOfferRepository.save(offer)));
+        if (status == JobStatus.ACTIVE) {
+            jobSearchIndex.upsert(response);
+        } else {
+            jobSearchIndex.remove(offerId);
+        }
+        feedCache.upsert(response);
+        eventPublisher.publishEvent(new JobOffersChangedEvent(company.getId()));
+        return response;
+    }
+
+    // applicantsCount va dentro del feed cacheado: cada alta refresca su oferta, lo que además
+    // cambia la versión del snapshot y con ella el ETag de /rep/jobs
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onApplicationSubmitted(ApplicationSubmittedEvent event) {
+        refreshReadModels(event.jobOfferId());
+    }
+
+    private void refreshReadModels(Long offerId) {
+        JobOfferView view = jobOfferRepository.findViewById(offerId).orElse(null);
+        if (view == null) {
+            jobSearchIndex.remove(offerId);
+            feedCache.remove(offerId);
+            return;
+        }
+        JobOfferResponse response = mapToSharedResponse(view);
+        if (Boolean.TRUE.equals(view.getActive()) && view.getStatus() == JobStatus.ACTIVE) {
+            jobSearchIndex.upsert(response);
+        } else {
+            jobSearchIndex.remove(offerId);
+        }
+        feedCache.upsert(response);
+    }
+
+    // Búsqueda de texto libre sobre el índice en memoria (no consulta MySQL)
+    public List<JobOfferResponse> searchOffers(String query, Integer limit) {
+        int size = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        return jobSearchIndex.search(query, size);
+    }
+
+    // Carga inicial del snapshot del feed y del índice de búsqueda al arrancar
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpReadModels() {
+        reloadReadModels();
+    }
+
+    // Recarga completa del snapshot y del índice (arranque y cambios masivos)
+    @Transactional(readOnly = true)
+    public void reloadReadModels() {
+        long start = System.currentTimeMillis();
+        // La consulta corre con las dos ventanas de cambios pendientes abiertas: lo que se confirme
+        // mientras tanto se reaplica sobre el feed y el índice nuevos en lugar de perderse
+        jobSearchIndex.rebuild(() -> feedCache.replaceAll(this::loadActiveOffers));
+        System.out.println("🔎 Feed e índice de búsqueda de ofertas: " + jobSearchIndex.size()
+                + " ofertas en " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private List<JobOfferResponse> loadActiveOffers() {
+        return jobOfferRepository.findActiveViews(JobStatus.ACTIVE).stream()
+                .map(this::mapToSharedResponse)
+                .toList();
+    }
+
+    // Lo que ve cualquier comercial: todo sale de la oferta guardada, nada de la petición que la creó
+    private JobOfferResponse mapToSharedResponse(JobOfferView o) {
+        return mapToResponse(o, null, null, null, null);
+    }
+
+    // Un comercial BOTH (o sin perfil) ve las ofertas de todos los roles, igual que la vista ALL del snapshot.
+    // Antes de extraer este método un rep BOTH no veía ninguna oferta: ningún rol caía en su lista
+    private List<RepRole> allowedRolesFor(RepRole repRole) {
+        List<RepRole> allowedRoles = new ArrayList<>();
+        if (repRole != null) {
+            if (repRole == RepRole.SETTER) {
+                allowedRoles.add(RepRole.SETTER);
+                allowedRoles.add(RepRole.BOTH);
+            } else if (repRole == RepRole.CLOSER) {
+                allowedRoles.add(RepRole.CLOSER);
+                allowedRoles.add(RepRole.BOTH);
+            } else if (repRole == RepRole.COLD_CALLER) {
+                allowedRoles.add(RepRole.COLD_CALLER);
+                allowedRoles.add(RepRole.BOTH);
+            }
+        }
+        if (allowedRoles.isEmpty()) {
+            allowedRoles.add(RepRole.SETTER);
+            allowedRoles.add(RepRole.CLOSER);
+            allowedRoles.add(RepRole.COLD_CALLER);
+            allowedRoles.add(RepRole.BOTH);
+        }
+        return allowedRoles;
+    }
+
+    private static String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
     }
 
-    private JobOfferResponse mapToResponse(JobOffer o, String salaryHint, String model, String callTool, String callLink) {
+    private JobOfferResponse mapToResponse(JobOfferView o, String salaryHint, String model, String callTool, String callLink) {
         // Determinar callTool y callLink desde los URLs guardados
         String resolvedCallTool = callTool;
         String resolvedCallLink = callLink;
@@ -183,8 +382,8 @@ public class JobOfferService {
 
         return JobOfferResponse.builder()
                 .id(o.getId())
-                .companyId(o.getCompany().getId())
-                .companyName(o.getCompany().getName())
+                .companyId(o.getCompanyId())
+                .companyName(o.getCompanyName())
                 .title(o.getTitle())
                 .description(o.getDescription())
                 .role(o.getRole() != null ? o.getRole().name() : "CLOSER")
@@ -0,0 +1,318 @@
+package com.capitalhub.jobs.service;
+
+import com.capitalhub.jobs.dto.JobOfferResponse;
+import com.capitalhub.rep.entity.RepRole;
+import org.springframework.stereotype.Component;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recomendador de ofertas para un REP.
+ * Precalcula un vector de características por oferta en arrays primitivos (a partir del
+ * snapshot del feed) y puntúa todas las ofertas con un top-K sobre un heap acotado.
+ * Cuando cambia el snapshot solo se calculan las ofertas nuevas o modificadas; el resto de filas
+ * se copian de la matriz anterior. Cada petición es un bucle sin I/O.
+ */
+@Component
+public class JobRecommendationEngine {
+
+    // Pesos de cada componente de la puntuación
+    private static final double W_ROLE_EXACT = 3.0;
+    private static final double W_ROLE_BOTH = 2.0;
+    private static final double W_LANGUAGE = 2.0;
+    private static final double W_MARKET = 1.0;
+    private static final double W_COMMISSION = 1.5;
+    private static final double W_TICKET = 2.0;
+    private static final double W_EARNINGS = 1.0;
+    private static final double W_FILL_PENALTY = 1.5;
+
+    // Normalización
+    private static final double MAX_COMMISSION = 30.0;
+    private static final double MAX_EARNINGS_LOG = Math.log1p(20_000);
+    private static final double BASE_TICKET_LOG = Math.log(1_000);
+    private static final double EXPERIENCE_TICKET_RANGE_LOG = Math.log(10);
+    private static final double DEALS_FOR_FULL_EXPERIENCE = 50.0;
+
+    // Códigos de rol (índice = ordinal de RepRole)
+    private static final byte ROLE_UNKNOWN = -1;
+
+    // Regiones (bitmask)
+    static final int REGION_ES = 1;
+    static final int REGION_LATAM = 1 << 1;
+    static final int REGION_USA = 1 << 2;
+
+    // Idiomas (bitmask)
+    static final int LANG_ES = 1;
+    static final int LANG_EN = 1 << 1;
+    static final int LANG_PT = 1 << 2;
+
+    private static final Set<String> ES_TOKENS = Set.of("es", "espana", "spain");
+    private static final Set<String> LATAM_TOKENS = Set.of("latam", "latinoamerica", "mexico", "mx", "colombia",
+            "argentina", "chile", "peru", "venezuela", "ecuador", "uruguay", "paraguay", "bolivia", "guatemala",
+            "panama", "dominicana", "honduras", "salvador", "nicaragua", "cuba", "brasil", "brazil");
+    private static final Set<String> USA_TOKENS = Set.of("usa", "us", "eeuu", "estados", "unidos", "united", "states");
+    private static final Set<String> SPANISH_TOKENS = Set.of("es", "espanol", "spanish", "castellano");
+    private static final Set<String> ENGLISH_TOKENS = Set.of("en", "ingles", "english");
+    private static final Set<String> PORTUGUESE_TOKENS = Set.of("pt", "portugues", "portuguese", "brasil", "brazil");
+
+    private final Object buildLock = new Object();
+    private volatile FeatureMatrix matrix;
+
+    /**
+     * Perfil del REP reducido a lo que necesita la puntuación.
+     */
+    public record RepFeatures(byte role, int regionMask, int languageMask, double logPreferredTicket) {
+    }
+
+    public static RepFeatures features(RepRole role, String country, String languages,
+                                       long reviewCount, Double avgRating, Long dealsClosed, Double generatedRevenue) {
+        int regionMask = regionMask(country);
+
+        int languageMask = languageMask(languages);
+        if (languageMask == 0) {
+            // Sin idiomas declarados: los deducimos del país
+            if ((regionMask & (REGION_ES | REGION_LATAM)) != 0) languageMask |= LANG_ES;
+            if ((regionMask & REGION_USA) != 0) languageMask |= LANG_EN;
+            languageMask |= languageMask(country); // Ej: "Brasil" -> PT
+        }
+
+        long deals = dealsClosed != null ? dealsClosed : 0;
+        double revenue = generatedRevenue != null ? generatedRevenue : 0;
+
+        // Ticket preferido: el que ya ha cerrado; si no hay histórico, según experiencia
+        double logPreferredTicket;
+        if (deals > 0 && revenue > 0) {
+            logPreferredTicket = Math.log(revenue / deals);
+        } else {
+            double ratingScore = reviewCount > 0 && avgRating != null ? (avgRating - 1) / 4 : 0;
+            double dealsScore = Math.min(1.0, deals / DEALS_FOR_FULL_EXPERIENCE);
+            double experience = 0.5 * ratingScore + 0.5 * dealsScore;
+            logPreferredTicket = BASE_TICKET_LOG + experience * EXPERIENCE_TICKET_RANGE_LOG;
+        }
+
+        return new RepFeatures(role != null ? (byte) role.ordinal() : ROLE_UNKNOWN,
+                regionMask, languageMask, logPreferredTicket);
+    }
+
+    /**
+     * Devuelve las k ofertas con mejor puntuación para el REP, de mayor a menor.
+     */
+    public List<JobOfferResponse> topK(List<JobOfferResponse> offers, RepFeatures rep, int k) {
+        FeatureMatrix m = matrixFor(offers);
+        if (k <= 0 || m.size == 0) {
+            return List.of();
+        }
+
+        boolean anyRole = rep.role() == ROLE_UNKNOWN || rep.role() == RepRole.BOTH.ordinal();
+        byte both = (byte) RepRole.BOTH.ordinal();
+
+        int[] heapIdx = new int[k];
+        double[] heapScore = new double[k];
+        int heapSize = 0;
+
+        for (int i = 0; i < m.size; i++) {
+            if (m.fill[i] >= 1.0) continue; // Sin plazas para más candidatos
+
+            double score;
+            if (anyRole || m.role[i] == rep.role()) {
+                score = W_ROLE_EXACT;
+            } else if (m.role[i] == both) {
+                score = W_ROLE_BOTH;
+            } else {
+                continue; // Rol incompatible
+            }
+
+            int offerLanguages = m.languageMask[i];
+            if (offerLanguages == 0) {
+                score += W_LANGUAGE * 0.5;
+            } else if ((offerLanguages & rep.languageMask()) != 0) {
+                score += W_LANGUAGE;
+            }
+
+            int offerRegions = m.regionMask[i];
+            if (offerRegions == 0 || rep.regionMask() == 0) {
+                score += W_MARKET * 0.5;
+            } else if ((offerRegions & rep.regionMask()) != 0) {
+                score += W_MARKET;
+            }
+
+            double logTicket = m.logTicket[i];
+            score += Double.isNaN(logTicket)
+                    ? W_TICKET * 0.5
+                    : W_TICKET / (1 + Math.abs(logTicket - rep.logPreferredTicket()));
+
+            score += W_COMMISSION * m.commissionScore[i];
+            score += W_EARNINGS * m.earningsScore[i];
+            score -= W_FILL_PENALTY * m.fill[i];
+
+            if (heapSize < k) {
+                heapIdx[heapSize] = i;
+                heapScore[heapSize] = score;
+                siftUp(heapIdx, heapScore, heapSize++);
+            } else if (score > heapScore[0]) {
+                heapIdx[0] = i;
+                heapScore[0] = score;
+                siftDown(heapIdx, heapScore, heapSize);
+            }
+        }
+
+        // Vaciar el heap (mínimo primero) y devolver de mayor a menor
+        JobOfferResponse[] ranked = new JobOfferResponse[heapSize];
+        for (int pos = heapSize - 1; pos >= 0; pos--) {
+            ranked[pos] = m.offers.get(heapIdx[0]);
+            heapIdx[0] = heapIdx[pos];
+            heapScore[0] = heapScore[pos];
+            siftDown(heapIdx, heapScore, pos);
+        }
+        return List.of(ranked);
+    }
+
+    private FeatureMatrix matrixFor(List<JobOfferResponse> offers) {
+        FeatureMatrix m = matrix;
+        if (m != null && m.offers == offers) {
+            return m;
+        }
+        synchronized (buildLock) {
+            m = matrix;
+            if (m == null || m.offers != offers) {
+                m = new FeatureMatrix(offers, m);
+                matrix = m;
+            }
+            return m;
+        }
+    }
+
+    // Min-heap sobre arrays paralelos
+    private static void siftUp(int[] idx, double[] score, int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (score[parent] <= score[pos]) break;
+            swap(idx, score, parent, pos);
+            pos = parent;
+        }
+    }
+
+    private static void siftDown(int[] idx, double[] score, int size) {
+        int pos = 0;
+        while (true) {
+            int left = 2 * pos + 1;
+            if (left >= size) break;
+            int smallest = left + 1 < size && score[left + 1] < score[left] ? left + 1 : left;
+            if (score[pos] <= score[smallest]) break;
+            swap(idx, score, pos, smallest);
+            pos = smallest;
+        }
+    }
+
+    private static void swap(int[] idx, double[] score, int a, int b) {
+        int i = idx[a];
+        idx[a] = idx[b];
+        idx[b] = i;
+        double s = score[a];
+        score[a] = score[b];
+        score[b] = s;
+    }
+
+    private static byte roleCode(String role) {
+        for (RepRole r : RepRole.values()) {
+            if (r.name().equals(role)) return (byte) r.ordinal();
+        }
+        return ROLE_UNKNOWN;
+    }
+
+    // Palabras sin stemming: los conjuntos de arriba están escritos tal cual ("ingles", no "ingl")
+    static int regionMask(String text) {
+        int mask = 0;
+        for (String token : JobSearchTokenizer.words(text)) {
+            if (ES_TOKENS.contains(token)) mask |= REGION_ES;
+            if (LATAM_TOKENS.contains(token)) mask |= REGION_LATAM;
+            if (USA_TOKENS.contains(token)) mask |= REGION_USA;
+        }
+        return mask;
+    }
+
+    static int languageMask(String text) {
+        int mask = 0;
+        for (String token : JobSearchTokenizer.words(text)) {
+            if (SPANISH_TOKENS.contains(token)) mask |= LANG_ES;
+            if (ENGLISH_TOKENS.contains(token)) mask |= LANG_EN;
+            if (PORTUGUESE_TOKENS.contains(token)) mask |= LANG_PT;
+        }
+        return mask;
+    }
+
+    /**
+     * Características de todas las ofertas de un snapshot, en arrays paralelos.
+     * El snapshot del feed conserva la misma instancia de JobOfferResponse para las ofertas que no cambian,
+     * así que sus filas se copian de la matriz anterior sin volver a tokenizar mercado ni idioma.
+     */
+    private static final class FeatureMatrix {
+        final List<JobOfferResponse> offers;
+        final Map<JobOfferResponse, Integer> positions; // por identidad
+        final int size;
+        final byte[] role;
+        final byte[] regionMask;
+        final byte[] languageMask;
+        final double[] logTicket;
+        final double[] commissionScore;
+        final double[] earningsScore;
+        final double[] fill;
+
+        FeatureMatrix(List<JobOfferResponse> offers, FeatureMatrix previous) {
+            this.offers = offers;
+            this.size = offers.size();
+            this.positions = new IdentityHashMap<>(size);
+            this.role = new byte[size];
+            this.regionMask = new byte[size];
+            this.languageMask = new byte[size];
+            this.logTicket = new double[size];
+            this.commissionScore = new double[size];
+            this.earningsScore = new double[size];
+            this.fill = new double[size];
+
+            for (int i = 0; i < size; i++) {
+                JobOfferResponse o = offers.get(i);
+                positions.put(o, i);
+                Integer j = previous != null ? previous.positions.get(o) : null;
+                if (j != null) {
+                    copyRow(previous, j, i);
+                } else {
+                    computeRow(o, i);
+                }
+            }
+        }
+
+        private void copyRow(FeatureMatrix from, int j, int i) {
+            role[i] = from.role[j];
+            regionMask[i] = from.regionMask[j];
+            languageMask[i] = from.languageMask[j];
+            logTicket[i] = from.logTicket[j];
+            commissionScore[i] = from.commissionScore[j];
+            earningsScore[i] = from.earningsScore[j];
+            fill[i] = from.fill[j];
+        }
+
+        private void computeRow(JobOfferResponse o, int i) {
+            role[i] = roleCode(o.getRole());
+            regionMask[i] = (byte) JobRecommendationEngine.regionMask(o.getMarket());
+            languageMask[i] = (byte) JobRecommendationEngine.languageMask(o.getLanguage());
+
+            Double ticket = o.getAvgTicket();
+            logTicket[i] = ticket != null && ticket > 0 ? Math.log(ticket) : Double.NaN;
+
+            Double commission = o.getCommissionPercent();
+            commissionScore[i] = commission != null ? Math.min(commission / MAX_COMMISSION, 1.0) : 0;
+
+            Double earnings = o.getEstimatedMonthlyEarnings();
+            earningsScore[i] = earnings != null && earnings > 0
+                    ? Math.min(Math.log1p(earnings) / MAX_EARNINGS_LOG, 1.0) : 0;
+
+            Integer max = o.getMaxApplicants();
+            Integer count = o.getApplicantsCount();
+            fill[i] = max != null && max > 0 && count != null ? (double) count / max : 0;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.capitalhub.jobs.service;
+
+import com.capitalhub.jobs.dto.JobOfferResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Índice invertido en memoria sobre las ofertas activas (title, description, crm, market, language).
+ * Ranking BM25, coincidencia por prefijo y tokenización en español.
+ * Las lecturas no bloquean; las escrituras se serializan en writeLock.
+ */
+@Component
+public class JobSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Peso de cada campo (se suma a la frecuencia del término)
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Un término que solo coincide por prefijo puntúa menos que uno exacto
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+
+    private final Object writeLock = new Object();
+    private volatile IndexState state = new IndexState();
+
+    // Cambios recibidos mientras se reconstruye el índice: último cambio por oferta
+    // (valor null = eliminada). null si no hay reconstrucción
+    private Map<Long, JobOfferResponse> pendingChanges;
+
+    /**
+     * Reconstruye el índice desde cero en paralelo y lo publica de forma atómica.
+     * Los cambios que llegan durante la carga se reaplican sobre el índice nuevo.
+     */
+    public void rebuild(Supplier<List<JobOfferResponse>> loader) {
+        synchronized (writeLock) {
+            pendingChanges = new LinkedHashMap<>();
+        }
+
+        IndexState fresh = new IndexState();
+        boolean built = false;
+        try {
+            loader.get().parallelStream()
+                    .map(JobSearchIndex::analyze)
+                    .forEach(fresh::add);
+            built = true;
+        } finally {
+            synchronized (writeLock) {
+                if (built) {
+                    // Solo cuenta el último cambio de cada oferta: un alta seguida de un cierre no la resucita
+                    pendingChanges.forEach((id, offer) -> {
+                        fresh.remove(id);
+                        if (offer != null) fresh.add(analyze(offer));
+                    });
+                    state = fresh;
+                }
+                pendingChanges = null;
+            }
+        }
+    }
+
+    public void upsert(JobOfferResponse offer) {
+        synchronized (writeLock) {
+            if (pendingChanges != null) pendingChanges.put(offer.getId(), offer);
+            state.remove(offer.getId());
+            state.add(analyze(offer));
+        }
+    }
+
+    public void remove(Long offerId) {
+        synchronized (writeLock) {
+            if (pendingChanges != null) pendingChanges.put(offerId, null);
+            state.remove(offerId);
+        }
+    }
+
+    public int size() {
+        return state.docs.size();
+    }
+
+    public List<JobOfferResponse> search(String query, int limit) {
+        IndexState s = state;
+        List<String> tokens = JobSearchTokenizer.tokenize(query, true);
+        if (tokens.isEmpty()) {
+            // La consulta solo tenía stopwords (ej: "ES"): la usamos tal cual
+            tokens = JobSearchTokenizer.tokenize(query, false);
+        }
+        if (tokens.isEmpty() || s.docs.isEmpty()) {
+            return List.of();
+        }
+
+        int docCount = s.docs.size();
+        double avgLength = Math.max(1.0, (double) s.totalLength.get() / docCount);
+        Map<Long, Double> scores = new HashMap<>();
+
+        for (String token : new LinkedHashSet<>(tokens)) {
+            // Mejor puntuación de este token por documento (exacto o por prefijo)
+            Map<Long, Double> tokenScores = new HashMap<>();
+            int expansions = 0;
+            for (Map.Entry<String, ConcurrentHashMap<Long, Integer>> entry : prefixRange(s, token).entrySet()) {
+                if (expansions++ >= MAX_PREFIX_EXPANSIONS) break;
+
+                Map<Long, Integer> posting = entry.getValue();
+                int df = posting.size();
+                if (df == 0) continue;
+
+                double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+                double factor = entry.getKey().equals(token) ? 1.0 : PREFIX_FACTOR;
+
+                for (Map.Entry<Long, Integer> p : posting.entrySet()) {
+                    Doc doc = s.docs.get(p.getKey());
+                    if (doc == null) continue;
+                    int tf = p.getValue();
+                    double norm = tf + K1 * (1 - B + B * doc.length / avgLength);
+                    double score = factor * idf * (tf * (K1 + 1)) / norm;
+                    tokenScores.merge(p.getKey(), score, Math::max);
+                }
+            }
+            tokenScores.forEach((id, score) -> scores.merge(id, score, Double::sum));
+        }
+
+        // Top-K con un heap acotado (el menor arriba)
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            if (heap.size() < limit) {
+                heap.add(e);
+            } else if (e.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(e);
+            }
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(heap);
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+
+        List<JobOfferResponse> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> e : ranked) {
+            Doc doc = s.docs.get(e.getKey());
+            if (doc != null) result.add(doc.offer);
+        }
+        return result;
+    }
+
+    private static NavigableMap<String, ConcurrentHashMap<Long, Integer>> prefixRange(IndexState s, String token) {
+        return s.postings.subMap(token, true, token + Character.MAX_VALUE, false);
+    }
+
+    private static Doc analyze(JobOfferResponse offer) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, JobSearchTokenizer.tokenize(offer.getTitle(), true), TITLE_WEIGHT);
+        addTerms(frequencies, JobSearchTokenizer.tokenize(offer.getDescription(), true), DESCRIPTION_WEIGHT);
+        // En crm/market/language no quitamos stopwords ("ES" es un código de idioma)
+        addTerms(frequencies, JobSearchTokenizer.tokenize(offer.getCrm(), false), TAG_WEIGHT);
+        addTerms(frequencies, JobSearchTokenizer.tokenize(offer.getMarket(), false), TAG_WEIGHT);
+        addTerms(frequencies, JobSearchTokenizer.tokenize(offer.getLanguage(), false), TAG_WEIGHT);
+
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        return new Doc(offer, frequencies, length);
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, List<String> tokens, int weight) {
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private record Doc(JobOfferResponse offer, Map<String, Integer> frequencies, int length) {
+    }
+
+    private static final class IndexState {
+        final ConcurrentSkipListMap<String, ConcurrentHashMap<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+        final ConcurrentHashMap<Long, Doc> docs = new ConcurrentHashMap<>();
+        final AtomicLong totalLength = new AtomicLong();
+
+        void add(Doc doc) {
+            Long id = doc.offer().getId();
+            doc.frequencies().forEach((term, tf) ->
+                    postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, tf));
+            docs.put(id, doc);
+            totalLength.addAndGet(doc.length());
+        }
+
+        void remove(Long id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) return;
+            totalLength.addAndGet(-doc.length());
+            Set<String> terms = doc.frequencies().keySet();
+            for (String term : terms) {
+                postings.computeIfPresent(term, (t, posting) -> {
+                    posting.remove(id);
+                    return posting.isEmpty() ? null : posting;
+                });
+            }
+        }
+    }
+}
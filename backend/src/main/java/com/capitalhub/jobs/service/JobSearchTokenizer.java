@@ -0,0 +1,81 @@
+package com.capitalhub.jobs.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizador para el índice de búsqueda de ofertas.
+ * Minúsculas, sin tildes (ñ -> n), stopwords en español y un stemming ligero de plurales.
+ */
+final class JobSearchTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "algo", "ante", "antes", "como", "con", "contra", "cual", "cuando", "de", "del",
+            "desde", "donde", "durante", "e", "el", "ella", "ellos", "en", "entre", "es", "esa", "ese",
+            "eso", "esta", "estas", "este", "esto", "estos", "hasta", "hay", "la", "las", "le", "les",
+            "lo", "los", "mas", "me", "mi", "muy", "ni", "no", "nos", "o", "otra", "otro", "para",
+            "pero", "por", "que", "quien", "se", "ser", "si", "sin", "sobre", "son", "su", "sus",
+            "tambien", "te", "tu", "un", "una", "uno", "unos", "y", "ya", "yo"
+    );
+
+    private JobSearchTokenizer() {
+    }
+
+    /**
+     * Tokeniza texto libre (título, descripción, consulta).
+     */
+    static List<String> tokenize(String text, boolean removeStopwords) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String raw : SEPARATORS.split(normalize(text))) {
+            if (raw.isEmpty()) continue;
+            if (removeStopwords && STOPWORDS.contains(raw)) continue;
+            tokens.add(stem(raw));
+        }
+        return tokens;
+    }
+
+    /**
+     * Palabras normalizadas, sin stemming ni stopwords: para comparar con listas fijas de términos
+     * ("ingles", "estados") que el stemming dejaría irreconocibles.
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        for (String raw : SEPARATORS.split(normalize(text))) {
+            if (!raw.isEmpty()) words.add(raw);
+        }
+        return words;
+    }
+
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    // Stemming mínimo: "comisiones" -> "comision", "llamadas" -> "llamada"
+    static String stem(String token) {
+        int len = token.length();
+        if (len > 4 && token.endsWith("es")) {
+            char before = token.charAt(len - 3);
+            if (before == 'l' || before == 'r' || before == 'n' || before == 'd' || before == 'z' || before == 'j') {
+                return token.substring(0, len - 2);
+            }
+        }
+        if (len > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, len - 1);
+        }
+        return token;
+    }
+}
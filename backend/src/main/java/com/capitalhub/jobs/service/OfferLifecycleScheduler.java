@@ -0,0 +1,147 @@
+package com.capitalhub.jobs.service;
+
+import com.capitalhub.jobs.entity.JobStatus;
+import com.capitalhub.jobs.event.JobOffersChangedEvent;
+import com.capitalhub.jobs.repository.JobOfferRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cierra automáticamente las ofertas que ya no deberían estar en el feed:
+ * las que alcanzaron maxApplicants y las publicadas hace más de jobs.lifecycle.max-age-days.
+ * Trabaja por lotes de ids con un UPDATE por lote, sin cargar entidades.
+ * La pasada programada es opt-in (jobs.lifecycle.enabled, false por defecto); runNow() la lanza a mano.
+ */
+@Service
+public class OfferLifecycleScheduler {
+
+    private final JobOfferRepository jobOfferRepository;
+    private final JobFeedSnapshotCache feedCache;
+    private final JobSearchIndex jobSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int maxAgeDays;
+    private final int batchSize;
+
+    private final Object runLock = new Object();
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalClosedByCapacity = new AtomicLong();
+    private final AtomicLong totalClosedByAge = new AtomicLong();
+    private final AtomicLong totalRunMs = new AtomicLong();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public OfferLifecycleScheduler(JobOfferRepository jobOfferRepository,
+                                   JobFeedSnapshotCache feedCache,
+                                   JobSearchIndex jobSearchIndex,
+                                   TransactionTemplate transactionTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${jobs.lifecycle.enabled:false}") boolean enabled,
+                                   @Value("${jobs.lifecycle.max-age-days:60}") int maxAgeDays,
+                                   @Value("${jobs.lifecycle.batch-size:500}") int batchSize) {
+        this.jobOfferRepository = jobOfferRepository;
+        this.feedCache = feedCache;
+        this.jobSearchIndex = jobSearchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.maxAgeDays = maxAgeDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${jobs.lifecycle.cron:0 */10 * * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            runNow();
+        }
+    }
+
+    /**
+     * Ejecuta una pasada completa. Las ejecuciones no se solapan.
+     */
+    public Map<String, Object> runNow() {
+        synchronized (runLock) {
+            long start = System.currentTimeMillis();
+
+            int byCapacity = closeInBatches(page -> jobOfferRepository.findFullOfferIds(JobStatus.ACTIVE, page));
+
+            LocalDateTime createdBefore = LocalDateTime.now().minusDays(maxAgeDays);
+            int byAge = maxAgeDays > 0
+                    ? closeInBatches(page -> jobOfferRepository.findExpiredOfferIds(JobStatus.ACTIVE, createdBefore, page))
+                    : 0;
+
+            long elapsed = System.currentTimeMillis() - start;
+            runs.incrementAndGet();
+            totalClosedByCapacity.addAndGet(byCapacity);
+            totalClosedByAge.addAndGet(byAge);
+            totalRunMs.addAndGet(elapsed);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("at", LocalDateTime.now());
+            result.put("closedByCapacity", byCapacity);
+            result.put("closedByAge", byAge);
+            result.put("durationMs", elapsed);
+            lastRun = result;
+
+            if (byCapacity + byAge > 0) {
+                System.out.println("⏱️ Ciclo de vida de ofertas: " + byCapacity + " cerradas por cupo, "
+                        + byAge + " por antigüedad en " + elapsed + " ms");
+            }
+            return result;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxAgeDays", maxAgeDays);
+        stats.put("batchSize", batchSize);
+        stats.put("runs", runs.get());
+        stats.put("totalClosedByCapacity", totalClosedByCapacity.get());
+        stats.put("totalClosedByAge", totalClosedByAge.get());
+        stats.put("totalRunMs", totalRunMs.get());
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    // Cada lote (SELECT de ids + UPDATE) va en su propia transacción; las cerradas salen del
+    // conjunto activo, así que siempre se pide la primera página hasta que no quede ninguna.
+    private int closeInBatches(Function<PageRequest, List<Long>> finder) {
+        List<Long> closedIds = new ArrayList<>();
+        int[] closed = {0};
+        while (true) {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> batch = finder.apply(PageRequest.of(0, batchSize));
+                if (!batch.isEmpty()) {
+                    closed[0] += jobOfferRepository.closeByIds(batch, JobStatus.CLOSED);
+                    jobOfferRepository.findCompanyIdsByIds(batch)
+                            .forEach(companyId -> eventPublisher.publishEvent(new JobOffersChangedEvent(companyId)));
+                }
+                return batch;
+            });
+            if (ids == null || ids.isEmpty()) break;
+
+            closedIds.addAll(ids);
+            if (ids.size() < batchSize) break;
+        }
+
+        if (!closedIds.isEmpty()) {
+            feedCache.removeAll(closedIds);
+            closedIds.forEach(jobSearchIndex::remove);
+        }
+        return closed[0];
+    }
+}
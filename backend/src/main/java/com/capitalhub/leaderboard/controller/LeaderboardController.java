@@ -0,0 +1,44 @@
+package com.capitalhub.leaderboard.controller;
+
+import com.capitalhub.leaderboard.dto.LeaderboardPage;
+import com.capitalhub.leaderboard.service.RepLeaderboard;
+import com.capitalhub.rep.entity.RepRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final RepLeaderboard repLeaderboard;
+
+    // 1. EMPRESA: Ranking de reps (servido desde memoria)
+    // GET /api/company/leaderboard?metric=revenue&role=CLOSER&country=España&page=0&size=20
+    @PreAuthorize("hasAuthority('COMPANY')")
+    @GetMapping("/company/leaderboard")
+    public LeaderboardPage leaderboard(@RequestParam(required = false) String metric,
+                                       @RequestParam(required = false) RepRole role,
+                                       @RequestParam(required = false) String country,
+                                       @RequestParam(required = false) Integer page,
+                                       @RequestParam(required = false) Integer size) {
+        return repLeaderboard.page(metric, role, country, page, size);
+    }
+
+    // 2. ADMIN: Estado del ranking en memoria
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/leaderboard")
+    public Map<String, Object> stats() {
+        return repLeaderboard.stats();
+    }
+
+    // 3. ADMIN: Reconstruir el ranking desde la base de datos
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/admin/leaderboard/rebuild")
+    public Map<String, Object> rebuild() {
+        return repLeaderboard.rebuild();
+    }
+}
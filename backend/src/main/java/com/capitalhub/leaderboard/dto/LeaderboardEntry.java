@@ -0,0 +1,24 @@
+package com.capitalhub.leaderboard.dto;
+
+import com.capitalhub.rep.entity.RepRole;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class LeaderboardEntry {
+
+    private int rank;
+
+    private Long repId;
+    private String fullName;
+    private String avatarUrl;
+    private RepRole roleType;
+    private String country;
+
+    private int reviewCount;
+    private Double avgRating;
+    private double reputationScore;
+    private long totalDeals;
+    private double totalRevenue;
+}
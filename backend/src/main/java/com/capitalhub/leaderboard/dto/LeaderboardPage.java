@@ -0,0 +1,21 @@
+package com.capitalhub.leaderboard.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class LeaderboardPage {
+
+    private String metric;   // revenue, deals o rating
+    private String role;     // null = todos los roles
+    private String country;  // null = todos los países
+
+    private List<LeaderboardEntry> items;
+
+    private int page;
+    private int size;
+    private long totalElements;
+}
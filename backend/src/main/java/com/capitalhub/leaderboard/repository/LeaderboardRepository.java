@@ -0,0 +1,74 @@
+package com.capitalhub.leaderboard.repository;
+
+import com.capitalhub.rep.entity.RepRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lectura JDBC de la reputación agregada de los reps (columnas de rep_profiles mantenidas por ReviewService).
+ * Solo se usa para reconstruir el ranking y para refrescar un rep tras un cambio.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeaderboardRepository {
+
+    private static final String SELECT = """
+            SELECT p.id, p.role_type, p.country, p.avatar_url, COALESCE(p.active, TRUE) AS active,
+                   p.review_count, p.rating_sum, p.reputation_score, p.total_deals, p.total_revenue,
+                   u.id AS user_id, u.first_name, u.last_name
+            FROM rep_profiles p
+            LEFT JOIN users u ON u.id = p.user_id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record RepStanding(long repId, String fullName, String avatarUrl, RepRole role, String country,
+                              boolean active, int reviewCount, long ratingSum, double reputationScore,
+                              long totalDeals, double totalRevenue) {
+
+        // Solo entran en el ranking los reps activos con alguna review visible
+        public boolean ranked() {
+            return active && reviewCount > 0;
+        }
+
+        public Double avgRating() {
+            return reviewCount > 0 ? (double) ratingSum / reviewCount : null;
+        }
+    }
+
+    private static final RowMapper<RepStanding> MAPPER = (rs, i) -> {
+        String role = rs.getString("role_type");
+        // Mismo criterio que RepProfile.getFullName()
+        String fullName = rs.getObject("user_id") != null
+                ? rs.getString("first_name") + " " + rs.getString("last_name")
+                : "Usuario Desconocido";
+        return new RepStanding(
+                rs.getLong("id"),
+                fullName,
+                rs.getString("avatar_url"),
+                role != null ? RepRole.valueOf(role) : null,
+                rs.getString("country"),
+                rs.getBoolean("active"),
+                rs.getInt("review_count"),
+                rs.getLong("rating_sum"),
+                rs.getDouble("reputation_score"),
+                rs.getLong("total_deals"),
+                rs.getDouble("total_revenue"));
+    };
+
+    public List<RepStanding> findRanked() {
+        return jdbc.query(SELECT + " WHERE p.review_count > 0 AND COALESCE(p.active, TRUE) = TRUE", MAPPER);
+    }
+
+    public Optional<RepStanding> findByRepId(Long repId) {
+        return jdbc.query(SELECT + " WHERE p.id = :repId", Map.of("repId", repId), MAPPER)
+                .stream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,312 @@
+package com.capitalhub.leaderboard.service;
+
+import com.capitalhub.leaderboard.dto.LeaderboardEntry;
+import com.capitalhub.leaderboard.dto.LeaderboardPage;
+import com.capitalhub.leaderboard.repository.LeaderboardRepository;
+import com.capitalhub.leaderboard.repository.LeaderboardRepository.RepStanding;
+import com.capitalhub.rep.entity.RepRole;
+import com.capitalhub.rep.event.RepStandingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Ranking de reps en memoria por facturación generada, cierres y reputación.
+ * Cada combinación métrica x rol x país (más los totales "todos") es un skip list ordenado por puntuación,
+ * así que actualizar un rep cuesta O(log n) por tabla y leer una página no toca MySQL.
+ * Se reconstruye desde rep_profiles al arrancar y se refresca por rep tras cada commit que le afecta.
+ */
+@Service
+@RequiredArgsConstructor
+public class RepLeaderboard {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int LOCK_STRIPES = 64;
+
+    public enum Metric {
+        REVENUE(RepStanding::totalRevenue),
+        DEALS(s -> s.totalDeals()),
+        RATING(RepStanding::reputationScore); // media bayesiana: pocas reviews no bastan para liderar
+
+        private final ToDoubleFunction<RepStanding> score;
+
+        Metric(ToDoubleFunction<RepStanding> score) {
+            this.score = score;
+        }
+
+        public static Metric parse(String value) {
+            if (!StringUtils.hasText(value)) return REVENUE;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Métrica no soportada: " + value + ". Usa revenue, deals o rating");
+            }
+        }
+    }
+
+    // role / country null = tabla de todos
+    private record BoardKey(Metric metric, RepRole role, String country) {
+    }
+
+    // Mayor puntuación primero; a igualdad, el id desempata para que el orden sea estable
+    private record Ranked(double score, long repId) {
+    }
+
+    private static final Comparator<Ranked> ORDER = Comparator
+            .comparingDouble(Ranked::score).reversed()
+            .thenComparingLong(Ranked::repId);
+
+    private static final class Board {
+        final ConcurrentSkipListSet<Ranked> entries = new ConcurrentSkipListSet<>(ORDER);
+        final AtomicInteger size = new AtomicInteger(); // size() del skip list es O(n)
+
+        void add(Ranked r) {
+            if (entries.add(r)) size.incrementAndGet();
+        }
+
+        void remove(Ranked r) {
+            if (entries.remove(r)) size.decrementAndGet();
+        }
+    }
+
+    private final LeaderboardRepository leaderboardRepository;
+
+    private volatile Map<BoardKey, Board> boards = new ConcurrentHashMap<>();
+    private volatile Map<Long, RepStanding> standings = new ConcurrentHashMap<>();
+
+    // Un rep se refresca leyendo su fila y recolocándolo; con el lock de su franja
+    // dos commits seguidos del mismo rep no se pisan con una lectura antigua.
+    // ReentrantLock y no synchronized: se hace I/O dentro y no fija el hilo si quien llama es un hilo virtual.
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Reps que cambiaron mientras se reconstruía: se refrescan al terminar
+    private final Set<Long> pendingDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private volatile boolean loaded;
+
+    private final AtomicLong updatesApplied = new AtomicLong();
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile long lastRebuildMs;
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<String, Object> result = rebuild();
+        System.out.println("🏆 Ranking de reps cargado: " + result.get("reps") + " reps ("
+                + result.get("durationMs") + " ms)");
+    }
+
+    /**
+     * Reconstruye todas las tablas desde rep_profiles y las sustituye de golpe.
+     */
+    public Map<String, Object> rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            rebuilding = true;
+
+            Map<BoardKey, Board> newBoards = new ConcurrentHashMap<>();
+            Map<Long, RepStanding> newStandings = new ConcurrentHashMap<>();
+            for (RepStanding s : leaderboardRepository.findRanked()) {
+                newStandings.put(s.repId(), s);
+                index(newBoards, s, true);
+            }
+            boards = newBoards;
+            standings = newStandings;
+            rebuilding = false;
+            loaded = true;
+            drainPending();
+
+            lastRebuildAt = LocalDateTime.now();
+            lastRebuildMs = System.currentTimeMillis() - start;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("reps", newStandings.size());
+            result.put("boards", newBoards.size());
+            result.put("durationMs", lastRebuildMs);
+            return result;
+        } finally {
+            rebuilding = false;
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStandingChanged(RepStandingChangedEvent event) {
+        if (event.repId() == null) return;
+        if (rebuilding) {
+            pendingDuringRebuild.add(event.repId());
+            // Si la reconstrucción terminó entre medias, la cola ya se vació: refrescamos aquí
+            if (rebuilding) return;
+        }
+        refresh(event.repId());
+        drainPending();
+    }
+
+    /**
+     * Página del ranking. role y country opcionales (sin ellos, ranking global).
+     * Recorrer hasta la página pedida es O(offset); las páginas habituales son las primeras.
+     */
+    public LeaderboardPage page(String metricName, RepRole role, String country, Integer page, Integer size) {
+        Metric metric = Metric.parse(metricName);
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String countryKey = countryKey(country);
+
+        Board board = boards.get(new BoardKey(metric, role, countryKey));
+        Map<Long, RepStanding> current = standings;
+
+        List<LeaderboardEntry> items = new ArrayList<>(pageSize);
+        long total = 0;
+        if (board != null) {
+            total = board.size.get();
+            long offset = (long) pageNumber * pageSize;
+            Iterator<Ranked> it = board.entries.iterator();
+            long position = 0;
+            while (it.hasNext() && items.size() < pageSize) {
+                Ranked r = it.next();
+                if (position++ < offset) continue;
+                RepStanding s = current.get(r.repId());
+                if (s != null) {
+                    items.add(toEntry((int) position, s));
+                }
+            }
+        }
+
+        return LeaderboardPage.builder()
+                .metric(metric.name().toLowerCase(Locale.ROOT))
+                .role(role != null ? role.name() : null)
+                .country(StringUtils.hasText(country) ? country.trim() : null)
+                .items(items)
+                .page(pageNumber)
+                .size(pageSize)
+                .totalElements(total)
+                .build();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", loaded);
+        stats.put("reps", standings.size());
+        stats.put("boards", boards.size());
+        stats.put("updatesApplied", updatesApplied.get());
+        stats.put("pendingDuringRebuild", pendingDuringRebuild.size());
+        stats.put("lastRebuildAt", lastRebuildAt);
+        stats.put("lastRebuildMs", lastRebuildMs);
+        return stats;
+    }
+
+    // ===== Actualización incremental =====
+
+    private void refresh(Long repId) {
+        ReentrantLock lock = locks[Math.floorMod(Long.hashCode(repId), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            RepStanding fresh = leaderboardRepository.findByRepId(repId)
+                    .filter(RepStanding::ranked)
+                    .orElse(null);
+
+            Map<BoardKey, Board> currentBoards = boards;
+            Map<Long, RepStanding> currentStandings = standings;
+            // Primero se quita la posición anterior: con la misma puntuación, añadir antes no haría nada
+            RepStanding previous = fresh != null ? currentStandings.put(repId, fresh) : currentStandings.remove(repId);
+            if (previous != null) {
+                index(currentBoards, previous, false);
+            }
+            if (fresh != null) {
+                index(currentBoards, fresh, true);
+            }
+            updatesApplied.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drainPending() {
+        if (rebuilding || pendingDuringRebuild.isEmpty()) return;
+        for (Long repId : List.copyOf(pendingDuringRebuild)) {
+            if (pendingDuringRebuild.remove(repId)) {
+                refresh(repId);
+            }
+        }
+    }
+
+    // Coloca (o quita) al rep en las tablas de cada métrica: todos, su rol, su país y rol + país
+    private static void index(Map<BoardKey, Board> boards, RepStanding s, boolean add) {
+        String country = countryKey(s.country());
+        for (Metric metric : Metric.values()) {
+            Ranked ranked = new Ranked(metric.score.applyAsDouble(s), s.repId());
+            apply(boards, new BoardKey(metric, null, null), ranked, add);
+            if (s.role() != null) {
+                apply(boards, new BoardKey(metric, s.role(), null), ranked, add);
+            }
+            if (country != null) {
+                apply(boards, new BoardKey(metric, null, country), ranked, add);
+            }
+            if (s.role() != null && country != null) {
+                apply(boards, new BoardKey(metric, s.role(), country), ranked, add);
+            }
+        }
+    }
+
+    private static void apply(Map<BoardKey, Board> boards, BoardKey key, Ranked ranked, boolean add) {
+        if (add) {
+            boards.computeIfAbsent(key, k -> new Board()).add(ranked);
+        } else {
+            Board board = boards.get(key);
+            if (board != null) board.remove(ranked);
+        }
+    }
+
+    // El país es texto libre: "España", "espana" y " ESPAÑA " van a la misma tabla
+    private static String countryKey(String country) {
+        if (!StringUtils.hasText(country)) return null;
+        String normalized = Normalizer.normalize(country.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return normalized.toLowerCase(Locale.ROOT);
+    }
+
+    private static LeaderboardEntry toEntry(int rank, RepStanding s) {
+        return LeaderboardEntry.builder()
+                .rank(rank)
+                .repId(s.repId())
+                .fullName(s.fullName())
+                .avatarUrl(s.avatarUrl())
+                .roleType(s.role())
+                .country(s.country())
+                .reviewCount(s.reviewCount())
+                .avgRating(s.avgRating())
+                .reputationScore(s.reputationScore())
+                .totalDeals(s.totalDeals())
+                .totalRevenue(s.totalRevenue())
+                .build();
+    }
+}
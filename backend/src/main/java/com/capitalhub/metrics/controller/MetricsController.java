@@ -0,0 +1,46 @@
+package com.capitalhub.metrics.controller;
+
+import com.capitalhub.metrics.dto.MetricSeriesResponse;
+import com.capitalhub.metrics.service.TimeSeriesStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final TimeSeriesStore timeSeriesStore;
+
+    // 1. ADMIN: Serie temporal de una métrica (p.ej. applications.submitted por oferta y día)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/series")
+    public MetricSeriesResponse series(@RequestParam String metric,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                       @RequestParam(required = false) String interval,
+                                       @RequestParam(required = false) String groupBy,
+                                       @RequestParam(required = false) String group,
+                                       @RequestParam(required = false) Integer limit) {
+        return timeSeriesStore.query(metric, from, to, interval, groupBy, group, limit);
+    }
+
+    // 2. ADMIN: Métricas disponibles y estado del volcado/compactación
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping
+    public Map<String, Object> stats() {
+        return timeSeriesStore.stats();
+    }
+
+    // 3. ADMIN: Compactar ahora
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/compact")
+    public Map<String, Object> compact() {
+        return timeSeriesStore.compact();
+    }
+}
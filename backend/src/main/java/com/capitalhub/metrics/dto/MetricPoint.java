@@ -0,0 +1,14 @@
+package com.capitalhub.metrics.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class MetricPoint {
+
+    private LocalDateTime bucket;   // inicio del intervalo
+    private long value;
+}
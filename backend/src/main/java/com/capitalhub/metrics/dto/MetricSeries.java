@@ -0,0 +1,15 @@
+package com.capitalhub.metrics.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class MetricSeries {
+
+    private String group;            // valor del desglose ("" si groupBy=all)
+    private long total;              // suma de la serie en el rango
+    private List<MetricPoint> points; // solo intervalos con valor
+}
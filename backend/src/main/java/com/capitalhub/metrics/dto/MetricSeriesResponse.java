@@ -0,0 +1,20 @@
+package com.capitalhub.metrics.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class MetricSeriesResponse {
+
+    private String metric;
+    private String interval;        // MINUTE, HOUR, DAY, WEEK, MONTH
+    private String groupBy;         // all, offer, company, market, role
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long totalSeries;       // series encontradas antes de aplicar el límite
+    private List<MetricSeries> series;
+}
@@ -0,0 +1,129 @@
+package com.capitalhub.metrics.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso JDBC a metric_buckets. Los contadores nuevos entran como buckets de minuto;
+ * la compactación recalcula horas desde minutos y días desde horas, y borra el detalle antiguo.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MetricBucketRepository {
+
+    public static final String MINUTE = "MINUTE";
+    public static final String HOUR = "HOUR";
+    public static final String DAY = "DAY";
+
+    private static final String ADD_SQL = """
+            INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+            VALUES (:metric, 'MINUTE', :groupKey, :bucketStart, :groupValue, :delta)
+            ON DUPLICATE KEY UPDATE total = total + VALUES(total)
+            """;
+
+    // Recalcula (no suma) los buckets destino: se puede repetir sobre la misma ventana
+    private static final String ROLLUP_SQL = """
+            INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+            SELECT metric, :target, group_key, %s AS target_start, group_value, SUM(total)
+            FROM metric_buckets
+            WHERE resolution = :source AND bucket_start >= :from AND bucket_start < :to
+            GROUP BY metric, group_key, target_start, group_value
+            ON DUPLICATE KEY UPDATE total = VALUES(total)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record BucketKey(String metric, String groupKey, String groupValue, LocalDateTime bucketStart) {
+    }
+
+    public record BucketRow(String groupValue, LocalDateTime bucketStart, long value) {
+    }
+
+    // Mismo orden de escritura en todos los flush para no cruzar bloqueos
+    private static final Comparator<BucketKey> LOCK_ORDER = Comparator
+            .comparing(BucketKey::metric)
+            .thenComparing(BucketKey::groupKey)
+            .thenComparing(BucketKey::bucketStart)
+            .thenComparing(BucketKey::groupValue);
+
+    // Suma los incrementos a los buckets de minuto en un solo batch
+    public void addMinuteDeltas(Map<BucketKey, Long> deltas) {
+        MapSqlParameterSource[] params = deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(LOCK_ORDER))
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("metric", e.getKey().metric())
+                        .addValue("groupKey", e.getKey().groupKey())
+                        .addValue("bucketStart", Timestamp.valueOf(e.getKey().bucketStart()))
+                        .addValue("groupValue", e.getKey().groupValue())
+                        .addValue("delta", e.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+        if (params.length > 0) {
+            jdbc.batchUpdate(ADD_SQL, params);
+        }
+    }
+
+    public int rollUpMinutesToHours(LocalDateTime from, LocalDateTime to) {
+        return rollUp(MINUTE, HOUR, "DATE_FORMAT(bucket_start, '%Y-%m-%d %H:00:00')", from, to);
+    }
+
+    public int rollUpHoursToDays(LocalDateTime from, LocalDateTime to) {
+        return rollUp(HOUR, DAY, "CAST(DATE(bucket_start) AS DATETIME)", from, to);
+    }
+
+    public int deleteOlderThan(String resolution, LocalDateTime before) {
+        return jdbc.update("DELETE FROM metric_buckets WHERE resolution = :resolution AND bucket_start < :before",
+                new MapSqlParameterSource()
+                        .addValue("resolution", resolution)
+                        .addValue("before", Timestamp.valueOf(before)));
+    }
+
+    /**
+     * Buckets de una métrica y desglose en [from, to). Recorre solo el rango pedido del índice primario.
+     */
+    public List<BucketRow> findBuckets(String metric, String resolution, String groupKey, String groupValue,
+                                       LocalDateTime from, LocalDateTime to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("metric", metric)
+                .addValue("resolution", resolution)
+                .addValue("groupKey", groupKey)
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to));
+        String sql = """
+                SELECT group_value, bucket_start, total FROM metric_buckets
+                WHERE metric = :metric AND resolution = :resolution AND group_key = :groupKey
+                  AND bucket_start >= :from AND bucket_start < :to
+                """;
+        if (groupValue != null) {
+            sql += " AND group_value = :groupValue";
+            params.addValue("groupValue", groupValue);
+        }
+        return jdbc.query(sql + " ORDER BY group_value, bucket_start", params,
+                (rs, i) -> new BucketRow(
+                        rs.getString("group_value"),
+                        rs.getTimestamp("bucket_start").toLocalDateTime(),
+                        rs.getLong("total")));
+    }
+
+    public List<String> findMetricNames() {
+        return jdbc.getJdbcTemplate().queryForList(
+                "SELECT DISTINCT metric FROM metric_buckets WHERE resolution = 'DAY' ORDER BY metric", String.class);
+    }
+
+    private int rollUp(String source, String target, String truncate, LocalDateTime from, LocalDateTime to) {
+        return jdbc.update(ROLLUP_SQL.formatted(truncate),
+                new MapSqlParameterSource()
+                        .addValue("source", source)
+                        .addValue("target", target)
+                        .addValue("from", Timestamp.valueOf(from))
+                        .addValue("to", Timestamp.valueOf(to)));
+    }
+}
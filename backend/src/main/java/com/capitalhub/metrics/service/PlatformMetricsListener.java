@@ -0,0 +1,49 @@
+package com.capitalhub.metrics.service;
+
+import com.capitalhub.applications.event.ApplicationStatusChangedEvent;
+import com.capitalhub.applications.event.ApplicationSubmittedEvent;
+import com.capitalhub.jobs.event.JobOfferCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Alimenta las series temporales con las escrituras de ofertas y aplicaciones, tras el commit.
+ * Métricas: offers.created, applications.submitted y applications.&lt;estado&gt; (interview, hired, ...).
+ */
+@Component
+@RequiredArgsConstructor
+public class PlatformMetricsListener {
+
+    private final TimeSeriesStore timeSeriesStore;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOfferCreated(JobOfferCreatedEvent event) {
+        Map<String, String> groups = new HashMap<>();
+        groups.put("company", String.valueOf(event.companyId()));
+        groups.put("market", event.market());
+        groups.put("role", event.role() != null ? event.role().name() : null);
+        timeSeriesStore.record("offers.created", event.createdAt(), groups);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onApplicationSubmitted(ApplicationSubmittedEvent event) {
+        timeSeriesStore.record("applications.submitted", event.submittedAt(),
+                applicationGroups(event.jobOfferId(), event.companyId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onApplicationStatusChanged(ApplicationStatusChangedEvent event) {
+        timeSeriesStore.record("applications." + event.status().name().toLowerCase(Locale.ROOT), event.changedAt(),
+                applicationGroups(event.jobOfferId(), event.companyId()));
+    }
+
+    private static Map<String, String> applicationGroups(Long offerId, Long companyId) {
+        return Map.of("offer", String.valueOf(offerId), "company", String.valueOf(companyId));
+    }
+}
@@ -0,0 +1,308 @@
+package com.capitalhub.metrics.service;
+
+import com.capitalhub.metrics.dto.MetricPoint;
+import com.capitalhub.metrics.dto.MetricSeries;
+import com.capitalhub.metrics.dto.MetricSeriesResponse;
+import com.capitalhub.metrics.repository.MetricBucketRepository;
+import com.capitalhub.metrics.repository.MetricBucketRepository.BucketKey;
+import com.capitalhub.metrics.repository.MetricBucketRepository.BucketRow;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Series temporales pre-agregadas de la plataforma (ofertas y aplicaciones).
+ * Los incrementos se acumulan en memoria por minuto y se vuelcan en batch cada pocos segundos;
+ * la compactación recalcula las horas recientes desde los minutos y los días desde las horas,
+ * y borra el detalle fino que ya no se consulta. Una consulta lee como mucho un bucket por intervalo
+ * y serie, así que su coste no crece con el histórico.
+ */
+@Service
+public class TimeSeriesStore {
+
+    public static final String ALL = "all";
+    public static final Set<String> GROUP_KEYS = Set.of(ALL, "offer", "company", "market", "role");
+
+    private static final int MAX_POINTS = 2000;
+    private static final int DEFAULT_SERIES_LIMIT = 20;
+    private static final int MAX_GROUP_VALUE_LENGTH = 100;
+
+    // Ventanas que se recalculan en cada compactación (cubren escrituras que lleguen con retraso)
+    private static final int ROLLUP_WINDOW_HOURS = 3;
+    private static final int ROLLUP_WINDOW_DAYS = 2;
+
+    private final MetricBucketRepository bucketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int minuteRetentionHours;
+    private final int hourRetentionDays;
+
+    // record() toma el lock de lectura; flush() el de escritura solo para cambiar el mapa
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Map<BucketKey, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+    private final Object compactLock = new Object();
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private final AtomicLong rowsFlushed = new AtomicLong();
+    private final AtomicLong lastFlushMs = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private volatile Map<String, Object> lastCompaction = Map.of();
+
+    public TimeSeriesStore(MetricBucketRepository bucketRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${metrics.retention.minute-hours:48}") int minuteRetentionHours,
+                           @Value("${metrics.retention.hour-days:90}") int hourRetentionDays) {
+        // Los minutos y horas deben seguir ahí mientras se recalculan las ventanas de compactación
+        if (minuteRetentionHours <= ROLLUP_WINDOW_HOURS || hourRetentionDays <= ROLLUP_WINDOW_DAYS) {
+            throw new IllegalStateException("La retención de métricas debe superar la ventana de compactación ("
+                    + ROLLUP_WINDOW_HOURS + " h de minutos, " + ROLLUP_WINDOW_DAYS + " días de horas)");
+        }
+        this.bucketRepository = bucketRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.minuteRetentionHours = minuteRetentionHours;
+        this.hourRetentionDays = hourRetentionDays;
+    }
+
+    /**
+     * Suma 1 a la métrica en el minuto de "at": en el total (groupBy=all) y en cada desglose indicado.
+     */
+    public void record(String metric, LocalDateTime at, Map<String, String> groups) {
+        LocalDateTime minute = (at != null ? at : LocalDateTime.now()).truncatedTo(ChronoUnit.MINUTES);
+        swapLock.readLock().lock();
+        try {
+            add(new BucketKey(metric, ALL, "", minute));
+            groups.forEach((key, value) -> {
+                if (value != null && !value.isBlank()) {
+                    String v = value.length() > MAX_GROUP_VALUE_LENGTH ? value.substring(0, MAX_GROUP_VALUE_LENGTH) : value;
+                    add(new BucketKey(metric, key, v, minute));
+                }
+            });
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        recorded.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.flush-ms:10000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<BucketKey, LongAdder> batch;
+            swapLock.writeLock().lock();
+            try {
+                if (pending.isEmpty()) return;
+                batch = pending;
+                pending = new ConcurrentHashMap<>();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            long start = System.currentTimeMillis();
+            Map<BucketKey, Long> deltas = new HashMap<>(batch.size() * 2);
+            batch.forEach((key, adder) -> deltas.put(key, adder.sum()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> bucketRepository.addMinuteDeltas(deltas));
+                rowsFlushed.addAndGet(deltas.size());
+                flushes.incrementAndGet();
+            } catch (RuntimeException e) {
+                // Se devuelven a memoria para el siguiente flush (la transacción no dejó nada escrito)
+                flushFailures.incrementAndGet();
+                swapLock.readLock().lock();
+                try {
+                    deltas.forEach((key, value) -> pending.computeIfAbsent(key, k -> new LongAdder()).add(value));
+                } finally {
+                    swapLock.readLock().unlock();
+                }
+                System.out.println("❌ [METRICS] Error volcando " + deltas.size() + " buckets: " + e.getMessage());
+            }
+            lastFlushMs.set(System.currentTimeMillis() - start);
+        }
+    }
+
+    @Scheduled(cron = "${metrics.compaction-cron:0 */5 * * * *}")
+    public void scheduledCompaction() {
+        compact();
+    }
+
+    /**
+     * Recalcula las horas y días recientes y aplica la retención de minutos y horas.
+     */
+    public Map<String, Object> compact() {
+        synchronized (compactLock) {
+            flush();
+            long start = System.currentTimeMillis();
+            LocalDateTime now = LocalDateTime.now();
+
+            LocalDateTime currentHour = now.truncatedTo(ChronoUnit.HOURS);
+            int hours = bucketRepository.rollUpMinutesToHours(
+                    currentHour.minusHours(ROLLUP_WINDOW_HOURS), currentHour.plusHours(1));
+
+            LocalDateTime today = now.truncatedTo(ChronoUnit.DAYS);
+            int days = bucketRepository.rollUpHoursToDays(today.minusDays(ROLLUP_WINDOW_DAYS), today.plusDays(1));
+
+            int minutesDeleted = bucketRepository.deleteOlderThan(MetricBucketRepository.MINUTE,
+                    currentHour.minusHours(minuteRetentionHours));
+            int hoursDeleted = bucketRepository.deleteOlderThan(MetricBucketRepository.HOUR,
+                    today.minusDays(hourRetentionDays));
+
+            long elapsed = System.currentTimeMillis() - start;
+            compactions.incrementAndGet();
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("at", now);
+            result.put("hourRowsWritten", hours);
+            result.put("dayRowsWritten", days);
+            result.put("minuteRowsDeleted", minutesDeleted);
+            result.put("hourRowsDeleted", hoursDeleted);
+            result.put("durationMs", elapsed);
+            lastCompaction = result;
+            return result;
+        }
+    }
+
+    /**
+     * Serie de una métrica en [from, to). interval: MINUTE, HOUR, DAY, WEEK o MONTH (si no viene, según el rango).
+     * groupBy: all, offer, company, market o role; group filtra un valor concreto del desglose.
+     * Con desglose se devuelven las "limit" series de mayor total.
+     */
+    public MetricSeriesResponse query(String metric, LocalDateTime from, LocalDateTime to, String interval,
+                                      String groupBy, String group, Integer limit) {
+        if (metric == null || metric.isBlank()) {
+            throw new IllegalArgumentException("El parámetro metric es obligatorio");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime begin = from != null ? from : end.minusDays(7);
+        if (!begin.isBefore(end)) {
+            throw new IllegalArgumentException("El rango no es válido: from debe ser anterior a to");
+        }
+
+        String groupKey = groupBy == null || groupBy.isBlank() ? ALL : groupBy.toLowerCase(Locale.ROOT);
+        if (!GROUP_KEYS.contains(groupKey)) {
+            throw new IllegalArgumentException("groupBy no soportado: " + groupBy + ". Usa " + String.join(", ", GROUP_KEYS));
+        }
+
+        Duration range = Duration.between(begin, end);
+        String step = interval == null || interval.isBlank() ? autoInterval(range) : interval.toUpperCase(Locale.ROOT);
+        Duration stepLength = switch (step) {
+            case "MINUTE" -> Duration.ofMinutes(1);
+            case "HOUR" -> Duration.ofHours(1);
+            case "DAY" -> Duration.ofDays(1);
+            case "WEEK" -> Duration.ofDays(7);
+            case "MONTH" -> Duration.ofDays(28);
+            default -> throw new IllegalArgumentException("Intervalo no soportado: " + interval
+                    + ". Usa MINUTE, HOUR, DAY, WEEK o MONTH");
+        };
+        if (range.dividedBy(stepLength) > MAX_POINTS) {
+            throw new IllegalArgumentException("Demasiados puntos para el rango pedido (máximo " + MAX_POINTS
+                    + "). Usa un intervalo mayor");
+        }
+
+        String resolution = switch (step) {
+            case "MINUTE" -> MetricBucketRepository.MINUTE;
+            case "HOUR" -> MetricBucketRepository.HOUR;
+            default -> MetricBucketRepository.DAY;
+        };
+        // Los buckets se piden alineados al intervalo guardado para no cortar el primero
+        LocalDateTime alignedFrom = switch (resolution) {
+            case MetricBucketRepository.MINUTE -> begin.truncatedTo(ChronoUnit.MINUTES);
+            case MetricBucketRepository.HOUR -> begin.truncatedTo(ChronoUnit.HOURS);
+            default -> begin.truncatedTo(ChronoUnit.DAYS);
+        };
+        List<BucketRow> rows = bucketRepository.findBuckets(metric, resolution, groupKey, group, alignedFrom, end);
+
+        // group_value -> (inicio del intervalo -> valor)
+        Map<String, TreeMap<LocalDateTime, Long>> byGroup = new LinkedHashMap<>();
+        for (BucketRow row : rows) {
+            byGroup.computeIfAbsent(row.groupValue(), g -> new TreeMap<>())
+                    .merge(align(row.bucketStart(), step), row.value(), Long::sum);
+        }
+
+        List<MetricSeries> series = new ArrayList<>(byGroup.size());
+        byGroup.forEach((groupValue, points) -> series.add(MetricSeries.builder()
+                .group(groupValue)
+                .total(points.values().stream().mapToLong(Long::longValue).sum())
+                .points(points.entrySet().stream()
+                        .map(e -> MetricPoint.builder().bucket(e.getKey()).value(e.getValue()).build())
+                        .toList())
+                .build()));
+        series.sort(Comparator.comparingLong(MetricSeries::getTotal).reversed());
+
+        int maxSeries = limit == null ? DEFAULT_SERIES_LIMIT : Math.max(1, limit);
+        return MetricSeriesResponse.builder()
+                .metric(metric)
+                .interval(step)
+                .groupBy(groupKey)
+                .from(begin)
+                .to(end)
+                .totalSeries(series.size())
+                .series(series.size() > maxSeries ? series.subList(0, maxSeries) : series)
+                .build();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("metrics", bucketRepository.findMetricNames());
+        stats.put("pendingBuckets", pending.size());
+        stats.put("recorded", recorded.get());
+        stats.put("flushes", flushes.get());
+        stats.put("flushFailures", flushFailures.get());
+        stats.put("rowsFlushed", rowsFlushed.get());
+        stats.put("lastFlushMs", lastFlushMs.get());
+        stats.put("minuteRetentionHours", minuteRetentionHours);
+        stats.put("hourRetentionDays", hourRetentionDays);
+        stats.put("compactions", compactions.get());
+        stats.put("lastCompaction", lastCompaction);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.out.println("⚠️ No se pudieron volcar las métricas pendientes al apagar: " + e.getMessage());
+        }
+    }
+
+    // Debe llamarse con el lock de lectura
+    private void add(BucketKey key) {
+        pending.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    private static String autoInterval(Duration range) {
+        if (range.compareTo(Duration.ofHours(6)) <= 0) return "MINUTE";
+        if (range.compareTo(Duration.ofDays(7)) <= 0) return "HOUR";
+        return "DAY";
+    }
+
+    private static LocalDateTime align(LocalDateTime bucket, String step) {
+        return switch (step) {
+            case "WEEK" -> bucket.toLocalDate().with(DayOfWeek.MONDAY).atStartOfDay();
+            case "MONTH" -> bucket.toLocalDate().withDayOfMonth(1).atStartOfDay();
+            default -> bucket;
+        };
+    }
+}
@@ -21,10 +21,18 @@ public class RepProfileResponse {
     private String phone;
     private String city;
     private String country;
+    private String languages;
     
     private String linkedinUrl;
     private String portfolioUrl;
     private String avatarUrl;
     private String introVideoUrl;
     private String bestCallUrl;
+
+    // Reputación (reviews visibles)
+    private Integer reviewCount;
+    private Double avgRating;
+    private Double reputationScore;
+    private Long totalDeals;
+    private Double totalRevenue;
 }
\ No newline at end of file
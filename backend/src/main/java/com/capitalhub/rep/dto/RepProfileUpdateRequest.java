@@ -17,6 +17,7 @@ public class RepProfileUpdateRequest {
     private String phone;
     private String city;
     private String country;
+    private String languages;
     
     private String linkedinUrl;
     private String portfolioUrl;
@@ -31,6 +31,7 @@ public class RepProfile {
     private String phone;
     private String city;
     private String country;
+    private String languages; // Ej: "ES", "ES+EN"
     
     private String linkedinUrl;
     private String portfolioUrl;
@@ -43,6 +44,28 @@ public class RepProfile {
 
     private LocalDateTime createdAt;
 
+    // Reputación de las reviews visibles. Solo la modifica el UPDATE atómico de
+    // RepProfileRepository.applyReviewDelta; JPA nunca la escribe para no pisar incrementos concurrentes
+    @Column(insertable = false, updatable = false)
+    private Integer reviewCount;
+
+    @Column(insertable = false, updatable = false)
+    private Long ratingSum;
+
+    @Column(insertable = false, updatable = false)
+    private Double reputationScore; // media bayesiana (ver ReviewService)
+
+    @Column(insertable = false, updatable = false)
+    private Long totalDeals;
+
+    @Column(insertable = false, updatable = false)
+    private Double totalRevenue;
+
+    // Media simple de las reviews visibles (null si no tiene)
+    public Double getAvgRating() {
+        return reviewCount != null && reviewCount > 0 && ratingSum != null ? (double) ratingSum / reviewCount : null;
+    }
+
     // ✅ MÉTODO CLAVE QUE FALTABA
     public String getFullName() {
         if (user != null) {
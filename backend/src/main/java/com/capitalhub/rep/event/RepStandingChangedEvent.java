@@ -0,0 +1,9 @@
+package com.capitalhub.rep.event;
+
+/**
+ * Cambió algo que el ranking de reps muestra u ordena: reputación (review nueva u ocultada)
+ * o datos públicos del perfil (nombre, rol, país, avatar).
+ * Los listeners lo reciben tras el commit (o al momento si no hay transacción).
+ */
+public record RepStandingChangedEvent(Long repId) {
+}
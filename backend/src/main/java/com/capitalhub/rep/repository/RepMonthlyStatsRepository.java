@@ -0,0 +1,147 @@
+package com.capitalhub.rep.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Acceso JDBC a rep_monthly_stats: una fila por (rep, mes) con los acumulados del mes.
+ * Las escrituras son incrementos (upsert sumando), nunca recálculos.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RepMonthlyStatsRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO rep_monthly_stats
+                (rep_id, month_start, calls_made, deals_closed, generated_revenue, estimated_commission,
+                 reviews_count, applications, interviews, hires)
+            VALUES (:repId, :month, :callsMade, :dealsClosed, :revenue, :commission,
+                    :reviews, :applications, :interviews, :hires)
+            ON DUPLICATE KEY UPDATE
+                calls_made = calls_made + VALUES(calls_made),
+                deals_closed = deals_closed + VALUES(deals_closed),
+                generated_revenue = generated_revenue + VALUES(generated_revenue),
+                estimated_commission = estimated_commission + VALUES(estimated_commission),
+                reviews_count = reviews_count + VALUES(reviews_count),
+                applications = applications + VALUES(applications),
+                interviews = interviews + VALUES(interviews),
+                hires = hires + VALUES(hires)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record RepMonth(Long repId, LocalDate month) {
+    }
+
+    /**
+     * Incrementos de una fila (rep, mes).
+     */
+    public static final class MonthlyDelta {
+        long callsMade;
+        long dealsClosed;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal commission = BigDecimal.ZERO;
+        int reviews;
+        int applications;
+        int interviews;
+        int hires;
+
+        public MonthlyDelta review(long callsMade, long dealsClosed, BigDecimal revenue, BigDecimal commission) {
+            this.callsMade += callsMade;
+            this.dealsClosed += dealsClosed;
+            this.revenue = this.revenue.add(revenue);
+            this.commission = this.commission.add(commission);
+            this.reviews++;
+            return this;
+        }
+
+        public MonthlyDelta application() {
+            applications++;
+            return this;
+        }
+
+        public MonthlyDelta interview() {
+            interviews++;
+            return this;
+        }
+
+        public MonthlyDelta hire() {
+            hires++;
+            return this;
+        }
+    }
+
+    public record MonthlyStats(long callsMade, long dealsClosed, BigDecimal generatedRevenue,
+                               BigDecimal estimatedCommission, int reviews,
+                               int applications, int interviews, int hires) {
+
+        public static final MonthlyStats EMPTY =
+                new MonthlyStats(0, 0, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0, 0, 0);
+    }
+
+    // Mismo orden de escritura en todas las transacciones para no cruzar bloqueos
+    private static final Comparator<RepMonth> LOCK_ORDER = Comparator
+            .comparing(RepMonth::repId)
+            .thenComparing(RepMonth::month);
+
+    public void applyDeltas(Map<RepMonth, MonthlyDelta> deltas) {
+        MapSqlParameterSource[] params = deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(LOCK_ORDER))
+                .map(e -> {
+                    MonthlyDelta d = e.getValue();
+                    return new MapSqlParameterSource()
+                            .addValue("repId", e.getKey().repId())
+                            .addValue("month", e.getKey().month())
+                            .addValue("callsMade", d.callsMade)
+                            .addValue("dealsClosed", d.dealsClosed)
+                            .addValue("revenue", d.revenue)
+                            .addValue("commission", d.commission)
+                            .addValue("reviews", d.reviews)
+                            .addValue("applications", d.applications)
+                            .addValue("interviews", d.interviews)
+                            .addValue("hires", d.hires);
+                })
+                .toArray(MapSqlParameterSource[]::new);
+        if (params.length > 0) {
+            jdbc.batchUpdate(UPSERT_SQL, params);
+        }
+    }
+
+    /**
+     * Fila del mes para el rep del usuario (lectura por clave primaria).
+     * Vacío si el usuario no tiene perfil de REP; ceros si aún no hay actividad ese mes.
+     */
+    public Optional<MonthlyStats> findByUserIdAndMonth(Long userId, LocalDate month) {
+        return jdbc.query("""
+                                SELECT s.calls_made, s.deals_closed, s.generated_revenue, s.estimated_commission,
+                                       s.reviews_count, s.applications, s.interviews, s.hires
+                                FROM rep_profiles r
+                                LEFT JOIN rep_monthly_stats s ON s.rep_id = r.id AND s.month_start = :month
+                                WHERE r.user_id = :userId
+                                """,
+                        new MapSqlParameterSource()
+                                .addValue("userId", userId)
+                                .addValue("month", month),
+                        (rs, i) -> rs.getObject("calls_made") == null
+                                ? MonthlyStats.EMPTY
+                                : new MonthlyStats(
+                                        rs.getLong("calls_made"),
+                                        rs.getLong("deals_closed"),
+                                        rs.getBigDecimal("generated_revenue"),
+                                        rs.getBigDecimal("estimated_commission"),
+                                        rs.getInt("reviews_count"),
+                                        rs.getInt("applications"),
+                                        rs.getInt("interviews"),
+                                        rs.getInt("hires")))
+                .stream()
+                .findFirst();
+    }
+}
@@ -2,12 +2,37 @@ package com.capitalhub.rep.repository;
 
 import com.capitalhub.rep.entity.RepProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface RepProfileRepository extends JpaRepository<RepProfile, Long> {
 
     Optional<RepProfile> findByUserId(Long userId);
 
+    // Suma (o resta, con valores negativos) una review a la reputación en un solo UPDATE.
+    // MySQL evalúa el SET de izquierda a derecha: reputation_score va primero para usar los valores anteriores
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE rep_profiles SET
+                reputation_score = (:priorWeight * :priorMean + rating_sum + :ratingDelta)
+                                   / (:priorWeight + review_count + :countDelta),
+                review_count = review_count + :countDelta,
+                rating_sum = rating_sum + :ratingDelta,
+                total_deals = total_deals + :dealsDelta,
+                total_revenue = total_revenue + :revenueDelta
+            WHERE id = :repId
+            """)
+    int applyReviewDelta(@Param("repId") Long repId,
+                         @Param("countDelta") int countDelta,
+                         @Param("ratingDelta") long ratingDelta,
+                         @Param("dealsDelta") long dealsDelta,
+                         @Param("revenueDelta") double revenueDelta,
+                         @Param("priorMean") double priorMean,
+                         @Param("priorWeight") double priorWeight);
+
     // BORRADO: boolean existsByFullNameIgnoreCase(String fullName);
     // Esto causaba el error al arrancar. Si necesitamos buscar por nombre,
     // lo haremos a través de la entidad User más adelante.
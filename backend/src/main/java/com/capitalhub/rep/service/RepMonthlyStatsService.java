@@ -0,0 +1,111 @@
+package com.capitalhub.rep.service;
+
+import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.applications.repository.ApplicationEventLogRepository.LogEntry;
+import com.capitalhub.jobs.entity.JobOffer;
+import com.capitalhub.rep.repository.RepMonthlyStatsRepository;
+import com.capitalhub.rep.repository.RepMonthlyStatsRepository.MonthlyDelta;
+import com.capitalhub.rep.repository.RepMonthlyStatsRepository.MonthlyStats;
+import com.capitalhub.rep.repository.RepMonthlyStatsRepository.RepMonth;
+import com.capitalhub.reviews.entity.Review;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resúmenes mensuales por REP (rep_monthly_stats) para su dashboard.
+ * Se incrementan en la misma transacción que crea la review o cambia la aplicación,
+ * así que leer el mes es una consulta por clave primaria.
+ */
+@Service
+@RequiredArgsConstructor
+public class RepMonthlyStatsService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final RepMonthlyStatsRepository statsRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReview(Review review) {
+        BigDecimal revenue = review.getGeneratedRevenue() != null
+                ? BigDecimal.valueOf(review.getGeneratedRevenue())
+                : BigDecimal.ZERO;
+
+        // Comisión estimada: facturación generada x % de comisión de la oferta (si la review va ligada a una)
+        JobOffer offer = review.getJobOffer();
+        BigDecimal commission = offer != null && offer.getCommissionPercent() != null
+                ? revenue.multiply(BigDecimal.valueOf(offer.getCommissionPercent())).divide(HUNDRED, 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        MonthlyDelta delta = new MonthlyDelta().review(
+                valueOrZero(review.getCallsMade()), valueOrZero(review.getDealsClosed()), revenue, commission);
+        statsRepository.applyDeltas(Map.of(new RepMonth(review.getRep().getId(), monthOf(review.getCreatedAt())), delta));
+    }
+
+    // Aplicaciones enviadas, entrevistas y contrataciones del mes, a partir de las transiciones del log
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordApplicationEvents(List<LogEntry> entries) {
+        Map<RepMonth, MonthlyDelta> deltas = new HashMap<>();
+        for (LogEntry e : entries) {
+            if (e.toStatus() != ApplicationStatus.APPLIED
+                    && e.toStatus() != ApplicationStatus.INTERVIEW
+                    && e.toStatus() != ApplicationStatus.HIRED) {
+                continue;
+            }
+            MonthlyDelta delta = deltas.computeIfAbsent(
+                    new RepMonth(e.repId(), monthOf(e.occurredAt())), k -> new MonthlyDelta());
+            switch (e.toStatus()) {
+                case APPLIED -> delta.application();
+                case INTERVIEW -> delta.interview();
+                default -> delta.hire();
+            }
+        }
+        statsRepository.applyDeltas(deltas);
+    }
+
+    /**
+     * Métricas del mes en curso para el dashboard del rep.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> currentMonth(Long repUserId) {
+        YearMonth month = YearMonth.now();
+        MonthlyStats s = statsRepository.findByUserIdAndMonth(repUserId, month.atDay(1))
+                .orElse(MonthlyStats.EMPTY);
+
+        BigDecimal avgTicket = s.dealsClosed() > 0
+                ? s.generatedRevenue().divide(BigDecimal.valueOf(s.dealsClosed()), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("month", month.toString());
+        stats.put("callsMade", s.callsMade());
+        stats.put("closures", s.dealsClosed());
+        stats.put("avgTicket", avgTicket);
+        stats.put("generatedRevenue", s.generatedRevenue());
+        stats.put("estimatedCommission", s.estimatedCommission());
+        stats.put("reviews", s.reviews());
+        stats.put("applications", s.applications());
+        stats.put("interviews", s.interviews());
+        stats.put("hires", s.hires());
+        return stats;
+    }
+
+    private static LocalDate monthOf(LocalDateTime at) {
+        return (at != null ? at.toLocalDate() : LocalDate.now()).withDayOfMonth(1);
+    }
+
+    private static long valueOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
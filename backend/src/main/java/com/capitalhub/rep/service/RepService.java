@@ -4,9 +4,11 @@ import com.capitalhub.auth.repository.UserRepository;
 import com.capitalhub.rep.dto.RepProfileResponse;
 import com.capitalhub.rep.dto.RepProfileUpdateRequest;
 import com.capitalhub.rep.entity.RepProfile;
+import com.capitalhub.rep.event.RepStandingChangedEvent;
 import com.capitalhub.rep.repository.RepProfileRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -16,6 +18,7 @@ public class RepService {
 
     private final RepProfileRepository repProfileRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RepProfileResponse getMyProfile(Long userId) {
         RepProfile rep = repProfileRepository.findByUserId(userId)
@@ -38,10 +41,13 @@ public class RepService {
         if (req.getPhone() != null) rep.setPhone(req.getPhone());
         if (req.getCity() != null) rep.setCity(req.getCity());
         if (req.getCountry() != null) rep.setCountry(req.getCountry());
+        if (req.getLanguages() != null) rep.setLanguages(req.getLanguages());
         if (req.getLinkedinUrl() != null) rep.setLinkedinUrl(req.getLinkedinUrl());
         if (req.getPortfolioUrl() != null) rep.setPortfolioUrl(req.getPortfolioUrl());
 
         RepProfile saved = repProfileRepository.save(rep);
+        // Nombre, rol o país pueden cambiar su posición en el ranking
+        eventPublisher.publishEvent(new RepStandingChangedEvent(saved.getId()));
         return mapToResponse(saved);
     }
     
@@ -49,7 +55,9 @@ public class RepService {
         RepProfile rep = repProfileRepository.findByUserId(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Perfil no encontrado"));
         rep.setAvatarUrl(url);
-        return mapToResponse(repProfileRepository.save(rep));
+        RepProfile saved = repProfileRepository.save(rep);
+        eventPublisher.publishEvent(new RepStandingChangedEvent(saved.getId()));
+        return mapToResponse(saved);
     }
 
     private RepProfileResponse mapToResponse(RepProfile p) {
@@ -65,11 +73,17 @@ public class RepService {
                 .phone(p.getPhone())
                 .city(p.getCity())
                 .country(p.getCountry())
+                .languages(p.getLanguages())
                 .linkedinUrl(p.getLinkedinUrl())
                 .portfolioUrl(p.getPortfolioUrl())
                 .avatarUrl(p.getAvatarUrl())
                 .introVideoUrl(p.getIntroVideoUrl())
                 .bestCallUrl(p.getBestCallUrl())
+                .reviewCount(p.getReviewCount())
+                .avgRating(p.getAvgRating())
+                .reputationScore(p.getReputationScore())
+                .totalDeals(p.getTotalDeals())
+                .totalRevenue(p.getTotalRevenue())
                 .build();
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.capitalhub.reviews.controller;
 
 import com.capitalhub.auth.entity.User;
+import com.capitalhub.reviews.dto.ReviewPage;
 import com.capitalhub.reviews.dto.ReviewRequest;
 import com.capitalhub.reviews.dto.ReviewResponse;
 import com.capitalhub.reviews.service.ReviewService;
@@ -40,6 +41,16 @@ public class ReviewController {
         return reviewService.listReviewsForRep(repUserId);
     }
 
+    // ✅ REP ve sus reviews paginadas por cursor
+    // GET /api/rep/reviews/page?limit=20&cursor=...
+    @PreAuthorize("hasAuthority('REP')")
+    @GetMapping("/rep/reviews/page")
+    public ReviewPage myReviewsPage(@RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer limit,
+                                    Principal principal) {
+        return reviewService.pageReviewsForRep(extractUserId(principal), cursor, limit);
+    }
+
     // ✅ Empresa ve sus reviews dejadas
     // GET /api/company/reviews
     @PreAuthorize("hasAuthority('COMPANY')")
@@ -49,6 +60,24 @@ public class ReviewController {
         return reviewService.listReviewsForCompany(companyUserId);
     }
 
+    // ✅ Admin oculta / muestra una review (actualiza la reputación del REP)
+    // PATCH /api/admin/reviews/{id}/visibility?visible=false
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PatchMapping("/admin/reviews/{id}/visibility")
+    public ReviewResponse setVisibility(@PathVariable Long id, @RequestParam boolean visible) {
+        return reviewService.setVisibility(id, visible);
+    }
+
+    // ✅ Empresa ve sus reviews dejadas, paginadas por cursor
+    // GET /api/company/reviews/page?limit=20&cursor=...
+    @PreAuthorize("hasAuthority('COMPANY')")
+    @GetMapping("/company/reviews/page")
+    public ReviewPage companyReviewsPage(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         Principal principal) {
+        return reviewService.pageReviewsForCompany(extractUserId(principal), cursor, limit);
+    }
+
     private Long extractUserId(Principal principal) {
         if (principal == null) throw new IllegalArgumentException("Usuario no autenticado");
         if (principal instanceof User user) return user.getId();
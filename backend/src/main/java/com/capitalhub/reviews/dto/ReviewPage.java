@@ -0,0 +1,17 @@
+package com.capitalhub.reviews.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ReviewPage {
+
+    private List<ReviewResponse> items;
+
+    // Cursor para pedir la siguiente página (null si no hay más)
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,51 @@
+package com.capitalhub.reviews.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura de una review con los nombres de empresa, rep y oferta.
+ * Se construye en JPQL (SELECT new ...) con un único JOIN, sin cargar entidades perezosas.
+ * El orden del constructor debe coincidir con ReviewRepository.VIEW_SELECT.
+ */
+@Getter
+public class ReviewView {
+
+    private final Long id;
+    private final Long companyId;
+    private final String companyName;
+    private final Long repId;
+    private final String repFullName;
+    private final Long jobOfferId;
+    private final String jobTitle;
+    private final Integer rating;
+    private final String comment;
+    private final Integer callsMade;
+    private final Integer dealsClosed;
+    private final Double generatedRevenue;
+    private final Boolean visible;
+    private final LocalDateTime createdAt;
+
+    public ReviewView(Long id, Long companyId, String companyName,
+                      Long repId, Long repUserId, String repFirstName, String repLastName,
+                      Long jobOfferId, String jobTitle,
+                      Integer rating, String comment, Integer callsMade, Integer dealsClosed, Double generatedRevenue,
+                      Boolean visible, LocalDateTime createdAt) {
+        this.id = id;
+        this.companyId = companyId;
+        this.companyName = companyName;
+        this.repId = repId;
+        // Mismo criterio que RepProfile.getFullName()
+        this.repFullName = repUserId != null ? repFirstName + " " + repLastName : "Usuario Desconocido";
+        this.jobOfferId = jobOfferId;
+        this.jobTitle = jobTitle;
+        this.rating = rating;
+        this.comment = comment;
+        this.callsMade = callsMade;
+        this.dealsClosed = dealsClosed;
+        this.generatedRevenue = generatedRevenue;
+        this.visible = visible;
+        this.createdAt = createdAt;
+    }
+}
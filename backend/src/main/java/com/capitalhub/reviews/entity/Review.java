@@ -12,8 +12,8 @@ import java.time.LocalDateTime;
 @Table(
         name = "reviews",
         indexes = {
-                @Index(name = "idx_review_rep", columnList = "rep_id"),
-                @Index(name = "idx_review_company", columnList = "company_id"),
+                @Index(name = "idx_reviews_rep_visible_created", columnList = "rep_id, visible, created_at"),
+                @Index(name = "idx_reviews_company_created", columnList = "company_id, created_at"),
                 @Index(name = "idx_review_job", columnList = "job_offer_id")
         }
 )
@@ -1,12 +1,43 @@
 package com.capitalhub.reviews.repository;
 
+import com.capitalhub.reviews.dto.ReviewView;
 import com.capitalhub.reviews.entity.Review;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
+    // Columnas de ReviewView (mismo orden que su constructor)
+    String VIEW_SELECT = """
+            SELECT new com.capitalhub.reviews.dto.ReviewView(
+                rv.id, c.id, c.name,
+                r.id, u.id, u.firstName, u.lastName,
+                o.id, o.title,
+                rv.rating, rv.comment, rv.callsMade, rv.dealsClosed, rv.generatedRevenue,
+                rv.visible, rv.createdAt)
+            FROM Review rv
+            JOIN rv.company c
+            JOIN rv.rep r
+            LEFT JOIN r.user u
+            LEFT JOIN rv.jobOffer o
+            """;
+
+    // Condición keyset (created_at, id) común a los listados por cursor
+    String CURSOR_CONDITION = """
+              AND (:cursorCreatedAt IS NULL
+                   OR rv.createdAt < :cursorCreatedAt
+                   OR (rv.createdAt = :cursorCreatedAt AND rv.id < :cursorId))
+            ORDER BY rv.createdAt DESC, rv.id DESC
+            """;
+
     // Todas las reviews de un rep
     List<Review> findByRepId(Long repId);
 
@@ -15,4 +46,31 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     // Reviews de un rep dentro de una oferta concreta
     List<Review> findByRepIdAndJobOfferId(Long repId, Long jobOfferId);
+
+    // ===== Lecturas con proyección (una sola consulta, sin cargas perezosas) =====
+
+    // Reviews visibles de un rep. Usa idx_reviews_rep_visible_created (rep_id, visible, created_at)
+    @Query(VIEW_SELECT + " WHERE r.id = :repId AND rv.visible = true ORDER BY rv.createdAt DESC, rv.id DESC")
+    List<ReviewView> findVisibleViewsByRepId(@Param("repId") Long repId);
+
+    // Todas las reviews dejadas por una empresa. Usa idx_reviews_company_created (company_id, created_at)
+    @Query(VIEW_SELECT + " WHERE c.id = :companyId ORDER BY rv.createdAt DESC, rv.id DESC")
+    List<ReviewView> findViewsByCompanyId(@Param("companyId") Long companyId);
+
+    @Query(VIEW_SELECT + " WHERE r.id = :repId AND rv.visible = true" + CURSOR_CONDITION)
+    List<ReviewView> findVisibleViewPageByRepId(@Param("repId") Long repId,
+                                                @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
+
+    @Query(VIEW_SELECT + " WHERE c.id = :companyId" + CURSOR_CONDITION)
+    List<ReviewView> findViewPageByCompanyId(@Param("companyId") Long companyId,
+                                             @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    // Bloquea la review para cambiar su visibilidad y la reputación del rep de forma consistente
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> findByIdForUpdate(@Param("id") Long id);
 }
@@ -1,33 +1,56 @@
 package com.capitalhub.reviews.service;
 
+import com.capitalhub.common.KeysetCursor;
 import com.capitalhub.company.entity.Company;
 import com.capitalhub.company.repository.CompanyRepository;
 import com.capitalhub.jobs.entity.JobOffer;
 import com.capitalhub.jobs.repository.JobOfferRepository;
 import com.capitalhub.rep.entity.RepProfile;
+import com.capitalhub.rep.event.RepStandingChangedEvent;
 import com.capitalhub.rep.repository.RepProfileRepository;
+import com.capitalhub.rep.service.RepMonthlyStatsService;
+import com.capitalhub.reviews.dto.ReviewPage;
 import com.capitalhub.reviews.dto.ReviewRequest;
 import com.capitalhub.reviews.dto.ReviewResponse;
+import com.capitalhub.reviews.dto.ReviewView;
 import com.capitalhub.reviews.entity.Review;
 import com.capitalhub.reviews.repository.ReviewRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
+    // Media bayesiana de la reputación: cada rep parte de PRIOR_WEIGHT reviews "virtuales" de PRIOR_MEAN
+    // (mismos valores que el backfill de V15__rep_reputation.sql)
+    public static final double REPUTATION_PRIOR_MEAN = 3.5;
+    public static final double REPUTATION_PRIOR_WEIGHT = 5;
+
+    private static final int DEFAULT_PAGE_LIMIT = 20;
+    private static final int MAX_PAGE_LIMIT = 100;
+
     private final ReviewRepository reviewRepository;
     private final CompanyRepository companyRepository;
     private final RepProfileRepository repProfileRepository;
     private final JobOfferRepository jobOfferRepository;
+    private final RepMonthlyStatsService repMonthlyStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Empresa deja review a un REP.
+     * Empresa deja review a un REP. Suma sus métricas al resumen mensual y a la reputación del rep
+     * en la misma transacción.
      */
+    @Transactional
     public ReviewResponse createReview(Long companyUserId, ReviewRequest req) {
 
         Company company = companyRepository.findByUserId(companyUserId)
@@ -60,19 +83,35 @@ public class ReviewService {
                 .build();
 
         Review saved = reviewRepository.save(review);
+        repMonthlyStatsService.recordReview(saved);
+        applyToReputation(saved, 1);
         return mapToResponse(saved);
     }
 
     /**
-     * REP ve todas sus reviews.
+     * Admin oculta o vuelve a mostrar una review. La reputación del rep solo cuenta las visibles,
+     * así que se resta o se suma en la misma transacción (con la review bloqueada para no contarla dos veces).
      */
-    public List<ReviewResponse> listReviewsForRep(Long repUserId) {
-        RepProfile rep = repProfileRepository.findByUserId(repUserId)
-                .orElseThrow(() -> new EntityNotFoundException("Perfil REP no encontrado"));
+    @Transactional
+    public ReviewResponse setVisibility(Long reviewId, boolean visible) {
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
+                .orElseThrow(() -> new EntityNotFoundException("Review no encontrada"));
+
+        boolean current = !Boolean.FALSE.equals(review.getVisible());
+        if (current != visible) {
+            review.setVisible(visible);
+            applyToReputation(review, visible ? 1 : -1);
+        }
+        return mapToResponse(review);
+    }
 
-        return reviewRepository.findByRepId(rep.getId())
+    /**
+     * REP ve todas sus reviews visibles (filtradas en SQL).
+     */
+    @Transactional(readOnly = true)
+    public List<ReviewResponse> listReviewsForRep(Long repUserId) {
+        return reviewRepository.findVisibleViewsByRepId(repIdOf(repUserId))
                 .stream()
-                .filter(Review::getVisible)
                 .map(this::mapToResponse)
                 .toList();
     }
@@ -80,19 +119,114 @@ public class ReviewService {
     /**
      * Empresa ve todas las reviews que ha dejado.
      */
+    @Transactional(readOnly = true)
     public List<ReviewResponse> listReviewsForCompany(Long companyUserId) {
-        Company company = companyRepository.findByUserId(companyUserId)
-                .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
-
-        return reviewRepository.findByCompanyId(company.getId())
+        return reviewRepository.findViewsByCompanyId(companyIdOf(companyUserId))
                 .stream()
                 .map(this::mapToResponse)
                 .toList();
     }
 
+    /**
+     * Reviews visibles del REP paginadas por cursor (created_at, id), de más reciente a más antigua.
+     */
+    @Transactional(readOnly = true)
+    public ReviewPage pageReviewsForRep(Long repUserId, String cursor, Integer limit) {
+        Long repId = repIdOf(repUserId);
+        return page(cursor, limit, (createdAt, id, pageable) ->
+                reviewRepository.findVisibleViewPageByRepId(repId, createdAt, id, pageable));
+    }
+
+    /**
+     * Reviews dejadas por la empresa paginadas por cursor (created_at, id).
+     */
+    @Transactional(readOnly = true)
+    public ReviewPage pageReviewsForCompany(Long companyUserId, String cursor, Integer limit) {
+        Long companyId = companyIdOf(companyUserId);
+        return page(cursor, limit, (createdAt, id, pageable) ->
+                reviewRepository.findViewPageByCompanyId(companyId, createdAt, id, pageable));
+    }
+
+    private Long repIdOf(Long repUserId) {
+        return repProfileRepository.findByUserId(repUserId)
+                .map(RepProfile::getId)
+                .orElseThrow(() -> new EntityNotFoundException("Perfil REP no encontrado"));
+    }
+
+    private Long companyIdOf(Long companyUserId) {
+        return companyRepository.findByUserId(companyUserId)
+                .map(Company::getId)
+                .orElseThrow(() -> new EntityNotFoundException("Empresa no encontrada"));
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<ReviewView> fetch(LocalDateTime cursorCreatedAt, Long cursorId, Pageable pageable);
+    }
+
+    private ReviewPage page(String cursor, Integer limit, PageQuery query) {
+        int size = limit == null ? DEFAULT_PAGE_LIMIT : Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (StringUtils.hasText(cursor)) {
+            KeysetCursor decoded = KeysetCursor.decode(cursor);
+            cursorCreatedAt = decoded.createdAt();
+            cursorId = decoded.id();
+        }
+
+        // Pedimos un elemento extra para saber si hay siguiente página
+        List<ReviewView> rows = query.fetch(cursorCreatedAt, cursorId, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<ReviewView> page = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ReviewView last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return ReviewPage.builder()
+                .items(page.stream().map(this::mapToResponse).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private void applyToReputation(Review r, int sign) {
+        repProfileRepository.applyReviewDelta(
+                r.getRep().getId(),
+                sign,
+                (long) sign * r.getRating(),
+                (long) sign * (r.getDealsClosed() != null ? r.getDealsClosed() : 0),
+                sign * (r.getGeneratedRevenue() != null ? r.getGeneratedRevenue() : 0.0),
+                REPUTATION_PRIOR_MEAN,
+                REPUTATION_PRIOR_WEIGHT);
+        eventPublisher.publishEvent(new RepStandingChangedEvent(r.getRep().getId()));
+    }
+
     // -----------------------
     // Mapper sencillo MVP
     // -----------------------
+    private ReviewResponse mapToResponse(ReviewView r) {
+        return ReviewResponse.builder()
+                .id(r.getId())
+                .companyId(r.getCompanyId())
+                .companyName(r.getCompanyName())
+                .repId(r.getRepId())
+                .repFullName(r.getRepFullName())
+                .jobOfferId(r.getJobOfferId())
+                .jobTitle(r.getJobTitle())
+                .rating(r.getRating())
+                .comment(r.getComment())
+                .callsMade(r.getCallsMade())
+                .dealsClosed(r.getDealsClosed())
+                .generatedRevenue(r.getGeneratedRevenue())
+                .visible(r.getVisible())
+                .createdAt(r.getCreatedAt())
+                .build();
+    }
+
     private ReviewResponse mapToResponse(Review r) {
         return ReviewResponse.builder()
                 .id(r.getId())
@@ -0,0 +1,49 @@
+package com.capitalhub.training.controller;
+
+import com.capitalhub.training.service.CourseCatalog;
+import com.capitalhub.training.service.LessonContentCache;
+import com.capitalhub.training.service.TrainingProgressStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/training")
+@RequiredArgsConstructor
+public class TrainingAdminController {
+
+    private final CourseCatalog courseCatalog;
+    private final TrainingProgressStore progressStore;
+    private final LessonContentCache lessonContentCache;
+
+    // 1. ADMIN: Estado del catálogo en memoria
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/catalog")
+    public Map<String, Object> catalog() {
+        return courseCatalog.stats();
+    }
+
+    // 2. ADMIN: Recargar el catálogo (tras editar cursos o lecciones en la base de datos)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/catalog/reload")
+    public Map<String, Object> reload() {
+        courseCatalog.reload();
+        return courseCatalog.stats();
+    }
+
+    // 3. ADMIN: Estado del progreso en memoria (caché de bitmaps y buffer de completaciones)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/progress")
+    public Map<String, Object> progress() {
+        return progressStore.stats();
+    }
+
+    // 4. ADMIN: Estado de la caché de lecciones renderizadas
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/content")
+    public Map<String, Object> content() {
+        return lessonContentCache.stats();
+    }
+}
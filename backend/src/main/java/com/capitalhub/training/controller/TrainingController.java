@@ -1,9 +1,12 @@
 package com.capitalhub.training.controller;
 
 import com.capitalhub.training.dto.CourseDTO;
+import com.capitalhub.training.service.LessonContentCache;
 import com.capitalhub.training.service.TrainingService;
-import com.capitalhub.auth.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -17,22 +20,60 @@ import java.util.List;
 public class TrainingController {
 
     private final TrainingService trainingService;
-    private final UserRepository userRepository;
 
     @GetMapping("/courses")
     public ResponseEntity<List<CourseDTO>> getCourses(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
-
+        // El principal ya es el User autenticado: no hace falta buscarlo otra vez por email
+        User user = (User) authentication.getPrincipal();
         return ResponseEntity.ok(trainingService.getCoursesForUser(user.getId()));
     }
 
+    // Detalle de la lección con el HTML ya renderizado. Los bytes salen de caché (gzip si el cliente lo acepta);
+    // con el ETag, Spring responde 304 sin cuerpo si el cliente ya tiene esa versión
+    @GetMapping("/lessons/{id}")
+    public ResponseEntity<byte[]> getLesson(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        LessonContentCache.RenderedLesson lesson = trainingService.getLesson(user.getId(), id);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (lesson.gzipBody() != null && acceptsGzip(acceptEncoding)) {
+            return response.eTag(lesson.gzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(lesson.gzipBody());
+        }
+        return response.eTag(lesson.etag()).body(lesson.body());
+    }
+
     @PostMapping("/lessons/{id}/complete")
     public ResponseEntity<Void> completeLesson(@PathVariable Long id, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
-
+        User user = (User) authentication.getPrincipal();
         trainingService.completeLesson(user.getId(), id);
         return ResponseEntity.ok().build();
     }
+
+    // "gzip" en Accept-Encoding salvo que venga con q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase("gzip")) continue;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
@@ -0,0 +1,7 @@
+package com.capitalhub.training.dto;
+
+/**
+ * Metadatos de un curso para el catálogo en memoria (sin la descripción TEXT).
+ */
+public record CourseSummary(Long id, String title, String level, String focus) {
+}
@@ -0,0 +1,26 @@
+package com.capitalhub.training.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Detalle de una lección con el contenido ya renderizado de Markdown a HTML saneado.
+ * Es igual para todos los usuarios (sin estado de progreso), por eso se cachea ya serializado.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class LessonDetail {
+
+    private Long id;
+    private Long courseId;
+    private String title;
+    private String duration;
+    private Integer position;
+
+    private String html;
+    private String videoUrl; // solo http(s)
+
+    private LocalDateTime updatedAt;
+}
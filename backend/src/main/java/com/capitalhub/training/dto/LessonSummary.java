@@ -0,0 +1,10 @@
+package com.capitalhub.training.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadatos de una lección para el catálogo en memoria (sin content ni video_url).
+ */
+public record LessonSummary(Long id, Long courseId, String title, String duration, Integer position,
+                            LocalDateTime updatedAt) {
+}
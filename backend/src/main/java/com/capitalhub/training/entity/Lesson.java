@@ -31,6 +31,10 @@ public class Lesson {
 
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Lo mantiene MySQL (ON UPDATE CURRENT_TIMESTAMP(6), V19 y V21)
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
     
     // Optional: relation if needed, but keeping simple for now
     // @ManyToOne
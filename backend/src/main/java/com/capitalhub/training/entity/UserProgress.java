@@ -8,7 +8,8 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_progress")
+@Table(name = "user_progress",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_progress_user_lesson", columnNames = {"user_id", "lesson_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,9 +1,24 @@
 package com.capitalhub.training.repository;
 
+import com.capitalhub.training.dto.CourseSummary;
 import com.capitalhub.training.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    @Query("SELECT new com.capitalhub.training.dto.CourseSummary(c.id, c.title, c.level, c.focus) FROM Course c ORDER BY c.id")
+    List<CourseSummary> findAllSummaries();
+
+    // Huella barata del catálogo: si cambia, hay cursos o lecciones nuevos, borrados o editados
+    @Query(nativeQuery = true, value = """
+            SELECT CONCAT((SELECT COUNT(*) FROM courses), ':', (SELECT COALESCE(MAX(id), 0) FROM courses), ':',
+                          (SELECT COUNT(*) FROM lessons), ':', (SELECT COALESCE(MAX(id), 0) FROM lessons), ':',
+                          (SELECT COALESCE(MAX(updated_at), '') FROM lessons))
+            """)
+    String catalogFingerprint();
 }
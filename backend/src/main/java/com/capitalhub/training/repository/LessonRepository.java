@@ -1,7 +1,9 @@
 package com.capitalhub.training.repository;
 
+import com.capitalhub.training.dto.LessonSummary;
 import com.capitalhub.training.entity.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +11,13 @@ import java.util.List;
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
     List<Lesson> findByCourseIdOrderByPositionAsc(Long courseId);
+
+    // Todas las lecciones en orden de curso y posición, sin cargar content
+    @Query("""
+            SELECT new com.capitalhub.training.dto.LessonSummary(l.id, l.courseId, l.title, l.duration, l.position,
+                                                           l.updatedAt)
+            FROM Lesson l
+            ORDER BY l.courseId, l.position, l.id
+            """)
+    List<LessonSummary> findAllSummaries();
 }
@@ -0,0 +1,70 @@
+package com.capitalhub.training.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Escritura JDBC en bloque de lecciones completadas sobre user_progress, y lectura en streaming
+ * para reconstruir la analítica de formación. El upsert por uk_user_progress_user_lesson es idempotente: repetir una completación no duplica filas
+ * ni mueve la fecha de la primera.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProgressBatchRepository {
+
+    // completed_at va antes que completed en el UPDATE: MySQL evalúa de izquierda a derecha
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_progress (user_id, lesson_id, completed, completed_at)
+            VALUES (:userId, :lessonId, TRUE, :completedAt)
+            ON DUPLICATE KEY UPDATE
+                completed_at = IF(completed, completed_at, VALUES(completed_at)),
+                completed = TRUE
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record CompletedLesson(long userId, long lessonId, LocalDateTime completedAt) {
+    }
+
+    // Mismo orden de escritura en todos los flush para no cruzar bloqueos
+    private static final Comparator<CompletedLesson> LOCK_ORDER = Comparator
+            .comparingLong(CompletedLesson::userId)
+            .thenComparingLong(CompletedLesson::lessonId);
+
+    public void markCompleted(List<CompletedLesson> completions) {
+        MapSqlParameterSource[] params = completions.stream()
+                .sorted(LOCK_ORDER)
+                .map(c -> new MapSqlParameterSource()
+                        .addValue("userId", c.userId())
+                        .addValue("lessonId", c.lessonId())
+                        .addValue("completedAt", Timestamp.valueOf(c.completedAt())))
+                .toArray(MapSqlParameterSource[]::new);
+        if (params.length > 0) {
+            jdbc.batchUpdate(UPSERT_SQL, params);
+        }
+    }
+
+    // Recorre las completaciones (todas, o desde "since") sin cargarlas en memoria. Con "since" usa idx_user_progress_completed
+    public void forEachCompleted(LocalDateTime since, Consumer<CompletedLesson> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT user_id, lesson_id, completed_at FROM user_progress WHERE completed = TRUE AND completed_at IS NOT NULL";
+        if (since != null) {
+            sql += " AND completed_at >= :since";
+            params.addValue("since", Timestamp.valueOf(since));
+        }
+        jdbc.query(sql + " ORDER BY completed_at, id", params, rs -> {
+            consumer.accept(new CompletedLesson(
+                    rs.getLong("user_id"),
+                    rs.getLong("lesson_id"),
+                    rs.getTimestamp("completed_at").toLocalDateTime()));
+        });
+    }
+}
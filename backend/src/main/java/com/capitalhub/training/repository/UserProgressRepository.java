@@ -2,6 +2,8 @@ package com.capitalhub.training.repository;
 
 import com.capitalhub.training.entity.UserProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,8 @@ import java.util.List;
 public interface UserProgressRepository extends JpaRepository<UserProgress, Long> {
     List<UserProgress> findByUserId(Long userId);
     UserProgress findByUserIdAndLessonId(Long userId, Long lessonId);
+
+    // Solo los ids de lecciones completadas: es todo lo que necesita el progreso sobre el catálogo
+    @Query("SELECT p.lessonId FROM UserProgress p WHERE p.userId = :userId AND p.completed = true")
+    List<Long> findCompletedLessonIds(@Param("userId") Long userId);
 }
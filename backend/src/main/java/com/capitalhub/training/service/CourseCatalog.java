@@ -0,0 +1,135 @@
+package com.capitalhub.training.service;
+
+import com.capitalhub.training.dto.CourseSummary;
+import com.capitalhub.training.dto.LessonSummary;
+import com.capitalhub.training.repository.CourseRepository;
+import com.capitalhub.training.repository.LessonRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Catálogo de formación (cursos + metadatos de lecciones ordenadas) como snapshot inmutable en memoria.
+ * Cada lección tiene un ordinal global, así el progreso de un usuario cabe en un BitSet.
+ * Se recarga entero y se sustituye de golpe cuando cambia la huella del catálogo o lo pide un admin.
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseCatalog {
+
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+
+    public record LessonEntry(long id, long courseId, String title, String duration, int position, int ordinal,
+                              LocalDateTime updatedAt) {
+    }
+
+    public record CourseEntry(long id, String title, String level, String focus, List<LessonEntry> lessons) {
+    }
+
+    public record Snapshot(List<CourseEntry> courses, Map<Long, Integer> ordinalByLessonId,
+                           Map<Long, CourseEntry> courseByLessonId, int lessonCount,
+                           String fingerprint, LocalDateTime loadedAt) {
+
+        // -1 si la lección no está en el catálogo (p.ej. borrada después de completarla)
+        public int ordinalOf(Long lessonId) {
+            Integer ordinal = ordinalByLessonId.get(lessonId);
+            return ordinal != null ? ordinal : -1;
+        }
+
+        // null si la lección no está en el catálogo
+        public CourseEntry courseOf(Long lessonId) {
+            return courseByLessonId.get(lessonId);
+        }
+
+        // null si la lección no está en el catálogo (los cursos tienen pocas lecciones)
+        public LessonEntry lessonOf(Long lessonId) {
+            CourseEntry course = courseByLessonId.get(lessonId);
+            if (course == null) return null;
+            for (LessonEntry lesson : course.lessons()) {
+                if (lesson.id() == lessonId) return lesson;
+            }
+            return null;
+        }
+    }
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Snapshot loaded = reload();
+        System.out.println("📚 Catálogo de formación cargado: " + loaded.courses().size() + " cursos, "
+                + loaded.lessonCount() + " lecciones");
+    }
+
+    public Snapshot current() {
+        Snapshot s = snapshot;
+        return s != null ? s : reload();
+    }
+
+    // Los cursos y lecciones no se editan desde la API: comprobamos la huella de vez en cuando
+    @Scheduled(fixedDelayString = "${training.catalog.refresh-ms:300000}",
+            initialDelayString = "${training.catalog.refresh-ms:300000}")
+    public void refreshIfChanged() {
+        Snapshot s = snapshot;
+        if (s == null || !Objects.equals(s.fingerprint(), courseRepository.catalogFingerprint())) {
+            reload();
+        }
+    }
+
+    public synchronized Snapshot reload() {
+        String fingerprint = courseRepository.catalogFingerprint();
+        List<CourseSummary> courses = courseRepository.findAllSummaries();
+        List<LessonSummary> lessons = lessonRepository.findAllSummaries();
+
+        Map<Long, List<LessonEntry>> lessonsByCourse = new HashMap<>();
+        Map<Long, Integer> ordinals = new HashMap<>();
+        int ordinal = 0;
+        // Ya vienen ordenadas por curso y posición: el ordinal sigue el orden de desbloqueo
+        for (LessonSummary l : lessons) {
+            lessonsByCourse.computeIfAbsent(l.courseId(), k -> new ArrayList<>())
+                    .add(new LessonEntry(l.id(), l.courseId(), l.title(), l.duration(),
+                            l.position() != null ? l.position() : 0, ordinal, l.updatedAt()));
+            ordinals.put(l.id(), ordinal);
+            ordinal++;
+        }
+
+        List<CourseEntry> entries = new ArrayList<>(courses.size());
+        Map<Long, CourseEntry> courseByLesson = new HashMap<>();
+        for (CourseSummary c : courses) {
+            CourseEntry entry = new CourseEntry(c.id(), c.title(), c.level(), c.focus(),
+                    List.copyOf(lessonsByCourse.getOrDefault(c.id(), List.of())));
+            entries.add(entry);
+            entry.lessons().forEach(l -> courseByLesson.put(l.id(), entry));
+        }
+
+        Snapshot loaded = new Snapshot(List.copyOf(entries), Collections.unmodifiableMap(ordinals),
+                Collections.unmodifiableMap(courseByLesson), ordinal, fingerprint, LocalDateTime.now());
+        snapshot = loaded;
+        return loaded;
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot s = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", s != null);
+        if (s != null) {
+            stats.put("courses", s.courses().size());
+            stats.put("lessons", s.lessonCount());
+            stats.put("fingerprint", s.fingerprint());
+            stats.put("loadedAt", s.loadedAt());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,210 @@
+package com.capitalhub.training.service;
+
+import com.capitalhub.training.dto.LessonDetail;
+import com.capitalhub.training.entity.Lesson;
+import com.capitalhub.training.repository.LessonRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Detalle de lecciones ya renderizado (Markdown a HTML saneado) y serializado a JSON, en claro y en gzip.
+ * LRU limitada por bytes con clave lección + updated_at: servir una lección cacheada es copiar bytes.
+ * Cuando se edita una lección cambia su updated_at, el catálogo lo recoge con la huella
+ * y la entrada antigua deja de valer.
+ */
+@Service
+public class LessonContentCache {
+
+    // Por debajo de esto gzip apenas ahorra: no se guarda variante comprimida
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final LessonRepository lessonRepository;
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+
+    // Parser y renderer son thread-safe. El HTML crudo del Markdown se escapa y los enlaces
+    // con esquemas peligrosos (javascript:, etc.) se eliminan
+    private final Parser parser = Parser.builder().build();
+    private final HtmlRenderer renderer = HtmlRenderer.builder()
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .build();
+
+    /**
+     * Respuesta lista para enviar. gzipBody es null si el cuerpo es demasiado pequeño para comprimirlo.
+     * Cada variante tiene su propio ETag porque los bytes son distintos.
+     */
+    public record RenderedLesson(long lessonId, long version, String etag, byte[] body,
+                                 String gzipEtag, byte[] gzipBody) {
+
+        long size() {
+            return body.length + (gzipBody != null ? gzipBody.length : 0);
+        }
+    }
+
+    // Orden de acceso: el primero es el menos usado. Se lee y modifica con su propio lock
+    private final LinkedHashMap<Long, RenderedLesson> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong lastRenderMs = new AtomicLong();
+
+    public LessonContentCache(LessonRepository lessonRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${training.content.max-bytes:16777216}") long maxBytes) {
+        this.lessonRepository = lessonRepository;
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Lección renderizada para la versión que indica el catálogo (o una más reciente).
+     */
+    public RenderedLesson get(CourseCatalog.LessonEntry lesson) {
+        long version = versionOf(lesson.updatedAt());
+        RenderedLesson cached;
+        synchronized (entries) {
+            cached = entries.get(lesson.id());
+        }
+        // Si el catálogo aún no ha recogido una edición, lo cacheado puede ser más nuevo que él: también vale
+        if (cached != null && cached.version() >= version) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        RenderedLesson rendered = render(lesson.id());
+        put(rendered);
+        return rendered;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", bytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("lastRenderMs", lastRenderMs.get());
+        return stats;
+    }
+
+    // ===== Render =====
+
+    private RenderedLesson render(Long lessonId) {
+        long start = System.currentTimeMillis();
+        Lesson lesson = lessonRepository.findById(lessonId)
+                .orElseThrow(() -> new EntityNotFoundException("Lección no encontrada"));
+
+        LessonDetail detail = LessonDetail.builder()
+                .id(lesson.getId())
+                .courseId(lesson.getCourseId())
+                .title(lesson.getTitle())
+                .duration(lesson.getDuration())
+                .position(lesson.getPosition())
+                .html(toHtml(lesson.getContent()))
+                .videoUrl(safeUrl(lesson.getVideoUrl()))
+                .updatedAt(lesson.getUpdatedAt())
+                .build();
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(detail);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la lección " + lessonId, e);
+        }
+        byte[] gzipBody = body.length >= GZIP_MIN_BYTES ? gzip(body) : null;
+
+        // El ETag sale del contenido: así no cambia si se guarda la lección sin modificarla
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        String tag = "lesson-" + lesson.getId() + "-" + Long.toHexString(crc.getValue());
+
+        lastRenderMs.set(System.currentTimeMillis() - start);
+        return new RenderedLesson(lesson.getId(), versionOf(lesson.getUpdatedAt()),
+                "\"" + tag + "\"", body,
+                gzipBody != null ? "\"" + tag + "-gz\"" : null, gzipBody);
+    }
+
+    private String toHtml(String markdown) {
+        if (!StringUtils.hasText(markdown)) return "";
+        return renderer.render(parser.parse(markdown));
+    }
+
+    // El vídeo se incrusta en el front: solo enlaces http(s)
+    private static String safeUrl(String url) {
+        if (!StringUtils.hasText(url)) return null;
+        String trimmed = url.trim();
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        return lower.startsWith("https://") || lower.startsWith("http://") ? trimmed : null;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (OutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo comprimir la lección", e);
+        }
+        return out.toByteArray();
+    }
+
+    // ===== LRU =====
+
+    private void put(RenderedLesson rendered) {
+        long size = rendered.size();
+        if (size > maxBytes) return; // no cabe: se sirve sin cachear
+
+        synchronized (entries) {
+            RenderedLesson previous = entries.put(rendered.lessonId(), rendered);
+            if (previous != null) {
+                // Dos renders a la vez de la misma lección: se queda la versión más nueva
+                if (previous.version() > rendered.version()) {
+                    entries.put(previous.lessonId(), previous);
+                    return;
+                }
+                bytes -= previous.size();
+            }
+            bytes += size;
+
+            Iterator<RenderedLesson> it = entries.values().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                RenderedLesson eldest = it.next();
+                if (eldest == rendered) continue;
+                it.remove();
+                bytes -= eldest.size();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // updated_at tiene resolución de microsegundos (V21): dos ediciones seguidas dan versiones distintas
+    private static long versionOf(LocalDateTime updatedAt) {
+        return updatedAt != null ? ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt.toInstant(ZoneOffset.UTC)) : 0;
+    }
+}
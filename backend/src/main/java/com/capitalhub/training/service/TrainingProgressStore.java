@@ -0,0 +1,311 @@
+package com.capitalhub.training.service;
+
+import com.capitalhub.analytics.service.TrainingFunnelAggregator;
+import com.capitalhub.training.repository.ProgressBatchRepository;
+import com.capitalhub.training.repository.ProgressBatchRepository.CompletedLesson;
+import com.capitalhub.training.repository.UserProgressRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Progreso de formación por usuario como bitmap de lecciones completadas (por ordinal del catálogo).
+ * Las completaciones entran en un buffer en memoria que agrupa repeticiones y se vuelca en bloque
+ * con un upsert idempotente. Las lecturas suman lo pendiente y lo que se está volcando,
+ * así que el usuario ve su completación en cuanto la envía.
+ * Cada lote confirmado se pasa al funnel de formación.
+ * Si el lote falla, se parte para aislar las filas que violan una restricción (usuario o lección borrados),
+ * que se descartan; el resto de fallos se reintenta hasta training.progress.max-retries veces.
+ */
+@Service
+public class TrainingProgressStore {
+
+    private final UserProgressRepository userProgressRepository;
+    private final ProgressBatchRepository progressBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TrainingFunnelAggregator funnelAggregator;
+    private final long idleMs;
+    private final int maxUsers;
+    private final int maxRetries;
+
+    // userId -> (lessonId -> primera completación). Pendiente de volcar
+    private volatile Map<Long, Map<Long, LocalDateTime>> buffer = new ConcurrentHashMap<>();
+    // Lote que se está escribiendo ahora mismo (aún no confirmado)
+    private volatile Map<Long, Map<Long, LocalDateTime>> inFlight = Map.of();
+
+    // complete() toma el lock de lectura; flush() el de escritura solo para cambiar el buffer
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Object flushLock = new Object();
+
+    // Se incrementa cada vez que se vacía inFlight, justo antes de vaciarlo (ver load)
+    private final AtomicLong flushGeneration = new AtomicLong();
+
+    private static final class UserBits {
+        final CourseCatalog.Snapshot catalog;
+        final BitSet bits;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        UserBits(CourseCatalog.Snapshot catalog, BitSet bits) {
+            this.catalog = catalog;
+            this.bits = bits;
+        }
+    }
+
+    private final Map<Long, UserBits> cache = new ConcurrentHashMap<>();
+
+    private record ProgressKey(long userId, long lessonId) {
+        static ProgressKey of(CompletedLesson row) {
+            return new ProgressKey(row.userId(), row.lessonId());
+        }
+    }
+
+    // Flushes fallidos por completación pendiente de reintentar. Solo se toca dentro de flushLock
+    private final Map<ProgressKey, Integer> failedAttempts = new HashMap<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rowsFlushed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private final AtomicLong rowsDropped = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong lastFlushMs = new AtomicLong();
+
+    public TrainingProgressStore(UserProgressRepository userProgressRepository,
+                                 ProgressBatchRepository progressBatchRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 TrainingFunnelAggregator funnelAggregator,
+                                 @Value("${training.progress.idle-ms:1800000}") long idleMs,
+                                 @Value("${training.progress.max-users:50000}") int maxUsers,
+                                 @Value("${training.progress.max-retries:10}") int maxRetries) {
+        this.userProgressRepository = userProgressRepository;
+        this.progressBatchRepository = progressBatchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.funnelAggregator = funnelAggregator;
+        this.idleMs = idleMs;
+        this.maxUsers = maxUsers;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Marca la lección como completada. Idempotente: los dobles clics se agrupan en el buffer
+     * y el upsert conserva la primera fecha.
+     */
+    public void complete(Long userId, Long lessonId, int ordinal, CourseCatalog.Snapshot catalog) {
+        boolean added;
+        swapLock.readLock().lock();
+        try {
+            added = buffer.computeIfAbsent(userId, k -> new ConcurrentHashMap<>())
+                    .putIfAbsent(lessonId, LocalDateTime.now()) == null;
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        if (added) accepted.incrementAndGet(); else coalesced.incrementAndGet();
+
+        UserBits cached = cache.get(userId);
+        if (cached != null && cached.catalog == catalog) {
+            synchronized (cached) {
+                cached.bits.set(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Lecciones completadas del usuario sobre el catálogo dado (copia, el llamador puede modificarla).
+     */
+    public BitSet completedLessons(Long userId, CourseCatalog.Snapshot catalog) {
+        UserBits cached = cache.get(userId);
+        BitSet bits;
+        if (cached != null && cached.catalog == catalog) {
+            cached.lastAccess = System.currentTimeMillis();
+            synchronized (cached) {
+                bits = (BitSet) cached.bits.clone();
+            }
+        } else {
+            bits = load(userId, catalog);
+        }
+        // Lo aún no escrito en la base de datos (read-your-writes)
+        overlay(bits, buffer.get(userId), catalog);
+        overlay(bits, inFlight.get(userId), catalog);
+        return bits;
+    }
+
+    @Scheduled(fixedDelayString = "${training.progress.flush-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Long, Map<Long, LocalDateTime>> batch;
+            swapLock.writeLock().lock();
+            try {
+                if (buffer.isEmpty()) return;
+                batch = buffer;
+                inFlight = batch;
+                buffer = new ConcurrentHashMap<>();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            long start = System.currentTimeMillis();
+            List<CompletedLesson> rows = new ArrayList<>();
+            batch.forEach((userId, lessons) -> lessons.forEach((lessonId, at) ->
+                    rows.add(new CompletedLesson(userId, lessonId, at))));
+            try {
+                List<CompletedLesson> written = new ArrayList<>(rows.size());
+                List<CompletedLesson> failed = new ArrayList<>();
+                write(rows, written, failed);
+                flushes.incrementAndGet();
+                if (!written.isEmpty()) {
+                    rowsFlushed.addAndGet(written.size());
+                    if (!failedAttempts.isEmpty()) {
+                        written.forEach(row -> failedAttempts.remove(ProgressKey.of(row)));
+                    }
+                    funnelAggregator.record(written);
+                }
+                if (!failed.isEmpty()) {
+                    flushFailures.incrementAndGet();
+                    requeue(failed);
+                }
+            } finally {
+                flushGeneration.incrementAndGet();
+                inFlight = Map.of();
+            }
+            lastFlushMs.set(System.currentTimeMillis() - start);
+        }
+    }
+
+    // Una transacción por lote. Si falla por una restricción (FK de un usuario o lección borrados) se parte
+    // en dos hasta aislar las filas culpables, que se descartan. Cualquier otro error devuelve las filas para reintentar
+    private void write(List<CompletedLesson> rows, List<CompletedLesson> written, List<CompletedLesson> failed) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> progressBatchRepository.markCompleted(rows));
+            written.addAll(rows);
+        } catch (DataIntegrityViolationException e) {
+            if (rows.size() == 1) {
+                CompletedLesson row = rows.get(0);
+                System.out.println("⚠️ [TRAINING] Completación descartada (usuario " + row.userId()
+                        + ", lección " + row.lessonId() + "): " + e.getMostSpecificCause().getMessage());
+                drop(row);
+                return;
+            }
+            int mid = rows.size() / 2;
+            write(rows.subList(0, mid), written, failed);
+            write(rows.subList(mid, rows.size()), written, failed);
+        } catch (RuntimeException e) {
+            System.out.println("❌ [TRAINING] Error volcando " + rows.size() + " completaciones: " + e.getMessage());
+            failed.addAll(rows);
+        }
+    }
+
+    // Vuelven al buffer para el siguiente flush, salvo las que ya agotaron sus reintentos
+    private void requeue(List<CompletedLesson> failed) {
+        swapLock.readLock().lock();
+        try {
+            for (CompletedLesson row : failed) {
+                int attempts = failedAttempts.merge(ProgressKey.of(row), 1, Integer::sum);
+                if (attempts > maxRetries) {
+                    System.out.println("⚠️ [TRAINING] Completación descartada tras " + maxRetries + " reintentos (usuario "
+                            + row.userId() + ", lección " + row.lessonId() + ")");
+                    drop(row);
+                } else {
+                    buffer.computeIfAbsent(row.userId(), k -> new ConcurrentHashMap<>())
+                            .putIfAbsent(row.lessonId(), row.completedAt());
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // El bitmap cacheado ya tenía la lección marcada: se descarta para que la siguiente lectura vaya a la base de datos
+    private void drop(CompletedLesson row) {
+        rowsDropped.incrementAndGet();
+        failedAttempts.remove(ProgressKey.of(row));
+        cache.remove(row.userId());
+    }
+
+    @Scheduled(fixedDelayString = "${training.progress.idle-ms:1800000}")
+    public void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleMs;
+        cache.values().removeIf(u -> u.lastAccess < threshold);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedUsers", cache.size());
+        stats.put("maxUsers", maxUsers);
+        stats.put("bufferedUsers", buffer.size());
+        stats.put("inFlightUsers", inFlight.size());
+        stats.put("accepted", accepted.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("rowsFlushed", rowsFlushed.get());
+        stats.put("flushes", flushes.get());
+        stats.put("flushFailures", flushFailures.get());
+        stats.put("rowsDropped", rowsDropped.get());
+        stats.put("retryingRows", failedAttempts.size());
+        stats.put("lastFlushMs", lastFlushMs.get());
+        stats.put("loads", loads.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.out.println("⚠️ No se pudo volcar el progreso de formación pendiente al apagar: " + e.getMessage());
+        }
+    }
+
+    // Lee de la base de datos y guarda el bitmap en caché.
+    // El bitmap cacheado no debe perder una completación: las que llegan después de publicarlo las marca
+    // complete(); las anteriores siguen en el buffer o en inFlight (se leen en ese orden, que es el del
+    // traspaso en flush) o ya están en la base de datos. Si se vació inFlight entre medias
+    // (flushGeneration cambió), la lectura pudo quedarse a medias y el bitmap no se cachea.
+    private BitSet load(Long userId, CourseCatalog.Snapshot catalog) {
+        long generation = flushGeneration.get();
+        loads.incrementAndGet();
+
+        BitSet bits = new BitSet(catalog.lessonCount());
+        for (Long lessonId : userProgressRepository.findCompletedLessonIds(userId)) {
+            int ordinal = catalog.ordinalOf(lessonId);
+            if (ordinal >= 0) bits.set(ordinal);
+        }
+
+        UserBits entry = new UserBits(catalog, bits);
+        boolean cacheable = cache.size() < maxUsers || cache.containsKey(userId);
+        if (cacheable) {
+            cache.put(userId, entry);
+        }
+        synchronized (entry) {
+            overlay(entry.bits, buffer.get(userId), catalog);
+            overlay(entry.bits, inFlight.get(userId), catalog);
+            bits = (BitSet) entry.bits.clone();
+        }
+        if (cacheable && generation != flushGeneration.get()) {
+            cache.remove(userId, entry);
+        }
+        return bits;
+    }
+
+    private static void overlay(BitSet bits, Map<Long, LocalDateTime> lessons, CourseCatalog.Snapshot catalog) {
+        if (lessons == null) return;
+        for (Long lessonId : lessons.keySet()) {
+            int ordinal = catalog.ordinalOf(lessonId);
+            if (ordinal >= 0) bits.set(ordinal);
+        }
+    }
+}
@@ -2,60 +2,50 @@ package com.capitalhub.training.service;
 
 import com.capitalhub.training.dto.CourseDTO;
 import com.capitalhub.training.dto.LessonDTO;
-import com.capitalhub.training.entity.Course;
-import com.capitalhub.training.entity.Lesson;
-import com.capitalhub.training.entity.UserProgress;
-import com.capitalhub.training.repository.CourseRepository;
-import com.capitalhub.training.repository.LessonRepository;
-import com.capitalhub.training.repository.UserProgressRepository;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TrainingService {
 
-    private final CourseRepository courseRepository;
-    private final LessonRepository lessonRepository;
-    private final UserProgressRepository userProgressRepository;
+    private final CourseCatalog courseCatalog;
+    private final TrainingProgressStore progressStore;
+    private final LessonContentCache lessonContentCache;
 
+    /**
+     * Cursos con el progreso del usuario. El catálogo sale del snapshot en memoria y el progreso
+     * del bitmap por usuario de TrainingProgressStore (una consulta solo si no está en caché).
+     */
     public List<CourseDTO> getCoursesForUser(Long userId) {
-        List<Course> courses = courseRepository.findAll();
-        List<UserProgress> progressList = userProgressRepository.findByUserId(userId);
+        CourseCatalog.Snapshot catalog = courseCatalog.current();
+        BitSet completed = progressStore.completedLessons(userId, catalog);
 
-        // Map lessonId -> UserProgress for quick lookup
-        Map<Long, UserProgress> progressMap = progressList.stream()
-                .collect(Collectors.toMap(UserProgress::getLessonId, p -> p));
-
-        return courses.stream().map(course -> {
+        List<CourseDTO> result = new ArrayList<>(catalog.courses().size());
+        for (CourseCatalog.CourseEntry course : catalog.courses()) {
             CourseDTO dto = new CourseDTO();
-            dto.setId(course.getId().toString());
-            dto.setTitle(course.getTitle());
-            dto.setLevel(course.getLevel());
-            dto.setFocus(course.getFocus());
+            dto.setId(String.valueOf(course.id()));
+            dto.setTitle(course.title());
+            dto.setLevel(course.level());
+            dto.setFocus(course.focus());
 
-            List<Lesson> lessons = lessonRepository.findByCourseIdOrderByPositionAsc(course.getId());
-            List<LessonDTO> lessonDTOs = new ArrayList<>();
+            List<LessonDTO> lessonDTOs = new ArrayList<>(course.lessons().size());
 
             boolean previousCompleted = true; // First lesson is unlocked by default
             int completedCount = 0;
 
-            for (Lesson lesson : lessons) {
+            for (CourseCatalog.LessonEntry lesson : course.lessons()) {
                 LessonDTO lessonDTO = new LessonDTO();
-                lessonDTO.setId(lesson.getId());
-                lessonDTO.setTitle(lesson.getTitle());
-                lessonDTO.setDuration(lesson.getDuration());
-
-                UserProgress up = progressMap.get(lesson.getId());
-                boolean isCompleted = up != null && up.isCompleted();
+                lessonDTO.setId(lesson.id());
+                lessonDTO.setTitle(lesson.title());
+                lessonDTO.setDuration(lesson.duration());
 
-                if (isCompleted) {
+                if (completed.get(lesson.ordinal())) {
                     lessonDTO.setStatus("completed");
                     completedCount++;
                     previousCompleted = true;
@@ -72,22 +62,58 @@ public class TrainingService {
 
             dto.setLessons(lessonDTOs);
 
-            int progress = lessons.isEmpty() ? 0 : (int) Math.round(((double) completedCount / lessons.size()) * 100);
+            int lessonCount = course.lessons().size();
+            int progress = lessonCount == 0 ? 0 : (int) Math.round(((double) completedCount / lessonCount) * 100);
             dto.setProgress(progress);
 
-            return dto;
-        }).collect(Collectors.toList());
+            result.add(dto);
+        }
+        return result;
     }
 
+    /**
+     * Detalle de una lección ya renderizado. Solo se sirven lecciones desbloqueadas:
+     * la primera del curso, las completadas y la siguiente a una completada (mismo criterio que getCoursesForUser).
+     */
+    public LessonContentCache.RenderedLesson getLesson(Long userId, Long lessonId) {
+        CourseCatalog.Snapshot catalog = courseCatalog.current();
+        CourseCatalog.LessonEntry lesson = catalog.lessonOf(lessonId);
+        if (lesson == null) {
+            courseCatalog.refreshIfChanged();
+            catalog = courseCatalog.current();
+            lesson = catalog.lessonOf(lessonId);
+            if (lesson == null) {
+                throw new EntityNotFoundException("Lección no encontrada");
+            }
+        }
+
+        List<CourseCatalog.LessonEntry> lessons = catalog.courseOf(lessonId).lessons();
+        int index = lessons.indexOf(lesson);
+        if (index > 0) {
+            BitSet completed = progressStore.completedLessons(userId, catalog);
+            if (!completed.get(lesson.ordinal()) && !completed.get(lessons.get(index - 1).ordinal())) {
+                throw new IllegalArgumentException("Lección bloqueada: completa antes la lección anterior");
+            }
+        }
+        return lessonContentCache.get(lesson);
+    }
+
+    /**
+     * Marca la lección como completada. Se acepta en memoria y se escribe en bloque (idempotente);
+     * las siguientes lecturas del usuario ya la ven completada.
+     */
     public void completeLesson(Long userId, Long lessonId) {
-        UserProgress progress = userProgressRepository.findByUserIdAndLessonId(userId, lessonId);
-        if (progress == null) {
-            progress = new UserProgress();
-            progress.setUserId(userId);
-            progress.setLessonId(lessonId);
+        CourseCatalog.Snapshot catalog = courseCatalog.current();
+        int ordinal = catalog.ordinalOf(lessonId);
+        if (ordinal < 0) {
+            // Puede ser una lección recién añadida que el snapshot aún no tiene
+            courseCatalog.refreshIfChanged();
+            catalog = courseCatalog.current();
+            ordinal = catalog.ordinalOf(lessonId);
+            if (ordinal < 0) {
+                throw new EntityNotFoundException("Lección no encontrada");
+            }
         }
-        progress.setCompleted(true);
-        progress.setCompletedAt(LocalDateTime.now());
-        userProgressRepository.save(progress);
+        progressStore.complete(userId, lessonId, ordinal, catalog);
     }
 }
@@ -0,0 +1,6 @@
+-- Índices para los listados paginados de aplicaciones (/api/company/.../applications/page)
+-- Filtro por oferta + estado y orden por created_at; también sirve a la FK fk_app_job
+CREATE INDEX idx_job_applications_offer_status_created ON job_applications (job_offer_id, status, created_at);
+
+-- Listado del rep ordenado por fecha; también sirve a la FK fk_app_rep
+CREATE INDEX idx_job_applications_rep_created ON job_applications (rep_id, created_at);
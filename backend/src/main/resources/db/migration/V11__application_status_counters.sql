@@ -0,0 +1,23 @@
+-- Contadores materializados de aplicaciones por (empresa, oferta, estado)
+-- job_offer_id = 0 es el acumulado de toda la empresa (dashboard sin recorrer job_applications)
+CREATE TABLE application_status_counters (
+    company_id BIGINT NOT NULL,
+    job_offer_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (company_id, job_offer_id, status)
+);
+
+-- Carga inicial desde los datos existentes
+INSERT INTO application_status_counters (company_id, job_offer_id, status, count)
+SELECT o.company_id, o.id, COALESCE(a.status, 'APPLIED'), COUNT(*)
+FROM job_applications a
+JOIN job_offers o ON o.id = a.job_offer_id
+GROUP BY o.company_id, o.id, COALESCE(a.status, 'APPLIED');
+
+INSERT INTO application_status_counters (company_id, job_offer_id, status, count)
+SELECT o.company_id, 0, COALESCE(a.status, 'APPLIED'), COUNT(*)
+FROM job_applications a
+JOIN job_offers o ON o.id = a.job_offer_id
+GROUP BY o.company_id, COALESCE(a.status, 'APPLIED');
@@ -0,0 +1,47 @@
+-- Log append-only de transiciones de estado de aplicaciones (analítica de funnel)
+CREATE TABLE application_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    application_id BIGINT NOT NULL,
+    company_id BIGINT NOT NULL,
+    job_offer_id BIGINT NOT NULL,
+    rep_id BIGINT NOT NULL,
+    from_status VARCHAR(50) NULL,
+    to_status VARCHAR(50) NOT NULL,
+    occurred_at TIMESTAMP(3) NOT NULL,
+    INDEX idx_app_events_application (application_id, id),
+    INDEX idx_app_events_company (company_id, id)
+);
+
+-- Snapshots periódicos de los agregados en memoria (JSON comprimido)
+CREATE TABLE analytics_snapshots (
+    name VARCHAR(100) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    payload LONGBLOB NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- Reconstrucción aproximada del histórico a partir de las fechas guardadas en job_applications
+INSERT INTO application_events (application_id, company_id, job_offer_id, rep_id, from_status, to_status, occurred_at)
+SELECT a.id, o.company_id, a.job_offer_id, a.rep_id, NULL, 'APPLIED', COALESCE(a.created_at, CURRENT_TIMESTAMP)
+FROM job_applications a JOIN job_offers o ON o.id = a.job_offer_id
+ORDER BY a.created_at, a.id;
+
+INSERT INTO application_events (application_id, company_id, job_offer_id, rep_id, from_status, to_status, occurred_at)
+SELECT a.id, o.company_id, a.job_offer_id, a.rep_id, 'APPLIED', 'INTERVIEW', a.interview_at
+FROM job_applications a JOIN job_offers o ON o.id = a.job_offer_id
+WHERE a.interview_at IS NOT NULL
+ORDER BY a.interview_at, a.id;
+
+INSERT INTO application_events (application_id, company_id, job_offer_id, rep_id, from_status, to_status, occurred_at)
+SELECT a.id, o.company_id, a.job_offer_id, a.rep_id,
+       CASE WHEN a.interview_at IS NOT NULL THEN 'INTERVIEW' ELSE 'APPLIED' END, 'HIRED', a.hired_at
+FROM job_applications a JOIN job_offers o ON o.id = a.job_offer_id
+WHERE a.hired_at IS NOT NULL
+ORDER BY a.hired_at, a.id;
+
+INSERT INTO application_events (application_id, company_id, job_offer_id, rep_id, from_status, to_status, occurred_at)
+SELECT a.id, o.company_id, a.job_offer_id, a.rep_id,
+       CASE WHEN a.interview_at IS NOT NULL THEN 'INTERVIEW' ELSE 'APPLIED' END, 'REJECTED', a.rejected_at
+FROM job_applications a JOIN job_offers o ON o.id = a.job_offer_id
+WHERE a.rejected_at IS NOT NULL
+ORDER BY a.rejected_at, a.id;
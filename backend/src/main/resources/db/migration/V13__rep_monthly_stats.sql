@@ -0,0 +1,42 @@
+-- Resumen mensual por REP para el dashboard (se actualiza de forma incremental)
+CREATE TABLE rep_monthly_stats (
+    rep_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    calls_made BIGINT NOT NULL DEFAULT 0,
+    deals_closed BIGINT NOT NULL DEFAULT 0,
+    generated_revenue DECIMAL(15,2) NOT NULL DEFAULT 0,
+    estimated_commission DECIMAL(15,2) NOT NULL DEFAULT 0,
+    reviews_count INT NOT NULL DEFAULT 0,
+    applications INT NOT NULL DEFAULT 0,
+    interviews INT NOT NULL DEFAULT 0,
+    hires INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (rep_id, month_start),
+    CONSTRAINT fk_rep_monthly_stats_rep FOREIGN KEY (rep_id) REFERENCES rep_profiles(id)
+);
+
+-- Histórico desde las reviews existentes
+INSERT INTO rep_monthly_stats (rep_id, month_start, calls_made, deals_closed, generated_revenue, estimated_commission, reviews_count)
+SELECT r.rep_id,
+       DATE_FORMAT(r.created_at, '%Y-%m-01'),
+       COALESCE(SUM(r.calls_made), 0),
+       COALESCE(SUM(r.deals_closed), 0),
+       COALESCE(SUM(r.generated_revenue), 0),
+       COALESCE(SUM(r.generated_revenue * o.commission_percent / 100), 0),
+       COUNT(*)
+FROM reviews r
+LEFT JOIN job_offers o ON o.id = r.job_offer_id
+GROUP BY r.rep_id, DATE_FORMAT(r.created_at, '%Y-%m-01');
+
+-- Y desde el log de aplicaciones (V12)
+INSERT INTO rep_monthly_stats (rep_id, month_start, applications, interviews, hires)
+SELECT e.rep_id,
+       DATE_FORMAT(e.occurred_at, '%Y-%m-01') AS month_start,
+       SUM(e.to_status = 'APPLIED'),
+       SUM(e.to_status = 'INTERVIEW'),
+       SUM(e.to_status = 'HIRED')
+FROM application_events e
+GROUP BY e.rep_id, DATE_FORMAT(e.occurred_at, '%Y-%m-01')
+ON DUPLICATE KEY UPDATE applications = VALUES(applications),
+                        interviews = VALUES(interviews),
+                        hires = VALUES(hires);
@@ -0,0 +1,137 @@
+-- Series temporales pre-agregadas (minuto -> hora -> día)
+-- group_key: dimensión del desglose ('all', 'offer', 'company', 'market', 'role'); group_value: su valor ('' para 'all')
+CREATE TABLE metric_buckets (
+    metric VARCHAR(64) NOT NULL,
+    resolution VARCHAR(10) NOT NULL,
+    group_key VARCHAR(20) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    group_value VARCHAR(100) NOT NULL,
+    total BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (metric, resolution, group_key, bucket_start, group_value),
+    INDEX idx_metric_buckets_compaction (resolution, bucket_start)
+);
+
+-- Histórico: horas y días desde application_events (V12) y job_offers
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT CASE WHEN e.to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(e.to_status)) END, 'HOUR', 'all', DATE_FORMAT(e.occurred_at, '%Y-%m-%d %H:00:00'), '', COUNT(*)
+FROM application_events e
+GROUP BY 1, 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT CASE WHEN e.to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(e.to_status)) END, 'HOUR', 'offer', DATE_FORMAT(e.occurred_at, '%Y-%m-%d %H:00:00'), CAST(e.job_offer_id AS CHAR), COUNT(*)
+FROM application_events e
+GROUP BY 1, 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT CASE WHEN e.to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(e.to_status)) END, 'HOUR', 'company', DATE_FORMAT(e.occurred_at, '%Y-%m-%d %H:00:00'), CAST(e.company_id AS CHAR), COUNT(*)
+FROM application_events e
+GROUP BY 1, 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT CASE WHEN e.to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(e.to_status)) END, 'DAY', 'all', CAST(DATE(e.occurred_at) AS DATETIME), '', COUNT(*)
+FROM application_events e
+GROUP BY 1, 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT CASE WHEN e.to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(e.to_status)) END, 'DAY', 'offer', CAST(DATE(e.occurred_at) AS DATETIME), CAST(e.job_offer_id AS CHAR), COUNT(*)
+FROM application_events e
+GROUP BY 1, 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT CASE WHEN e.to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(e.to_status)) END, 'DAY', 'company', CAST(DATE(e.occurred_at) AS DATETIME), CAST(e.company_id AS CHAR), COUNT(*)
+FROM application_events e
+GROUP BY 1, 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'HOUR', 'all', DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00'), '', COUNT(*)
+FROM job_offers o
+WHERE o.created_at IS NOT NULL
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'HOUR', 'company', DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00'), CAST(o.company_id AS CHAR), COUNT(*)
+FROM job_offers o
+WHERE o.created_at IS NOT NULL
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'HOUR', 'market', DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00'), LEFT(o.market, 100), COUNT(*)
+FROM job_offers o
+WHERE o.created_at IS NOT NULL AND o.market IS NOT NULL AND o.market <> ''
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'HOUR', 'role', DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00'), o.role, COUNT(*)
+FROM job_offers o
+WHERE o.created_at IS NOT NULL AND o.role IS NOT NULL
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'DAY', 'all', CAST(DATE(o.created_at) AS DATETIME), '', COUNT(*)
+FROM job_offers o
+WHERE o.created_at IS NOT NULL
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'DAY', 'company', CAST(DATE(o.created_at) AS DATETIME), CAST(o.company_id AS CHAR), COUNT(*)
+FROM job_offers o
+WHERE o.created_at IS NOT NULL
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'DAY', 'market', CAST(DATE(o.created_at) AS DATETIME), LEFT(o.market, 100), COUNT(*)
+FROM job_offers o
+WHERE o.created_at IS NOT NULL AND o.market IS NOT NULL AND o.market <> ''
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'DAY', 'role', CAST(DATE(o.created_at) AS DATETIME), o.role, COUNT(*)
+FROM job_offers o
+WHERE o.created_at IS NOT NULL AND o.role IS NOT NULL
+GROUP BY 4, 5;
+
+-- Las últimas horas también como minutos: la primera compactación de TimeSeriesStore recalcula las horas de su
+-- ventana (ROLLUP_WINDOW_HOURS = 3) solo desde los minutos y, sin ellos, dejaría esas horas y sus días por debajo
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT CASE WHEN e.to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(e.to_status)) END, 'MINUTE', 'all', DATE_FORMAT(e.occurred_at, '%Y-%m-%d %H:%i:00'), '', COUNT(*)
+FROM application_events e
+WHERE e.occurred_at >= DATE_FORMAT(NOW() - INTERVAL 3 HOUR, '%Y-%m-%d %H:00:00')
+GROUP BY 1, 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT CASE WHEN e.to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(e.to_status)) END, 'MINUTE', 'offer', DATE_FORMAT(e.occurred_at, '%Y-%m-%d %H:%i:00'), CAST(e.job_offer_id AS CHAR), COUNT(*)
+FROM application_events e
+WHERE e.occurred_at >= DATE_FORMAT(NOW() - INTERVAL 3 HOUR, '%Y-%m-%d %H:00:00')
+GROUP BY 1, 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT CASE WHEN e.to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(e.to_status)) END, 'MINUTE', 'company', DATE_FORMAT(e.occurred_at, '%Y-%m-%d %H:%i:00'), CAST(e.company_id AS CHAR), COUNT(*)
+FROM application_events e
+WHERE e.occurred_at >= DATE_FORMAT(NOW() - INTERVAL 3 HOUR, '%Y-%m-%d %H:00:00')
+GROUP BY 1, 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'MINUTE', 'all', DATE_FORMAT(o.created_at, '%Y-%m-%d %H:%i:00'), '', COUNT(*)
+FROM job_offers o
+WHERE o.created_at >= DATE_FORMAT(NOW() - INTERVAL 3 HOUR, '%Y-%m-%d %H:00:00')
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'MINUTE', 'company', DATE_FORMAT(o.created_at, '%Y-%m-%d %H:%i:00'), CAST(o.company_id AS CHAR), COUNT(*)
+FROM job_offers o
+WHERE o.created_at >= DATE_FORMAT(NOW() - INTERVAL 3 HOUR, '%Y-%m-%d %H:00:00')
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'MINUTE', 'market', DATE_FORMAT(o.created_at, '%Y-%m-%d %H:%i:00'), LEFT(o.market, 100), COUNT(*)
+FROM job_offers o
+WHERE o.created_at >= DATE_FORMAT(NOW() - INTERVAL 3 HOUR, '%Y-%m-%d %H:00:00') AND o.market IS NOT NULL AND o.market <> ''
+GROUP BY 4, 5;
+
+INSERT INTO metric_buckets (metric, resolution, group_key, bucket_start, group_value, total)
+SELECT 'offers.created', 'MINUTE', 'role', DATE_FORMAT(o.created_at, '%Y-%m-%d %H:%i:00'), o.role, COUNT(*)
+FROM job_offers o
+WHERE o.created_at >= DATE_FORMAT(NOW() - INTERVAL 3 HOUR, '%Y-%m-%d %H:00:00') AND o.role IS NOT NULL
+GROUP BY 4, 5;
@@ -0,0 +1,27 @@
+-- Reputación agregada de cada REP (solo reviews visibles), mantenida de forma incremental
+-- reputation_score = media bayesiana: (5 * 3.5 + rating_sum) / (5 + review_count), ver ReviewService
+ALTER TABLE rep_profiles
+    ADD COLUMN review_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN reputation_score DOUBLE NOT NULL DEFAULT 3.5,
+    ADD COLUMN total_deals BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN total_revenue DECIMAL(15,2) NOT NULL DEFAULT 0;
+
+UPDATE rep_profiles p
+JOIN (
+    SELECT rep_id,
+           COUNT(*) AS n,
+           SUM(rating) AS rating_sum,
+           COALESCE(SUM(deals_closed), 0) AS deals,
+           COALESCE(SUM(generated_revenue), 0) AS revenue
+    FROM reviews
+    WHERE COALESCE(visible, TRUE) = TRUE
+    GROUP BY rep_id
+) agg ON agg.rep_id = p.id
+SET p.review_count = agg.n,
+    p.rating_sum = agg.rating_sum,
+    p.total_deals = agg.deals,
+    p.total_revenue = agg.revenue,
+    p.reputation_score = (5 * 3.5 + agg.rating_sum) / (5 + agg.n);
+
+CREATE INDEX idx_rep_profiles_reputation ON rep_profiles (reputation_score);
@@ -0,0 +1,11 @@
+-- Listados paginados por cursor de reviews (/api/rep/reviews/page y /api/company/reviews/page)
+
+-- visible pasa a NOT NULL (como en la entidad) para que el filtro visible = TRUE use el índice
+UPDATE reviews SET visible = TRUE WHERE visible IS NULL;
+ALTER TABLE reviews MODIFY visible BOOLEAN NOT NULL DEFAULT TRUE;
+
+-- Reviews visibles de un rep ordenadas por fecha; también sirve a la FK fk_review_rep
+CREATE INDEX idx_reviews_rep_visible_created ON reviews (rep_id, visible, created_at);
+
+-- La empresa ve todas las reviews que ha dejado (también las ocultas); también sirve a la FK fk_review_company
+CREATE INDEX idx_reviews_company_created ON reviews (company_id, created_at);
@@ -0,0 +1,23 @@
+-- Una sola fila por (usuario, lección) en user_progress, para poder completar con un upsert idempotente
+
+-- Las filas duplicadas se funden en la más antigua: completada si alguna lo estaba, con la primera fecha
+UPDATE user_progress p
+JOIN (
+    SELECT MIN(id) AS keep_id, MAX(completed) AS completed, MIN(completed_at) AS completed_at
+    FROM user_progress
+    GROUP BY user_id, lesson_id
+    HAVING COUNT(*) > 1
+) d ON p.id = d.keep_id
+SET p.completed = d.completed,
+    p.completed_at = d.completed_at;
+
+DELETE p FROM user_progress p
+JOIN (
+    SELECT user_id, lesson_id, MIN(id) AS keep_id
+    FROM user_progress
+    GROUP BY user_id, lesson_id
+    HAVING COUNT(*) > 1
+) d ON p.user_id = d.user_id AND p.lesson_id = d.lesson_id AND p.id <> d.keep_id;
+
+-- También sirve a la FK fk_progress_user y a la lectura del progreso de un usuario
+ALTER TABLE user_progress ADD CONSTRAINT uk_user_progress_user_lesson UNIQUE (user_id, lesson_id);
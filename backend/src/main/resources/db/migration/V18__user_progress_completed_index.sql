@@ -0,0 +1,2 @@
+-- Reproceso de completaciones recientes al arrancar el funnel de formación (completed_at >= ...)
+CREATE INDEX idx_user_progress_completed ON user_progress (completed_at);
@@ -0,0 +1,3 @@
+-- Versión del contenido de cada lección: clave de la caché de HTML renderizado y parte de la huella del catálogo
+ALTER TABLE lessons
+ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
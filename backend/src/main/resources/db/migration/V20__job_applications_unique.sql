@@ -0,0 +1,177 @@
+-- Una sola aplicación por (rep, oferta). Hasta ahora solo lo comprobaba un SELECT previo,
+-- que dos peticiones simultáneas del mismo rep podían pasar a la vez.
+--
+-- De cada par duplicado se queda la aplicación más avanzada (HIRED > OFFER_SENT > INTERVIEW > REJECTED
+-- > WITHDRAWN > APPLIED) y, a igualdad, la más antigua. Las demás se borran y se descuentan de todo
+-- lo que se calculó a partir de ellas. Las tablas v20_* son de trabajo y se borran al final.
+
+CREATE TABLE v20_duplicates (
+    id BIGINT PRIMARY KEY,
+    keep_id BIGINT NOT NULL
+);
+
+INSERT INTO v20_duplicates (id, keep_id)
+SELECT ranked.id, ranked.keep_id
+FROM (
+    SELECT a.id,
+           FIRST_VALUE(a.id) OVER (
+               PARTITION BY a.rep_id, a.job_offer_id
+               ORDER BY CASE a.status
+                            WHEN 'HIRED' THEN 6
+                            WHEN 'OFFER_SENT' THEN 5
+                            WHEN 'INTERVIEW' THEN 4
+                            WHEN 'REJECTED' THEN 3
+                            WHEN 'WITHDRAWN' THEN 2
+                            ELSE 1
+                        END DESC,
+                        a.id
+           ) AS keep_id
+    FROM job_applications a
+    JOIN (
+        SELECT rep_id, job_offer_id
+        FROM job_applications
+        GROUP BY rep_id, job_offer_id
+        HAVING COUNT(*) > 1
+    ) d ON d.rep_id = a.rep_id AND d.job_offer_id = a.job_offer_id
+) ranked
+WHERE ranked.id <> ranked.keep_id;
+
+-- Eventos de las aplicaciones que se borran: lo que hay que descontar de los agregados
+CREATE TABLE v20_duplicate_events (
+    id BIGINT PRIMARY KEY,
+    company_id BIGINT NOT NULL,
+    job_offer_id BIGINT NOT NULL,
+    rep_id BIGINT NOT NULL,
+    to_status VARCHAR(50) NOT NULL,
+    occurred_at TIMESTAMP(3) NOT NULL
+);
+
+INSERT INTO v20_duplicate_events (id, company_id, job_offer_id, rep_id, to_status, occurred_at)
+SELECT e.id, e.company_id, e.job_offer_id, e.rep_id, e.to_status, e.occurred_at
+FROM application_events e
+JOIN v20_duplicates d ON d.id = e.application_id;
+
+-- rep_monthly_stats (V13): applications, interviews y hires suman un evento cada uno
+UPDATE rep_monthly_stats s
+JOIN (
+    SELECT rep_id,
+           DATE_FORMAT(occurred_at, '%Y-%m-01') AS month_start,
+           SUM(to_status = 'APPLIED') AS applications,
+           SUM(to_status = 'INTERVIEW') AS interviews,
+           SUM(to_status = 'HIRED') AS hires
+    FROM v20_duplicate_events
+    GROUP BY rep_id, DATE_FORMAT(occurred_at, '%Y-%m-01')
+) x ON x.rep_id = s.rep_id AND x.month_start = s.month_start
+SET s.applications = GREATEST(s.applications - x.applications, 0),
+    s.interviews = GREATEST(s.interviews - x.interviews, 0),
+    s.hires = GREATEST(s.hires - x.hires, 0);
+
+-- metric_buckets (V14): cada evento sumó 1 en el total y en los desgloses por oferta y por empresa,
+-- en su minuto, su hora y su día
+CREATE TABLE v20_metric_events (
+    metric VARCHAR(64) NOT NULL,
+    group_key VARCHAR(20) NOT NULL,
+    group_value VARCHAR(100) NOT NULL,
+    occurred_at TIMESTAMP(3) NOT NULL
+);
+
+INSERT INTO v20_metric_events (metric, group_key, group_value, occurred_at)
+SELECT CASE WHEN to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(to_status)) END,
+       'all', '', occurred_at
+FROM v20_duplicate_events;
+
+INSERT INTO v20_metric_events (metric, group_key, group_value, occurred_at)
+SELECT CASE WHEN to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(to_status)) END,
+       'offer', CAST(job_offer_id AS CHAR), occurred_at
+FROM v20_duplicate_events;
+
+INSERT INTO v20_metric_events (metric, group_key, group_value, occurred_at)
+SELECT CASE WHEN to_status = 'APPLIED' THEN 'applications.submitted' ELSE CONCAT('applications.', LOWER(to_status)) END,
+       'company', CAST(company_id AS CHAR), occurred_at
+FROM v20_duplicate_events;
+
+UPDATE metric_buckets b
+JOIN (
+    SELECT metric, group_key, group_value, DATE_FORMAT(occurred_at, '%Y-%m-%d %H:%i:00') AS bucket_start, COUNT(*) AS total
+    FROM v20_metric_events
+    GROUP BY metric, group_key, group_value, DATE_FORMAT(occurred_at, '%Y-%m-%d %H:%i:00')
+) d ON b.metric = d.metric AND b.resolution = 'MINUTE' AND b.group_key = d.group_key
+   AND b.bucket_start = d.bucket_start AND b.group_value = d.group_value
+SET b.total = GREATEST(b.total - d.total, 0);
+
+UPDATE metric_buckets b
+JOIN (
+    SELECT metric, group_key, group_value, DATE_FORMAT(occurred_at, '%Y-%m-%d %H:00:00') AS bucket_start, COUNT(*) AS total
+    FROM v20_metric_events
+    GROUP BY metric, group_key, group_value, DATE_FORMAT(occurred_at, '%Y-%m-%d %H:00:00')
+) d ON b.metric = d.metric AND b.resolution = 'HOUR' AND b.group_key = d.group_key
+   AND b.bucket_start = d.bucket_start AND b.group_value = d.group_value
+SET b.total = GREATEST(b.total - d.total, 0);
+
+UPDATE metric_buckets b
+JOIN (
+    SELECT metric, group_key, group_value, CAST(DATE(occurred_at) AS DATETIME) AS bucket_start, COUNT(*) AS total
+    FROM v20_metric_events
+    GROUP BY metric, group_key, group_value, CAST(DATE(occurred_at) AS DATETIME)
+) d ON b.metric = d.metric AND b.resolution = 'DAY' AND b.group_key = d.group_key
+   AND b.bucket_start = d.bucket_start AND b.group_value = d.group_value
+SET b.total = GREATEST(b.total - d.total, 0);
+
+-- El log no pierde eventos: los de una duplicada pasan a la aplicación que se queda
+UPDATE application_events e
+JOIN v20_duplicates d ON d.id = e.application_id
+SET e.application_id = d.keep_id;
+
+DELETE a FROM job_applications a
+JOIN v20_duplicates d ON d.id = a.id;
+
+-- applicants_count y application_status_counters (V11) de las ofertas y empresas afectadas, desde la tabla
+UPDATE job_offers o
+JOIN (
+    SELECT a.job_offer_id, COUNT(*) AS applicants
+    FROM job_applications a
+    WHERE a.job_offer_id IN (
+        SELECT k.job_offer_id
+        FROM job_applications k
+        JOIN v20_duplicates d ON d.keep_id = k.id
+    )
+    GROUP BY a.job_offer_id
+) c ON c.job_offer_id = o.id
+SET o.applicants_count = c.applicants;
+
+CREATE TABLE v20_companies (
+    company_id BIGINT PRIMARY KEY
+);
+
+INSERT INTO v20_companies (company_id)
+SELECT DISTINCT o.company_id
+FROM job_applications a
+JOIN job_offers o ON o.id = a.job_offer_id
+JOIN v20_duplicates d ON d.keep_id = a.id;
+
+DELETE s FROM application_status_counters s
+JOIN v20_companies c ON c.company_id = s.company_id;
+
+INSERT INTO application_status_counters (company_id, job_offer_id, status, count)
+SELECT o.company_id, o.id, COALESCE(a.status, 'APPLIED'), COUNT(*)
+FROM job_applications a
+JOIN job_offers o ON o.id = a.job_offer_id
+JOIN v20_companies c ON c.company_id = o.company_id
+GROUP BY o.company_id, o.id, COALESCE(a.status, 'APPLIED');
+
+INSERT INTO application_status_counters (company_id, job_offer_id, status, count)
+SELECT o.company_id, 0, COALESCE(a.status, 'APPLIED'), COUNT(*)
+FROM job_applications a
+JOIN job_offers o ON o.id = a.job_offer_id
+JOIN v20_companies c ON c.company_id = o.company_id
+GROUP BY o.company_id, COALESCE(a.status, 'APPLIED');
+
+-- El funnel en memoria se reconstruye desde el log al arrancar
+DELETE FROM analytics_snapshots WHERE name = 'application-funnel';
+
+DROP TABLE v20_companies;
+DROP TABLE v20_metric_events;
+DROP TABLE v20_duplicate_events;
+DROP TABLE v20_duplicates;
+
+ALTER TABLE job_applications ADD CONSTRAINT uk_job_applications_rep_offer UNIQUE (rep_id, job_offer_id);
@@ -0,0 +1,4 @@
+-- updated_at con microsegundos: con resolución de segundos, dos ediciones de una lección en el mismo
+-- segundo dejaban la misma versión y la caché de HTML renderizado seguía sirviendo la primera
+ALTER TABLE lessons
+MODIFY COLUMN updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
@@ -0,0 +1,6 @@
+-- Índices para el feed de ofertas paginado por cursor (/api/rep/jobs/feed)
+-- Cubre el filtro active + status + role y el orden por created_at (id va implícito en InnoDB)
+CREATE INDEX idx_job_offers_feed ON job_offers (active, status, role, created_at);
+
+-- Listado de ofertas activas sin filtrar por rol
+CREATE INDEX idx_job_offers_active_created ON job_offers (active, status, created_at);
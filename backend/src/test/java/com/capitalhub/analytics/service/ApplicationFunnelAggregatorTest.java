@@ -0,0 +1,141 @@
+package com.capitalhub.analytics.service;
+
+import com.capitalhub.analytics.dto.FunnelResponse;
+import com.capitalhub.analytics.repository.AnalyticsSnapshotRepository;
+import com.capitalhub.analytics.repository.AnalyticsSnapshotRepository.StoredSnapshot;
+import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.applications.repository.ApplicationEventLogRepository;
+import com.capitalhub.applications.repository.ApplicationEventLogRepository.LogEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static com.capitalhub.applications.entity.ApplicationStatus.APPLIED;
+import static com.capitalhub.applications.entity.ApplicationStatus.HIRED;
+import static com.capitalhub.applications.entity.ApplicationStatus.INTERVIEW;
+import static com.capitalhub.applications.entity.ApplicationStatus.REJECTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Aplicaciones que se reabren tras un estado final y eventos que aparecen en el log
+ * después de otros con id mayor.
+ */
+class ApplicationFunnelAggregatorTest {
+
+    private static final long COMPANY = 1L;
+    private static final long OFFER = 10L;
+    private static final LocalDateTime T0 = LocalDateTime.now().minusDays(10).withNano(0);
+
+    // Eventos ya confirmados en application_events
+    private final TreeMap<Long, LogEntry> committed = new TreeMap<>();
+    private ApplicationEventLogRepository logRepository;
+    private AnalyticsSnapshotRepository snapshotRepository;
+
+    @BeforeEach
+    void setUp() {
+        logRepository = mock(ApplicationEventLogRepository.class);
+        snapshotRepository = mock(AnalyticsSnapshotRepository.class);
+        when(snapshotRepository.find(anyString())).thenReturn(Optional.empty());
+        when(logRepository.findAfter(anyLong(), anyInt())).thenAnswer(inv -> committed
+                .tailMap(inv.<Long>getArgument(0), false).values().stream()
+                .limit(inv.<Integer>getArgument(1))
+                .toList());
+        when(logRepository.findByIds(any())).thenAnswer(inv -> inv.<Collection<Long>>getArgument(0).stream()
+                .filter(committed::containsKey)
+                .map(committed::get)
+                .toList());
+    }
+
+    @Test
+    void unaAplicacionReabiertaNoSeCuentaDosVeces() {
+        commit(1, 100, APPLIED, T0);
+        commit(2, 100, REJECTED, T0.plusDays(1));
+        ApplicationFunnelAggregator before = aggregator(120_000);
+        before.load();
+        before.snapshot();
+
+        // Tras un reinicio, la empresa la reabre y acaba contratando
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        verify(snapshotRepository).save(eq("application-funnel"), eq(2L), payload.capture());
+        when(snapshotRepository.find("application-funnel")).thenReturn(Optional.of(new StoredSnapshot(2L, payload.getValue())));
+        commit(3, 100, INTERVIEW, T0.plusDays(2));
+        commit(4, 100, HIRED, T0.plusDays(5));
+
+        ApplicationFunnelAggregator after = aggregator(120_000);
+        after.load();
+
+        FunnelResponse funnel = after.offerFunnel(COMPANY, OFFER);
+        assertThat(funnel.getReached())
+                .containsEntry(APPLIED, 1L)
+                .containsEntry(REJECTED, 1L)
+                .containsEntry(INTERVIEW, 1L)
+                .containsEntry(HIRED, 1L);
+        assertThat(funnel.getHireRate()).isEqualTo(1.0);
+        assertThat(funnel.getTimeToHire().getCount()).isEqualTo(1);
+        assertThat(funnel.getTimeToHire().getP50()).isEqualTo("<7d");
+        assertThat(after.stats()).containsEntry("tracksReopened", 1L);
+    }
+
+    @Test
+    void unEventoQueLlegaTardeSeAplicaEnOrdenDeId() {
+        commit(1, 200, APPLIED, T0);
+        // El 2 (alta de la aplicación 201) sigue en una transacción abierta cuando se lee el 3
+        commit(3, 201, INTERVIEW, T0.plusHours(2));
+        ApplicationFunnelAggregator aggregator = aggregator(120_000);
+        aggregator.load();
+
+        FunnelResponse partial = aggregator.offerFunnel(COMPANY, OFFER);
+        assertThat(partial.getReached()).containsEntry(APPLIED, 1L).containsEntry(INTERVIEW, 0L);
+        assertThat(aggregator.stats()).containsEntry("heldEvents", 1).containsEntry("pendingGaps", 1);
+
+        commit(2, 201, APPLIED, T0);
+        aggregator.catchUp();
+
+        FunnelResponse funnel = aggregator.offerFunnel(COMPANY, OFFER);
+        assertThat(funnel.getReached()).containsEntry(APPLIED, 2L).containsEntry(INTERVIEW, 1L);
+        assertThat(funnel.getTimeToInterview().getCount()).isEqualTo(1);
+        assertThat(funnel.getTimeToInterview().getP50()).isEqualTo("<6h");
+        assertThat(funnel.getLastEventId()).isEqualTo(3);
+    }
+
+    @Test
+    void unHuecoQueCaducaLiberaLosEventosRetenidos() {
+        commit(1, 300, APPLIED, T0);
+        commit(3, 300, INTERVIEW, T0.plusHours(2));
+        // Con gap-timeout negativo el hueco caduca en la siguiente lectura (una transacción que se deshizo)
+        ApplicationFunnelAggregator aggregator = aggregator(-1);
+        aggregator.load();
+        assertThat(aggregator.stats()).containsEntry("heldEvents", 1);
+
+        aggregator.catchUp();
+
+        assertThat(aggregator.offerFunnel(COMPANY, OFFER).getReached()).containsEntry(INTERVIEW, 1L);
+        assertThat(aggregator.stats())
+                .containsEntry("heldEvents", 0)
+                .containsEntry("pendingGaps", 0)
+                .containsEntry("gapsExpired", 1L);
+    }
+
+    private ApplicationFunnelAggregator aggregator(long gapTimeoutMs) {
+        return new ApplicationFunnelAggregator(logRepository, snapshotRepository, new ObjectMapper(),
+                true, 5000, gapTimeoutMs, 180);
+    }
+
+    private void commit(long id, long applicationId, ApplicationStatus status, LocalDateTime at) {
+        committed.put(id, new LogEntry(id, applicationId, COMPANY, OFFER, applicationId + 1000, null, status, at));
+    }
+}
@@ -0,0 +1,59 @@
+package com.capitalhub.analytics.service;
+
+import com.capitalhub.analytics.dto.DurationStats;
+import com.capitalhub.analytics.repository.AnalyticsSnapshotRepository;
+import com.capitalhub.analytics.repository.AnalyticsSnapshotRepository.StoredSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tiempos entre lecciones con tramos de minutos, y la escala se conserva en el snapshot.
+ */
+class DurationHistogramTest {
+
+    @Test
+    void losMinutosEntreLeccionesNoCaenTodosEnElPrimerTramo() {
+        DurationHistogram hours = new DurationHistogram();
+        DurationHistogram minutes = new DurationHistogram(DurationHistogram.Scale.MINUTES);
+        for (long seconds : new long[]{120, 8 * 60, 10 * 60, 12 * 60, 40 * 60, 26 * 3600}) {
+            hours.add(seconds);
+            minutes.add(seconds);
+        }
+
+        assertThat(hours.toStats().getP50()).isEqualTo("<1h");
+        DurationStats stats = minutes.toStats();
+        assertThat(stats.getP50()).isEqualTo("<15m");
+        assertThat(stats.getP90()).isEqualTo("<7d");
+        assertThat(stats.getBuckets()).containsEntry("<5m", 1L).containsEntry("<15m", 3L).containsEntry("<1h", 1L);
+    }
+
+    @Test
+    void laEscalaSobreviveAlSnapshot() {
+        AnalyticsSnapshotRepository repository = mock(AnalyticsSnapshotRepository.class);
+        AnalyticsSnapshotStore<DurationHistogram> store =
+                new AnalyticsSnapshotStore<>(repository, new ObjectMapper(), "test", DurationHistogram.class);
+        DurationHistogram histogram = new DurationHistogram(DurationHistogram.Scale.MINUTES);
+        histogram.add(20 * 60);
+
+        when(repository.find("test")).thenReturn(Optional.of(new StoredSnapshot(0, store.encode(histogram))));
+        DurationHistogram restored = store.load().orElseThrow();
+
+        assertThat(restored.getScale()).isEqualTo(DurationHistogram.Scale.MINUTES);
+        assertThat(restored.toStats().getP50()).isEqualTo("<30m");
+    }
+
+    @Test
+    void unSnapshotIlegibleSeDescarta() {
+        AnalyticsSnapshotRepository repository = mock(AnalyticsSnapshotRepository.class);
+        when(repository.find("test")).thenReturn(Optional.of(new StoredSnapshot(0, new byte[]{1, 2, 3})));
+
+        assertThat(new AnalyticsSnapshotStore<>(repository, new ObjectMapper(), "test", DurationHistogram.class).load())
+                .isEmpty();
+    }
+}
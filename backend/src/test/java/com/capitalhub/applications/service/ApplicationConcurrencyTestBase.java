@@ -0,0 +1,117 @@
+package com.capitalhub.applications.service;
+
+import com.capitalhub.applications.repository.JobApplicationRepository;
+import com.capitalhub.auth.entity.Role;
+import com.capitalhub.auth.entity.User;
+import com.capitalhub.auth.repository.UserRepository;
+import com.capitalhub.company.entity.Company;
+import com.capitalhub.company.repository.CompanyRepository;
+import com.capitalhub.jobs.entity.JobOffer;
+import com.capitalhub.jobs.entity.JobStatus;
+import com.capitalhub.jobs.repository.JobOfferRepository;
+import com.capitalhub.rep.entity.RepProfile;
+import com.capitalhub.rep.entity.RepRole;
+import com.capitalhub.rep.repository.RepProfileRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base de los tests de concurrencia de JobApplicationService: una empresa, sus comerciales y sus ofertas
+ * en H2, con cada llamada al servicio confirmando su propia transacción. Se borra todo al terminar.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(JobApplicationService.class)
+// Cada petición confirma su propia transacción, como en producción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class ApplicationConcurrencyTestBase {
+
+    // Lo pide el CommandLineRunner de CapitalHubApplication; la configuración de seguridad no entra en el slice
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    // Fuera del alcance de estos tests (JDBC sobre tablas de Flyway o SSE)
+    @MockBean
+    protected ApplicationCounterService counterService;
+    @MockBean
+    protected ApplicationEventLog eventLog;
+    @MockBean
+    private ApplicationStatusStream statusStream;
+
+    @Autowired
+    protected JobApplicationService applicationService;
+    @Autowired
+    protected JobApplicationRepository applicationRepository;
+    @Autowired
+    protected JobOfferRepository jobOfferRepository;
+    @Autowired
+    private RepProfileRepository repProfileRepository;
+    @Autowired
+    private CompanyRepository companyRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    protected User owner;
+    protected Company company;
+
+    @BeforeEach
+    void createCompany() {
+        owner = userRepository.save(user("empresa@test.com", Role.COMPANY));
+        company = companyRepository.save(Company.builder().user(owner).name("Acme").build());
+    }
+
+    @AfterEach
+    void deleteAll() {
+        applicationRepository.deleteAllInBatch();
+        jobOfferRepository.deleteAllInBatch();
+        repProfileRepository.deleteAllInBatch();
+        companyRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    // Comerciales CLOSER con su usuario (rep0@test.com, rep1@test.com...)
+    protected List<RepProfile> createReps(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(user("rep" + i + "@test.com", Role.REP));
+        }
+        return repProfileRepository.saveAll(userRepository.saveAll(users).stream()
+                .map(u -> RepProfile.builder().user(u).roleType(RepRole.CLOSER).build())
+                .toList());
+    }
+
+    protected JobOffer createOffer(int maxApplicants) {
+        return jobOfferRepository.save(JobOffer.builder()
+                .company(company)
+                .title("Closer evergreen")
+                .role(RepRole.CLOSER)
+                .seats(1)
+                .maxApplicants(maxApplicants)
+                .status(JobStatus.ACTIVE)
+                .active(true)
+                .build());
+    }
+
+    private static User user(String email, Role role) {
+        return User.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email(email)
+                .password("x")
+                .role(role)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.capitalhub.applications.service;
+
+import com.capitalhub.applications.dto.ApplicationTicketResponse;
+import com.capitalhub.applications.repository.JobApplicationBatchRepository;
+import com.capitalhub.applications.repository.JobApplicationBatchRepository.NewApplication;
+import com.capitalhub.applications.repository.JobApplicationBatchRepository.OfferCapacity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Una aplicación que hace fallar la transacción de su lote no arrastra a las demás.
+ */
+class ApplicationIntakeQueueBatchTest {
+
+    private static final long OFFER_ID = 10L;
+    private static final long APPLICATIONS = 20;
+    private static final long BROKEN_REP = 1007L;
+
+    private JobApplicationBatchRepository batchRepository;
+    private ApplicationIntakeQueue intakeQueue;
+    private final List<Long> inserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        batchRepository = mock(JobApplicationBatchRepository.class);
+        intakeQueue = new ApplicationIntakeQueue(batchRepository, mock(ApplicationCounterService.class),
+                mock(ApplicationEventLog.class), mock(ApplicationEventPublisher.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 1000, 200);
+
+        // rep id = 1000 + user id
+        when(batchRepository.findRepIdsByUserIds(anyCollection())).thenAnswer(inv -> {
+            Map<Long, Long> repIds = new HashMap<>();
+            inv.<Collection<Long>>getArgument(0).forEach(userId -> repIds.put(userId, 1000 + userId));
+            return repIds;
+        });
+        when(batchRepository.lockOffers(anyCollection()))
+                .thenReturn(Map.of(OFFER_ID, new OfferCapacity(1L, true, 100, 0)));
+        when(batchRepository.findExistingPairs(anyCollection(), anyCollection()))
+                .thenAnswer(inv -> new HashSet<String>());
+
+        // Como una restricción de la base de datos: cualquier lote con esa fila falla entero
+        AtomicLong nextId = new AtomicLong(1);
+        when(batchRepository.insertAll(anyList())).thenAnswer(inv -> {
+            List<NewApplication> rows = inv.getArgument(0);
+            if (rows.stream().anyMatch(r -> r.repId() == BROKEN_REP)) {
+                throw new DataIntegrityViolationException("fk_job_applications_rep");
+            }
+            List<Long> ids = new ArrayList<>();
+            rows.forEach(r -> {
+                ids.add(nextId.getAndIncrement());
+                inserted.add(r.repId());
+            });
+            return ids;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        intakeQueue.stop();
+    }
+
+    @Test
+    void soloSeRechazaLaAplicacionQueFalla() throws InterruptedException {
+        Map<Long, String> handles = new HashMap<>();
+        LongStream.rangeClosed(1, APPLICATIONS).forEach(user ->
+                handles.put(user, intakeQueue.enqueue(user, OFFER_ID, null).getHandle()));
+
+        // Todo ya está encolado: el worker lo recoge en un solo lote
+        intakeQueue.start();
+        awaitFirstBatch();
+
+        handles.forEach((user, handle) -> {
+            ApplicationTicketResponse ticket = intakeQueue.getTicket(user, handle);
+            if (1000 + user == BROKEN_REP) {
+                assertThat(ticket.getStatus()).isEqualTo(ApplicationIntakeQueue.REJECTED);
+                assertThat(ticket.getMessage()).isNotBlank();
+            } else {
+                assertThat(ticket.getStatus()).as("usuario %d", user).isEqualTo(ApplicationIntakeQueue.ACCEPTED);
+                assertThat(ticket.getApplicationId()).isNotNull();
+            }
+        });
+
+        // Las demás se insertan una sola vez y en orden de llegada
+        assertThat(inserted).hasSize((int) APPLICATIONS - 1).isSorted();
+        assertThat(intakeQueue.stats())
+                .containsEntry("accepted", APPLICATIONS - 1)
+                .containsEntry("rejected", 1L)
+                .containsEntry("batches", 1L);
+    }
+
+    // El contador de lotes se actualiza después de resolver todos los tickets del lote
+    private void awaitFirstBatch() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if ((long) intakeQueue.stats().get("batches") > 0) return;
+            Thread.sleep(20);
+        }
+        throw new AssertionError("La cola no procesó las aplicaciones a tiempo");
+    }
+}
@@ -0,0 +1,119 @@
+package com.capitalhub.applications.service;
+
+import com.capitalhub.applications.entity.JobApplication;
+import com.capitalhub.jobs.entity.JobOffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Miles de applyToOffer simultáneos sobre una misma oferta: el contador applicants_count,
+ * las filas de job_applications y los contadores materializados cuadran exactamente,
+ * sin aplicaciones duplicadas y sin pasar de maxApplicants.
+ */
+class ApplyToOfferConcurrencyTest extends ApplicationConcurrencyTestBase {
+
+    private static final int REPS = 1500;
+    private static final int THREADS = 32;
+
+    private static final String DUPLICATE = "Ya has aplicado a esta oferta anteriormente.";
+    private static final String FULL = "Esta oferta ya no admite más candidatos.";
+
+    private List<Long> repUserIds;
+
+    @BeforeEach
+    void setUp() {
+        repUserIds = createReps(REPS).stream().map(r -> r.getUser().getId()).toList();
+    }
+
+    @Test
+    void cadaRepAplicaUnaVezAunqueEnvieDosPeticionesALaVez() throws Exception {
+        JobOffer offer = createOffer(REPS * 2);
+
+        // Cada rep lanza dos applies simultáneos: 3000 peticiones
+        List<Long> attempts = new ArrayList<>(repUserIds);
+        attempts.addAll(repUserIds);
+        Map<String, Integer> outcomes = applyConcurrently(offer.getId(), attempts);
+
+        assertThat(outcomes).containsOnlyKeys("OK", DUPLICATE);
+        assertThat(outcomes.get("OK")).isEqualTo(REPS);
+        assertThat(outcomes.get(DUPLICATE)).isEqualTo(REPS);
+        assertTotals(offer.getId(), REPS);
+    }
+
+    @Test
+    void noSeAdmitenMasCandidatosQueMaxApplicants() throws Exception {
+        int capacity = 400;
+        JobOffer offer = createOffer(capacity);
+
+        Map<String, Integer> outcomes = applyConcurrently(offer.getId(), repUserIds);
+
+        assertThat(outcomes).containsOnlyKeys("OK", FULL);
+        assertThat(outcomes.get("OK")).isEqualTo(capacity);
+        assertThat(outcomes.get(FULL)).isEqualTo(REPS - capacity);
+        assertTotals(offer.getId(), capacity);
+    }
+
+    // Lanza un apply por cada userId a la vez y agrupa los resultados ("OK" o el mensaje del error)
+    private Map<String, Integer> applyConcurrently(Long offerId, List<Long> userIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    String outcome;
+                    try {
+                        applicationService.applyToOffer(userId, offerId, null);
+                        outcome = "OK";
+                    } catch (IllegalStateException e) {
+                        outcome = e.getMessage();
+                    }
+                    outcomes.computeIfAbsent(outcome, k -> new AtomicInteger()).incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES); // cualquier otra excepción hace fallar el test
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcomes.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().get()));
+    }
+
+    private void assertTotals(Long offerId, int expected) {
+        List<JobApplication> applications = applicationRepository.findAll();
+        assertThat(applications).hasSize(expected);
+
+        Map<Long, Long> perRep = applications.stream()
+                .collect(Collectors.groupingBy(a -> a.getRep().getId(), Collectors.counting()));
+        assertThat(perRep).hasSize(expected);
+        assertThat(perRep.values()).allMatch(count -> count == 1);
+
+        assertThat(jobOfferRepository.findById(offerId).orElseThrow().getApplicantsCount()).isEqualTo(expected);
+        verify(counterService, times(expected)).recordApplied(eq(company.getId()), eq(offerId));
+        verify(counterService, times(expected)).recordApplied(anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,106 @@
+package com.capitalhub.applications.service;
+
+import com.capitalhub.applications.dto.BulkStatusRequest;
+import com.capitalhub.applications.dto.BulkStatusResponse;
+import com.capitalhub.applications.entity.ApplicationStatus;
+import com.capitalhub.applications.entity.JobApplication;
+import com.capitalhub.applications.repository.ApplicationEventLogRepository.LogEntry;
+import com.capitalhub.jobs.entity.JobOffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Peticiones en bloque simultáneas sobre las mismas aplicaciones: cada transición registrada
+ * parte del estado que dejó la anterior, así que contadores, log y eventos cuadran con la tabla.
+ */
+class BulkStatusConcurrencyTest extends ApplicationConcurrencyTestBase {
+
+    private static final int APPLICATIONS = 200;
+    private static final int REQUESTS = 24;
+    private static final int THREADS = 8;
+
+    private static final List<ApplicationStatus> TARGETS = List.of(
+            ApplicationStatus.INTERVIEW, ApplicationStatus.REJECTED, ApplicationStatus.HIRED, ApplicationStatus.APPLIED);
+
+    private List<Long> applicationIds;
+
+    @BeforeEach
+    void setUp() {
+        JobOffer offer = createOffer(APPLICATIONS);
+        applicationIds = applicationRepository.saveAll(createReps(APPLICATIONS).stream()
+                        .map(r -> JobApplication.builder().rep(r).jobOffer(offer).status(ApplicationStatus.APPLIED).build())
+                        .toList())
+                .stream().map(JobApplication::getId).toList();
+    }
+
+    @Test
+    void cadaTransicionParteDelEstadoReal() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Random random = new Random(42);
+        int updated = 0;
+        try {
+            List<Future<BulkStatusResponse>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                // Mismos ids en distinto orden en cada petición
+                List<Long> ids = new ArrayList<>(applicationIds);
+                Collections.shuffle(ids, random);
+                BulkStatusRequest req = BulkStatusRequest.builder()
+                        .ids(ids)
+                        .status(TARGETS.get(i % TARGETS.size()))
+                        .build();
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return applicationService.bulkUpdateStatus(owner.getId(), req);
+                }));
+            }
+            start.countDown();
+            for (Future<BulkStatusResponse> f : futures) {
+                BulkStatusResponse response = f.get(2, TimeUnit.MINUTES); // un deadlock o un fallo hace fallar el test
+                assertThat(response.getFailed()).isZero();
+                updated += response.getUpdated();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // El log se escribe con las filas bloqueadas: el orden de las llamadas es el orden de los commits por fila
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LogEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventLog, atLeastOnce()).appendAll(captor.capture());
+        Map<Long, List<LogEntry>> byApplication = new HashMap<>();
+        captor.getAllValues().forEach(batch -> batch.forEach(
+                e -> byApplication.computeIfAbsent(e.applicationId(), k -> new ArrayList<>()).add(e)));
+
+        assertThat(byApplication.values().stream().mapToInt(List::size).sum()).isEqualTo(updated);
+
+        Map<Long, ApplicationStatus> finalStatus = new HashMap<>();
+        applicationRepository.findAll().forEach(a -> finalStatus.put(a.getId(), a.getStatus()));
+        for (Long id : applicationIds) {
+            ApplicationStatus current = ApplicationStatus.APPLIED;
+            for (LogEntry entry : byApplication.getOrDefault(id, List.of())) {
+                assertThat(entry.fromStatus()).as("transición de la aplicación %d", id).isEqualTo(current);
+                assertThat(entry.toStatus()).isNotEqualTo(current);
+                current = entry.toStatus();
+            }
+            assertThat(finalStatus.get(id)).isEqualTo(current);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.capitalhub.jobs.service;
+
+import com.capitalhub.applications.event.ApplicationSubmittedEvent;
+import com.capitalhub.auth.entity.Role;
+import com.capitalhub.auth.entity.User;
+import com.capitalhub.company.entity.Company;
+import com.capitalhub.jobs.dto.JobOfferRequest;
+import com.capitalhub.jobs.dto.JobOfferResponse;
+import com.capitalhub.jobs.entity.JobStatus;
+import com.capitalhub.jobs.repository.JobOfferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El feed y el índice son compartidos por todos los comerciales: guardan solo lo que sale de la oferta
+ * guardada y se refrescan (con versión nueva) cuando cambia su applicantsCount.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({JobOfferService.class, JobSearchIndex.class, JobFeedSnapshotCache.class, JobRecommendationEngine.class})
+class JobFeedSnapshotFreshnessTest {
+
+    // Lo pide el CommandLineRunner de CapitalHubApplication; la configuración de seguridad no entra en el slice
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JobOfferService jobOfferService;
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+    @Autowired
+    private TestEntityManager em;
+
+    private Company company;
+    private User companyUser;
+
+    @BeforeEach
+    void setUp() {
+        companyUser = em.persist(User.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email("empresa@test.com")
+                .password("x")
+                .role(Role.COMPANY)
+                .build());
+        company = em.persist(Company.builder().user(companyUser).name("Acme").build());
+        jobOfferService.reloadReadModels();
+    }
+
+    @Test
+    void elFeedNoGuardaLosDatosDeLaPeticionDeAlta() {
+        JobOfferResponse created = jobOfferService.createOffer(companyUser.getId(), JobOfferRequest.builder()
+                .title("Closer high ticket")
+                .role("CLOSER")
+                .commissionPercent(10.0)
+                .salaryHint("Fijo 2.000 € negociable")
+                .model("Fijo + variable")
+                .build());
+
+        // Quien crea la oferta recibe lo que envió
+        assertThat(created.getSalaryHint()).isEqualTo("Fijo 2.000 € negociable");
+        assertThat(created.getModel()).isEqualTo("Fijo + variable");
+
+        JobOfferResponse inFeed = jobOfferService.listAllActiveOffers().stream()
+                .filter(o -> o.getId().equals(created.getId()))
+                .findFirst().orElseThrow();
+        assertThat(inFeed.getSalaryHint()).isEqualTo("10.0% comisión");
+        assertThat(inFeed.getModel()).isEqualTo("Variable");
+
+        assertThat(jobOfferService.searchOffers("closer", 10))
+                .singleElement()
+                .satisfies(o -> assertThat(o.getSalaryHint()).isEqualTo("10.0% comisión"));
+    }
+
+    @Test
+    void unaAplicacionRefrescaElContadorYLaVersion() {
+        JobOfferResponse created = jobOfferService.createOffer(companyUser.getId(), JobOfferRequest.builder()
+                .title("Setter")
+                .role("SETTER")
+                .build());
+        String before = jobOfferService.listAllActiveOffersVersioned().version();
+
+        assertThat(jobOfferRepository.incrementApplicantsIfAdmitted(created.getId(), JobStatus.ACTIVE)).isEqualTo(1);
+        em.clear();
+        jobOfferService.onApplicationSubmitted(new ApplicationSubmittedEvent(
+                1L, 1L, company.getId(), created.getId(), LocalDateTime.now()));
+
+        var after = jobOfferService.listAllActiveOffersVersioned();
+        assertThat(after.version()).isNotEqualTo(before);
+        assertThat(after.offers()).singleElement()
+                .satisfies(o -> assertThat(o.getApplicantsCount()).isEqualTo(1));
+    }
+}
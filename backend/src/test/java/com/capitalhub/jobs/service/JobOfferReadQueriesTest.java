@@ -0,0 +1,182 @@
+package com.capitalhub.jobs.service;
+
+import com.capitalhub.auth.entity.Role;
+import com.capitalhub.auth.entity.User;
+import com.capitalhub.company.entity.Company;
+import com.capitalhub.jobs.dto.JobFeedFilter;
+import com.capitalhub.jobs.dto.JobFeedPage;
+import com.capitalhub.jobs.dto.JobOfferResponse;
+import com.capitalhub.jobs.entity.JobOffer;
+import com.capitalhub.jobs.entity.JobStatus;
+import com.capitalhub.rep.entity.RepProfile;
+import com.capitalhub.rep.entity.RepRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las lecturas de ofertas van por la proyección JobOfferView: el número de sentencias
+ * no depende de cuántas ofertas se devuelven (sin N+1 sobre companies).
+ * También fija qué roles de oferta entran en el feed de cada comercial.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({JobOfferService.class, JobSearchIndex.class, JobFeedSnapshotCache.class, JobRecommendationEngine.class})
+class JobOfferReadQueriesTest {
+
+    private static final int FEW = 3;
+    private static final int MANY = 60;
+
+    // Lo pide el CommandLineRunner de CapitalHubApplication; la configuración de seguridad no entra en el slice
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JobOfferService jobOfferService;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Company company;
+    private User companyUser;
+    private User repUser;
+    private Long firstOfferId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        companyUser = em.persist(user("empresa@test.com", Role.COMPANY));
+        company = em.persist(Company.builder().user(companyUser).name("Acme").build());
+        repUser = em.persist(user("rep@test.com", Role.REP));
+        em.persist(RepProfile.builder().user(repUser).roleType(RepRole.CLOSER).build());
+        firstOfferId = addOffers(FEW, false);
+    }
+
+    @Test
+    void listadoDeEmpresaNoDependeDelNumeroDeOfertas() {
+        assertConstant(false, () -> jobOfferService.listCompanyOffers(companyUser.getId()).size());
+    }
+
+    @Test
+    void feedPaginadoNoDependeDelNumeroDeOfertas() {
+        JobFeedFilter filter = JobFeedFilter.builder().limit(100).build();
+        assertConstant(true, () -> {
+            JobFeedPage page = jobOfferService.listFeedForRep(repUser.getId(), filter);
+            return page.getItems().size();
+        });
+    }
+
+    @Test
+    void cargaDelSnapshotNoDependeDelNumeroDeOfertas() {
+        assertConstant(true, () -> {
+            jobOfferService.reloadReadModels();
+            return jobOfferService.listAllActiveOffers().size();
+        });
+    }
+
+    @Test
+    void detalleEsUnaSolaConsulta() {
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        JobOfferResponse offer = jobOfferService.getOffer(firstOfferId);
+
+        assertThat(offer.getCompanyName()).isEqualTo("Acme");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unComercialBothVeLasOfertasDeTodosLosRoles() {
+        User bothUser = em.persist(user("both@test.com", Role.REP));
+        em.persist(RepProfile.builder().user(bothUser).roleType(RepRole.BOTH).build());
+        for (RepRole role : new RepRole[]{RepRole.SETTER, RepRole.COLD_CALLER, RepRole.BOTH}) {
+            em.persist(offer(company, role.name(), role));
+        }
+        em.flush();
+        JobFeedFilter filter = JobFeedFilter.builder().limit(100).build();
+
+        assertThat(jobOfferService.listFeedForRep(bothUser.getId(), filter).getItems()).hasSize(FEW + 3);
+        assertThat(jobOfferService.listFeedForRep(repUser.getId(), filter).getItems()).hasSize(FEW + 1);
+    }
+
+    // Mide la lectura con FEW ofertas y con MANY: mismas sentencias, distinto número de filas.
+    // Con otherCompanies cada oferta nueva es de otra empresa (un N+1 sobre companies se notaría)
+    private void assertConstant(boolean otherCompanies, Supplier<Integer> read) {
+        long few = measure(read, FEW);
+        addOffers(MANY - FEW, otherCompanies);
+        long many = measure(read, MANY);
+
+        assertThat(many).isEqualTo(few);
+    }
+
+    private long measure(Supplier<Integer> read, int expectedRows) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        assertThat(read.get()).isEqualTo(expectedRows);
+        assertThat(statistics.getEntityLoadCount())
+                .as("las ofertas no deben cargarse como entidades")
+                .isLessThanOrEqualTo(2);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long addOffers(int count, boolean otherCompanies) {
+        Long first = null;
+        for (int i = 0; i < count; i++) {
+            Company owner = company;
+            if (otherCompanies) {
+                User ownerUser = em.persist(user("empresa" + i + "@test.com", Role.COMPANY));
+                owner = em.persist(Company.builder().user(ownerUser).name("Empresa " + i).build());
+            }
+            JobOffer offer = em.persist(offer(owner, "Closer " + i, RepRole.CLOSER));
+            if (first == null) first = offer.getId();
+        }
+        return first;
+    }
+
+    private static JobOffer offer(Company owner, String title, RepRole role) {
+        return JobOffer.builder()
+                .company(owner)
+                .title(title)
+                .description("Oferta de prueba")
+                .role(role)
+                .seats(1)
+                .maxApplicants(20)
+                .status(JobStatus.ACTIVE)
+                .active(true)
+                .build();
+    }
+
+    private static User user(String email, Role role) {
+        return User.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email(email)
+                .password("x")
+                .role(role)
+                .build();
+    }
+}
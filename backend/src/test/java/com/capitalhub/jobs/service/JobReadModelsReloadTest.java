@@ -0,0 +1,78 @@
+package com.capitalhub.jobs.service;
+
+import com.capitalhub.jobs.dto.JobOfferResponse;
+import com.capitalhub.jobs.entity.JobStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una recarga completa del feed y del índice no pierde los cambios que se confirman mientras
+ * se consulta la base de datos (el mismo anidamiento que JobOfferService.reloadReadModels).
+ */
+class JobReadModelsReloadTest {
+
+    private final JobFeedSnapshotCache feedCache = new JobFeedSnapshotCache();
+    private final JobSearchIndex searchIndex = new JobSearchIndex();
+
+    @Test
+    void losCambiosDuranteLaCargaSeReaplican() {
+        JobOfferResponse kept = offer(1L, "Closer inmobiliaria");
+        JobOfferResponse closed = offer(2L, "Setter seguros");
+        feedCache.replaceAll(() -> List.of(kept, closed));
+        searchIndex.rebuild(() -> List.of(kept, closed));
+
+        JobOfferResponse created = offer(3L, "Closer formación");
+        searchIndex.rebuild(() -> feedCache.replaceAll(() -> {
+            // La consulta ya leyó la base de datos; estos cambios se confirman después
+            List<JobOfferResponse> loaded = List.of(kept, closed);
+            searchIndex.upsert(created);
+            feedCache.upsert(created);
+            searchIndex.remove(closed.getId());
+            feedCache.remove(closed.getId());
+            return loaded;
+        }));
+
+        assertThat(feedCache.get(JobFeedSnapshotCache.View.ALL, List::of))
+                .extracting(JobOfferResponse::getId)
+                .containsExactly(3L, 1L);
+        assertThat(searchIndex.search("closer", 10))
+                .extracting(JobOfferResponse::getId)
+                .containsExactlyInAnyOrder(1L, 3L);
+        assertThat(searchIndex.search("setter", 10)).isEmpty();
+    }
+
+    @Test
+    void unaCargaFallidaConservaElSnapshotAnterior() {
+        JobOfferResponse kept = offer(1L, "Closer inmobiliaria");
+        feedCache.replaceAll(() -> List.of(kept));
+        long version = (long) feedCache.stats().get("version");
+
+        try {
+            feedCache.replaceAll(() -> {
+                throw new IllegalStateException("sin conexión");
+            });
+        } catch (IllegalStateException expected) {
+            // La recarga falla entera
+        }
+
+        assertThat(feedCache.stats()).containsEntry("version", version);
+        // Sin ventana abierta, los cambios se aplican directamente
+        feedCache.upsert(offer(2L, "Setter"));
+        assertThat(feedCache.get(JobFeedSnapshotCache.View.ALL, List::of)).hasSize(2);
+    }
+
+    private static JobOfferResponse offer(Long id, String title) {
+        return JobOfferResponse.builder()
+                .id(id)
+                .title(title)
+                .role("CLOSER")
+                .status(JobStatus.ACTIVE)
+                .active(true)
+                .createdAt(LocalDateTime.of(2026, 1, 1, 0, 0).plusDays(id))
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.capitalhub.jobs.service;
+
+import com.capitalhub.rep.entity.RepRole;
+import org.junit.jupiter.api.Test;
+
+import static com.capitalhub.jobs.service.JobRecommendationEngine.LANG_EN;
+import static com.capitalhub.jobs.service.JobRecommendationEngine.LANG_ES;
+import static com.capitalhub.jobs.service.JobRecommendationEngine.LANG_PT;
+import static com.capitalhub.jobs.service.JobRecommendationEngine.REGION_ES;
+import static com.capitalhub.jobs.service.JobRecommendationEngine.REGION_LATAM;
+import static com.capitalhub.jobs.service.JobRecommendationEngine.REGION_USA;
+import static com.capitalhub.jobs.service.JobRecommendationEngine.languageMask;
+import static com.capitalhub.jobs.service.JobRecommendationEngine.regionMask;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Idiomas del catálogo (V1_1) y mercados escritos como los escribe la gente: con tildes,
+ * en plural y en inglés o en español.
+ */
+class JobRecommendationEngineMasksTest {
+
+    @Test
+    void idiomasDelCatalogo() {
+        assertThat(languageMask("Español")).isEqualTo(LANG_ES);
+        assertThat(languageMask("Inglés")).isEqualTo(LANG_EN);
+        assertThat(languageMask("Portugués")).isEqualTo(LANG_PT);
+        assertThat(languageMask("Español, Inglés y Portugués")).isEqualTo(LANG_ES | LANG_EN | LANG_PT);
+        assertThat(languageMask("English / Portuguese")).isEqualTo(LANG_EN | LANG_PT);
+        assertThat(languageMask("Francés")).isZero();
+    }
+
+    @Test
+    void mercados() {
+        assertThat(regionMask("Estados Unidos")).isEqualTo(REGION_USA);
+        assertThat(regionMask("United States")).isEqualTo(REGION_USA);
+        assertThat(regionMask("EEUU")).isEqualTo(REGION_USA);
+        assertThat(regionMask("España")).isEqualTo(REGION_ES);
+        assertThat(regionMask("LATAM (México, Colombia)")).isEqualTo(REGION_LATAM);
+        assertThat(regionMask("España y Estados Unidos")).isEqualTo(REGION_ES | REGION_USA);
+    }
+
+    @Test
+    void sinIdiomasSeDeducenDelPais() {
+        assertThat(features("Estados Unidos", null).languageMask()).isEqualTo(LANG_EN);
+        assertThat(features("Brasil", "").languageMask()).isEqualTo(LANG_ES | LANG_PT);
+        assertThat(features("Estados Unidos", "Portugués").languageMask()).isEqualTo(LANG_PT);
+    }
+
+    private static JobRecommendationEngine.RepFeatures features(String country, String languages) {
+        return JobRecommendationEngine.features(RepRole.CLOSER, country, languages, 0, null, null, null);
+    }
+}
@@ -0,0 +1,129 @@
+package com.capitalhub.training.service;
+
+import com.capitalhub.analytics.service.TrainingFunnelAggregator;
+import com.capitalhub.training.repository.ProgressBatchRepository;
+import com.capitalhub.training.repository.ProgressBatchRepository.CompletedLesson;
+import com.capitalhub.training.repository.UserProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Un lote con filas que violan una restricción no bloquea el resto, y los fallos que se repiten
+ * no hacen crecer el buffer sin límite.
+ */
+class TrainingProgressStoreFlushTest {
+
+    private static final int MAX_RETRIES = 3;
+    private static final long DELETED_LESSON = 999L;
+
+    private ProgressBatchRepository progressBatchRepository;
+    private TrainingFunnelAggregator funnelAggregator;
+    private TrainingProgressStore store;
+
+    @BeforeEach
+    void setUp() {
+        progressBatchRepository = mock(ProgressBatchRepository.class);
+        funnelAggregator = mock(TrainingFunnelAggregator.class);
+        store = new TrainingProgressStore(mock(UserProgressRepository.class), progressBatchRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), funnelAggregator,
+                1_800_000, 1000, MAX_RETRIES);
+    }
+
+    @Test
+    void lasFilasQueViolanUnaRestriccionSeDescartanYElRestoSeEscribe() {
+        // Como la FK de user_progress: cualquier lote que contenga la lección borrada falla entero
+        doAnswer(inv -> {
+            List<CompletedLesson> rows = inv.getArgument(0);
+            if (rows.stream().anyMatch(r -> r.lessonId() == DELETED_LESSON)) {
+                throw new DataIntegrityViolationException("fk_progress_lesson");
+            }
+            return null;
+        }).when(progressBatchRepository).markCompleted(anyList());
+
+        for (long user = 1; user <= 50; user++) {
+            store.complete(user, 1L, 0, null);
+            store.complete(user, 2L, 1, null);
+        }
+        store.complete(7L, DELETED_LESSON, 2, null);
+        store.complete(31L, DELETED_LESSON, 2, null);
+
+        store.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CompletedLesson>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(funnelAggregator).record(recorded.capture());
+        assertThat(recorded.getValue()).hasSize(100)
+                .noneMatch(r -> r.lessonId() == DELETED_LESSON);
+
+        Map<String, Object> stats = store.stats();
+        assertThat(stats).containsEntry("rowsFlushed", 100L)
+                .containsEntry("rowsDropped", 2L)
+                .containsEntry("bufferedUsers", 0)
+                .containsEntry("retryingRows", 0);
+
+        // Nada vuelve al buffer: el siguiente flush no escribe nada
+        store.flush();
+        verify(funnelAggregator, times(1)).record(anyList());
+    }
+
+    @Test
+    void losFallosTransitoriosSeReintentanHastaElLimite() {
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(inv -> {
+            batchSizes.add(inv.<List<?>>getArgument(0).size());
+            throw new TransientDataAccessResourceException("sin conexión");
+        }).when(progressBatchRepository).markCompleted(anyList());
+
+        for (long user = 1; user <= 20; user++) {
+            store.complete(user, 1L, 0, null);
+        }
+
+        for (int i = 0; i <= MAX_RETRIES; i++) {
+            store.flush();
+            // Un error que no es de restricción no parte el lote
+            assertThat(batchSizes.get(i)).isEqualTo(20);
+        }
+        assertThat(store.stats()).containsEntry("bufferedUsers", 0)
+                .containsEntry("rowsDropped", 20L)
+                .containsEntry("retryingRows", 0);
+
+        store.flush();
+        assertThat(batchSizes).hasSize(MAX_RETRIES + 1);
+        verify(funnelAggregator, times(0)).record(anyList());
+    }
+
+    @Test
+    void unReintentoConExitoLimpiaLosIntentos() {
+        doThrow(new TransientDataAccessResourceException("sin conexión"))
+                .doNothing()
+                .when(progressBatchRepository).markCompleted(anyList());
+
+        store.complete(1L, 1L, 0, null);
+        store.flush();
+        assertThat(store.stats()).containsEntry("retryingRows", 1).containsEntry("bufferedUsers", 1);
+
+        store.flush();
+        assertThat(store.stats()).containsEntry("retryingRows", 0)
+                .containsEntry("bufferedUsers", 0)
+                .containsEntry("rowsFlushed", 1L);
+        verify(funnelAggregator, atLeastOnce()).record(anyList());
+    }
+}